@@ -1,5 +1,6 @@
 package nars.concept.action;
 
+import jcog.data.list.FasterList;
 import nars.NAR;
 import nars.Param;
 import nars.Task;
@@ -223,6 +224,12 @@ public class AbstractGoalActionConcept extends ActionConcept {
 
     }
 
+    @Override
+    public void add(FasterList<Remember> r, NAR n) {
+        for (Remember x : r)
+            add(x, n);
+    }
+
     private long[] eviShared = null;
     @Nullable SignalTask curiosity(Truth goal, long pStart, long pEnd, NAR n) {
         long[] evi = evi(n);
@@ -20,6 +20,8 @@ import org.slf4j.LoggerFactory;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
 import static nars.Op.*;
@@ -84,6 +86,11 @@ public class PrologCore extends PrologAgent implements Consumer<Task> {
     public final Number answerConf = new AtomicFloat(confThreshold.floatValue() * 0.9f);
 
 
+    /**
+     * questions are solved or-parallel, on the common ForkJoinPool
+     */
+    public final AtomicBoolean parallel = new AtomicBoolean(false);
+
     private final long timeoutMS = 50;
     private final ConsumerX<ITask> in;
 
@@ -196,6 +203,11 @@ public class PrologCore extends PrologAgent implements Consumer<Task> {
 
         logger.info("solve {}", questionTerm);
 
+        if (parallel.get() && questionTerm instanceof Struct) {
+            questionParallel(question, (Struct) questionTerm);
+            return;
+        }
+
         solveWhile(questionTerm, (answer) -> {
 
 
@@ -220,6 +232,21 @@ public class PrologCore extends PrologAgent implements Consumer<Task> {
 
     }
 
+    private void questionParallel(Task question, Struct questionTerm) {
+        try (ParallelSolve s = solveParallel(questionTerm)) {
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMS);
+            long remain;
+            while ((remain = deadline - System.nanoTime()) > 0) {
+                Solution answer = s.poll(remain, TimeUnit.NANOSECONDS);
+                if (answer == null)
+                    break;
+                answer(question, answer);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private void answer(Task question, Solution answer) {
         try {
             Term yt = nterm(answer.goal);
@@ -1,5 +1,6 @@
 package nars.op.rdfowl;
 
+import jcog.data.list.FasterList;
 import nars.$;
 import nars.NAR;
 import nars.Task;
@@ -19,10 +20,13 @@ import org.slf4j.LoggerFactory;
 
 import javax.xml.namespace.QName;
 import java.io.*;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -545,6 +549,135 @@ public abstract class NQuadsRDF {
         return stream(new BufferedInputStream(new FileInputStream(f)));
     }
 
+    /** lines parsed, and built into tasks, by each task of the parallel stage */
+    static final int CHUNK_LINES = 4096;
+
+    /** chunks being parsed, per thread of the pool */
+    static final int CHUNKS_PER_THREAD = 2;
+
+    /** batches of tasks waiting in the NAR's input queue, per thread of its executor */
+    static final int BATCHES_PER_THREAD = 2;
+
+    /** period at which a wait for the input of queued batches checks that the NAR's executor is running */
+    private static final long RUNNING_CHECK_MS = 100;
+
+    public static long inputParallel(NAR nar, File f) throws IOException, InterruptedException {
+        logger.info("loading {}", f);
+        try (BufferedReader r = new BufferedReader(new InputStreamReader(new FileInputStream(f), StandardCharsets.UTF_8), 1024 * 1024)) {
+            return inputParallel(nar, r, ForkJoinPool.commonPool());
+        }
+    }
+
+    /**
+     * pipelined input: the lines are read, in chunks, by the calling thread; each chunk is parsed,
+     * and its triples built into tasks, on the pool; and the tasks of each chunk are input as a batch
+     * by the NAR's executor.  the chunks being parsed, and the batches queued for input, are bounded,
+     * so the reading waits for the NAR to keep up.  returns once all the tasks have been input, so
+     * it is to be called by a thread other than the NAR's workers (ex: by Exec.executeBlocking).
+     * <p>
+     * the NAR's executor must be running, though its loop need not be: a stopped executor
+     * (after NAR.stop()) does not input the queued batches, so the input fails rather than waiting for them.
+     *
+     * @return the number of tasks input
+     * @throws IllegalStateException if the NAR's executor is, or becomes, stopped
+     */
+    public static long inputParallel(NAR nar, BufferedReader in, ForkJoinPool pool) throws IOException, InterruptedException {
+        running(nar);
+
+        int batches = Math.max(1, nar.exe.concurrencyMax() * BATCHES_PER_THREAD);
+        Semaphore queued = new Semaphore(batches);
+
+        int maxParsing = Math.max(1, pool.getParallelism() * CHUNKS_PER_THREAD);
+        Deque<CompletableFuture<Task[]>> parsing = new ArrayDeque<>(maxParsing);
+
+        long count = 0;
+        List<String> chunk = new FasterList<>(CHUNK_LINES);
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.isEmpty() || line.charAt(0) == '#')
+                continue;
+
+            chunk.add(line);
+            if (chunk.size() >= CHUNK_LINES) {
+                List<String> c = chunk;
+                parsing.add(CompletableFuture.supplyAsync(() -> tasks(nar, c), pool));
+                chunk = new FasterList<>(CHUNK_LINES);
+
+                //in order of the chunks, so that the input is that of a sequential read
+                while (parsing.size() >= maxParsing)
+                    count += input(nar, parsing.removeFirst().join(), queued);
+            }
+        }
+        if (!chunk.isEmpty())
+            parsing.add(CompletableFuture.completedFuture(tasks(nar, chunk)));
+
+        while (!parsing.isEmpty())
+            count += input(nar, parsing.removeFirst().join(), queued);
+
+        //wait for the queued batches
+        acquire(nar, queued, batches);
+        queued.release(batches);
+
+        return count;
+    }
+
+    /** waits for permits, while the NAR's executor is running to release them */
+    private static void acquire(NAR nar, Semaphore queued, int permits) throws InterruptedException {
+        while (!queued.tryAcquire(permits, RUNNING_CHECK_MS, TimeUnit.MILLISECONDS))
+            running(nar);
+    }
+
+    private static void running(NAR nar) {
+        if (!nar.exe.running())
+            throw new IllegalStateException(nar.exe + " is stopped, so it would not input the queued batches");
+    }
+
+    /** the tasks of a chunk of lines */
+    private static Task[] tasks(NAR nar, List<String> lines) {
+        NxParser p = new NxParser();
+        p.parse(lines);
+
+        List<Task> tasks = new FasterList<>(lines.size());
+        for (Node[] nx : p) {
+            if (nx.length < 3)
+                continue;
+
+            Atomic subject = resource(nx[0]), predicate = resource(nx[1]), object = resource(nx[2]);
+            if (subject == null || predicate == null || object == null)
+                continue;
+
+            try {
+                Task t = inputNALlike(nar, subject, predicate, object);
+                if (t != null)
+                    tasks.add(t);
+            } catch (RuntimeException e) {
+                logger.error("rdf({}) to task: {}", new Term[]{subject, predicate, object}, e);
+            }
+        }
+        return tasks.toArray(new Task[0]);
+    }
+
+    /** inputs a batch of tasks by the NAR's executor, once fewer than the maximum are queued */
+    private static int input(NAR nar, Task[] batch, Semaphore queued) throws InterruptedException {
+        if (batch.length == 0)
+            return 0;
+
+        acquire(nar, queued, 1);
+        try {
+            nar.exe.input((Consumer<NAR>) n -> {
+                try {
+                    n.inputBatch(batch);
+                } finally {
+                    queued.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            queued.release();
+            throw e;
+        }
+        return batch.length;
+    }
+
 
 
 
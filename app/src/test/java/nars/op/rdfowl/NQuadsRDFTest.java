@@ -2,15 +2,16 @@ package nars.op.rdfowl;
 
 import nars.NAR;
 import nars.NARS;
+import nars.exe.MultiExec;
+import nars.exe.Valuator;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.PrintStream;
+import java.io.*;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
 
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 
 /**
@@ -28,6 +29,60 @@ public class NQuadsRDFTest {
         assertTrue(n.concepts.size() > 2);
     }
 
+    private static String triples(int triples) {
+        StringBuilder s = new StringBuilder(triples * 64);
+        s.append("# comment\n");
+        for (int i = 0; i < triples; i++)
+            s.append("<http://example.org/#x").append(i)
+             .append("> <http://example.org/#knows> <http://example.org/#y").append(i % 100).append("> .\n");
+        return s.toString();
+    }
+
+    private static NAR multiExec() {
+        return NARS.realtime(10f).exe(new MultiExec.WorkerExec(new Valuator.DefaultValuator(0.5f), 2)).get();
+    }
+
+    @Test
+    public void testInputParallel() throws Exception {
+        final NAR n = NARS.tmp();
+
+        int triples = NQuadsRDF.CHUNK_LINES * 3 + 7;
+        long input = NQuadsRDF.inputParallel(n, new BufferedReader(new StringReader(triples(triples))), ForkJoinPool.commonPool());
+        assertEquals(triples, input);
+
+        n.run(1);
+        assertTrue(n.concepts.size() > 100);
+    }
+
+    /** the batches are input by the executor's workers, whether or not the NAR's loop is running */
+    @Test
+    public void testInputParallelMultiExec() throws Exception {
+        final NAR n = multiExec();
+        try {
+            assertFalse(n.loop.isRunning());
+
+            int triples = NQuadsRDF.CHUNK_LINES * 8 + 7;
+            long input = assertTimeoutPreemptively(Duration.ofSeconds(60), () ->
+                    NQuadsRDF.inputParallel(n, new BufferedReader(new StringReader(triples(triples))), ForkJoinPool.commonPool()));
+            assertEquals(triples, input);
+            assertTrue(n.concepts.size() > 100);
+        } finally {
+            n.stop();
+        }
+    }
+
+    /** a stopped executor would never input the queued batches */
+    @Test
+    public void testInputParallelStopped() {
+        final NAR n = multiExec();
+        n.stop();
+
+        String triples = triples(NQuadsRDF.CHUNK_LINES * 8 + 7);
+        assertTimeoutPreemptively(Duration.ofSeconds(60), () ->
+                assertThrows(IllegalStateException.class, () ->
+                        NQuadsRDF.inputParallel(n, new BufferedReader(new StringReader(triples)), ForkJoinPool.commonPool())));
+    }
+
     @Disabled
     @Test
     public void testSchema1() throws Exception {
@@ -0,0 +1,58 @@
+package alice.tuprolog;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * lookup of a large fact table, f(I, aJ, K), by one bound argument.
+ * the first argument is indexed as the facts are added; the others by the first query binding them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ClauseIndexBenchmark {
+
+    @Param({"1000", "100000"})
+    private int facts;
+
+    /** the bound argument */
+    @Param({"0", "1", "2"})
+    private int arg;
+
+    private Prolog engine;
+
+    @Setup
+    public void setup() throws InvalidTheoryException {
+        StringBuilder t = new StringBuilder(facts * 24);
+        for (int i = 0; i < facts; i++)
+            t.append("f(").append(i).append(", a").append(i).append(", ").append(facts - i).append(").\n");
+        engine = new Prolog();
+        engine.setTheory(new Theory(t.toString()));
+    }
+
+    @Benchmark
+    public boolean lookup() throws MalformedGoalException {
+        int i = ThreadLocalRandom.current().nextInt(facts);
+        String q;
+        switch (arg) {
+            case 0: q = "f(" + i + ", Y, Z)."; break;
+            case 1: q = "f(X, a" + i + ", Z)."; break;
+            default: q = "f(X, Y, " + (facts - i) + ")."; break;
+        }
+        return engine.solve(q).isSuccess();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ClauseIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,63 @@
+package alice.tuprolog;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * resolution throughput, and (with the gc profiler, as run by main) the allocation of its clause renaming:
+ * naive reverse of a list, whose clauses' heads bind the goal's variables to structures,
+ * and a query of a fact table whose heads mostly do not unify beyond their first argument.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ResolutionBenchmark {
+
+    private static final String theory =
+            "app([], L, L).\n" +
+            "app([H | T], L, [H | R]) :- app(T, L, R).\n" +
+            "nrev([], []).\n" +
+            "nrev([H | T], R) :- nrev(T, RT), app(RT, [H], R).\n" +
+            "range(N, N, [N]) :- !.\n" +
+            "range(M, N, [M | T]) :- M < N, M1 is M + 1, range(M1, N, T).\n";
+
+    private Prolog engine;
+    private Struct nrev, facts;
+
+    @Setup
+    public void setup() throws InvalidTheoryException {
+        StringBuilder t = new StringBuilder(theory);
+        for (int i = 0; i < 100; i++)
+            t.append("f(k, ").append(i).append(", g(").append(i).append(", h(a, b))).\n");
+        engine = new Prolog();
+        engine.setTheory(new Theory(t.toString()));
+        nrev = (Struct) engine.term("range(1, 30, L), nrev(L, R).");
+        facts = (Struct) engine.term("f(k, X, g(99, Y)).");
+    }
+
+    @Benchmark
+    public boolean naiveReverse() {
+        return engine.solve(nrev).isSuccess();
+    }
+
+    @Benchmark
+    public boolean factTable() {
+        return engine.solve(facts).isSuccess();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ResolutionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -160,7 +160,8 @@ public final class BuiltIn extends PrologLib {
         boolean sClause = sarg0.isClause();
 
 
-        if (theories.retract(sarg0, c -> unify(!sClause ? new Struct(":-", arg0, new Struct("true")) : sarg0, c.clause)
+        Struct x = theories.tabled(!sClause ? new Struct(":-", arg0, new Struct("true")) : sarg0);
+        if (theories.retract(sarg0, c -> unify(x, c.clause)
         ) > 0) {
             return true;
         }
@@ -469,20 +470,24 @@ public final class BuiltIn extends PrologLib {
         arg1 = arg1.term();
         if (arg0 instanceof Var)
             throw PrologError.instantiation_error(prolog, 1);
-        if (/* !arg0 instanceof Struct || */!arg1.isList())
+        //an unbound list is bound to a new one: a parsed [] is the shared, immutable empty list
+        boolean bind = arg1 instanceof Var;
+        if (/* !arg0 instanceof Struct || */!bind && !arg1.isList())
             throw PrologError.type_error(prolog, 2, "list", arg1);
 
-        Struct list = (Struct) arg1;
-        Iterable<ClauseInfo> l = theories.find(arg0);
+        Struct list = bind ? Struct.emptyListMutable() : (Struct) arg1;
+        //the clauses of a tabled predicate, rather than the clause which calls its table
+        Term h = arg0 instanceof Struct ? theories.tabled((Struct) arg0) : arg0;
+        Iterable<ClauseInfo> l = theories.find(h);
         for (ClauseInfo b : l) {
-            if (arg0.unifiable(b.head)) {
+            if (h.unifiable(b.head)) {
                 b.clause.resolveTerm();
                 if (list == Struct.EmptyList)
                     list = Struct.emptyListMutable();
-                list.append(b.clause);
+                list.append(h == arg0 ? b.clause : Theories.untabled(b.clause));
             }
         }
-        return true;
+        return !bind || unify(arg1, list);
     }
 
 
@@ -18,7 +18,9 @@
 package alice.tuprolog;
 
 import java.util.AbstractMap;
+import java.util.Collection;
 import java.util.IdentityHashMap;
+import java.util.Map;
 
 /**
  * This class mantains information about a clause creation
@@ -134,20 +136,60 @@ public class ClauseInfo {
 
 
     /**
-     * Perform copy for use in current engine's demostration
+     * Unifies a goal with the head of this clause, renamed for use in current engine's
+     * demonstration, without copying the head: the goal is unified against the stored head,
+     * whose variables are renamed as they are met, and only the subterms of the head which
+     * bind a variable of the goal are copied.  The body is copied, with the same renaming,
+     * only if the unification succeeds.
      *
      * @param idExecCtx Current ExecutionContext id
+     * @param unifiedVars the variables bound by the unification
+     * @return false if the goal does not unify
      */
-    void copyTo(int idExecCtx, PrologContext target) {
+    boolean unifyTo(Struct goal, Collection<Var> unifiedVars, int idExecCtx, PrologContext target) {
         IdentityHashMap<Var, Var> v = new IdentityHashMap<>();
 
-        Struct headCopy = (Struct) head.copy(v, idExecCtx);
-        target.headClause = headCopy;
+        if (!unifyRenamed(goal, head, v, idExecCtx, unifiedVars))
+            return false;
 
         SubGoalTree bodyCopy = new SubGoalTree();
         bodyCopy(body, bodyCopy, v, idExecCtx);
         target.goalsToEval = new SubGoalStore( bodyCopy );
-        
+        return true;
+    }
+
+    /**
+     * unifies x with the renaming of y, as x.unify(vl, vl, y.copy(map, id)) would
+     */
+    private static boolean unifyRenamed(Term x, Term y, Map<Var, Var> map, int id, Collection<Var> vl) {
+        if (y instanceof Var) {
+            Term yy = y.term();
+            if (yy != y)
+                return unifyRenamed(x, yy, map, id, vl);
+            Var r = map.get(y);
+            return x.unify(vl, vl, r != null ? r : y.copy(map, id));
+        }
+
+        if (y instanceof Struct) {
+            x = x.term();
+            if (x instanceof Struct) {
+                Struct xs = (Struct) x, ys = (Struct) y;
+                int arity = xs.subs();
+                if (arity != ys.subs() || !xs.name().equals(ys.name()))
+                    return false;
+                for (int c = 0; c < arity; c++) {
+                    if (!unifyRenamed(xs.sub(c), ys.sub(c), map, id, vl))
+                        return false;
+                }
+                return true;
+            }
+            if (!(x instanceof Var))
+                return false;
+            //bound to a variable of the goal: the only part of the head that is copied
+            return x.unify(vl, vl, y.copy(map, id));
+        }
+
+        return x.unify(vl, vl, y);
     }
 
     private static void bodyCopy(SubGoalTree source, SubGoalTree destination, AbstractMap<Var, Var> map, int id) {
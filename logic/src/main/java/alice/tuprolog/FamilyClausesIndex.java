@@ -212,6 +212,14 @@ class FamilyClausesIndex<K extends Comparable<? super K>> extends RBTree<K, Dequ
         }
     }
 
+    /**
+     * Removes all the keys and the shared clauses
+     */
+    public void clear() {
+        root = null;
+        shared.clear();
+    }
+
     /**
      * Retrieves all the clauses related to the key
      *
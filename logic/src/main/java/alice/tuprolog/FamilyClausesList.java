@@ -3,13 +3,21 @@ package alice.tuprolog;
 
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.function.Predicate;
 
 /**
  * <code>FamilyClausesList</code> is a common <code>LinkedList</code>
  * which stores {@link ClauseInfo} objects. Internally it indexes stored data
  * in such a way that, knowing what type of clauses are required, only
  * goal compatible clauses are returned
+ * <p>
+ * clauses are indexed by their first argument when added.  indexes on the other
+ * arguments are built just-in-time, by the first goal which binds that argument to
+ * a constant when the candidates of the family are numerous, and then maintained
+ * as clauses are added and removed.  a goal is given the fewest candidates of its
+ * bound arguments' indexes.
  *
  * @author Paolo Contessi
  * @see LinkedList
@@ -22,12 +30,11 @@ public class FamilyClausesList extends ArrayDeque<ClauseInfo> {
     private final FamilyClausesIndex<String> structCompClausesIndex;
     private final Deque<ClauseInfo> listCompClausesList;
 
-    
-
-
-
-
+    /** indexes of the arguments after the first, by position; built on demand */
+    private ArgIndex[] argIndexes = null;
 
+    /** minimum number of candidate clauses for which another argument's index is consulted (and built) */
+    static final int ARG_INDEX_MIN = 8;
 
     public FamilyClausesList() {
         super();
@@ -84,13 +91,58 @@ public class FamilyClausesList extends ArrayDeque<ClauseInfo> {
     public ClauseInfo removeLast() {
         int s = size();
         return s == 0 ? null : super.removeLast();
+    }
 
+    @Override
+    public ClauseInfo pollFirst() {
+        ClauseInfo ci = super.pollFirst();
+        if (ci != null)
+            unregister(ci);
+        return ci;
+    }
 
+    @Override
+    public ClauseInfo pollLast() {
+        ClauseInfo ci = super.pollLast();
+        if (ci != null)
+            unregister(ci);
+        return ci;
+    }
 
+    /** removes the matching clauses from the indexes too (ex: retract) */
+    @Override
+    public boolean removeIf(Predicate<? super ClauseInfo> filter) {
+        return super.removeIf(ci -> {
+            if (filter.test(ci)) {
+                unregister(ci);
+                return true;
+            }
+            return false;
+        });
+    }
 
+    @Override
+    public Iterator<ClauseInfo> iterator() {
+        Iterator<ClauseInfo> i = super.iterator();
+        return new Iterator<ClauseInfo>() {
+            ClauseInfo last;
+
+            @Override
+            public boolean hasNext() {
+                return i.hasNext();
+            }
 
+            @Override
+            public ClauseInfo next() {
+                return last = i.next();
+            }
 
-
+            @Override
+            public void remove() {
+                i.remove();
+                unregister(last);
+            }
+        };
     }
 
 
@@ -112,8 +164,12 @@ public class FamilyClausesList extends ArrayDeque<ClauseInfo> {
 
     @Override
     public void clear() {
-        while (removeLast() != null) {
-        }
+        super.clear();
+        numCompClausesIndex.clear();
+        constantCompClausesIndex.clear();
+        structCompClausesIndex.clear();
+        listCompClausesList.clear();
+        argIndexes = null;
     }
 
     /**
@@ -132,13 +188,35 @@ public class FamilyClausesList extends ArrayDeque<ClauseInfo> {
              * If no arguments no optimization can be applied
              * (and probably no optimization is needed)
              */
-            if (g.subs() == 0) {
+            int n = g.subs();
+            if (n == 0) {
                 
                 return /*Collections.unmodifiableList*/(this);
             }
 
-            /* Retrieves first argument and checks type */
-            Term t = g.sub(0).term();
+            Deque<ClauseInfo> c = first(g.sub(0).term());
+
+            /* narrows by the other bound arguments */
+            for (int i = 1; i < n && c.size() >= ARG_INDEX_MIN; i++) {
+                Term t = g.sub(i).term();
+                if (ArgIndex.indexable(t)) {
+                    Deque<ClauseInfo> d = argIndex(i, n).get(t);
+                    if (d.size() < c.size())
+                        c = d;
+                }
+            }
+            return c;
+        }
+
+        /* Default behaviour: no optimization done */
+        return /*Collections.unmodifiableList*/(this);
+    }
+
+    /**
+     * the clauses compatible with a goal's first argument
+     */
+    private Deque<ClauseInfo> first(Term t) {
+        {
             if (t instanceof Var) {
                 /*
                  * if first argument is an unbounded variable,
@@ -175,9 +253,78 @@ public class FamilyClausesList extends ArrayDeque<ClauseInfo> {
             }
         }
 
-        /* Default behaviour: no optimization done */
         return /*Collections.unmodifiableList*/(this);
-        
+    }
+
+    /**
+     * index of argument i, built from the family's clauses on its first use
+     */
+    private ArgIndex argIndex(int i, int arity) {
+        ArgIndex[] a = argIndexes;
+        if (a == null)
+            argIndexes = a = new ArgIndex[arity];
+
+        ArgIndex x = a[i];
+        if (x == null) {
+            x = new ArgIndex(i);
+            for (ClauseInfo ci : this)
+                x.register(ci, false);
+            a[i] = x;
+        }
+        return x;
+    }
+
+    /**
+     * index of the clauses of the family by one of their arguments, other than the first.
+     * clauses whose argument is a constant are indexed by it; those whose argument is a
+     * variable are compatible with any constant, and are shared by every key.  clauses
+     * whose argument is a compound can not match a constant, so they are not indexed.
+     */
+    private static final class ArgIndex {
+        final int arg;
+        final FamilyClausesIndex<NumberTerm> num = new FamilyClausesIndex<>();
+        final FamilyClausesIndex<String> constant = new FamilyClausesIndex<>();
+
+        ArgIndex(int arg) {
+            this.arg = arg;
+        }
+
+        /** whether a goal's argument selects from an index */
+        static boolean indexable(Term t) {
+            return t.isAtom() && (t instanceof NumberTerm || t instanceof Struct);
+        }
+
+        Deque<ClauseInfo> get(Term t) {
+            return t instanceof NumberTerm ?
+                    num.get((NumberTerm) t) :
+                    constant.get(((Struct) t).name());
+        }
+
+        void register(ClauseInfo ci, boolean first) {
+            Term t = ci.head.sub(arg).term();
+            if (t instanceof Var) {
+                num.insertAsShared(ci, first);
+                constant.insertAsShared(ci, first);
+            } else if (t.isAtom()) {
+                if (t instanceof NumberTerm)
+                    num.insert((NumberTerm) t, ci, first);
+                else if (t instanceof Struct)
+                    constant.insert(((Struct) t).name(), ci, first);
+            }
+        }
+
+        void unregister(ClauseInfo ci) {
+            Term t = ci.head.sub(arg).term();
+            if (t instanceof Var) {
+                num.removeShared(ci);
+                constant.removeShared(ci);
+            } else if (t.isAtom()) {
+                if (t instanceof NumberTerm)
+                    num.remove((NumberTerm) t, ci);
+                else if (t instanceof Struct)
+                    constant.remove(((Struct) t).name(), ci);
+            }
+        }
     }
 
 
@@ -212,6 +359,14 @@ public class FamilyClausesList extends ArrayDeque<ClauseInfo> {
             return;
         }
 
+        ArgIndex[] a = argIndexes;
+        if (a != null) {
+            for (ArgIndex x : a) {
+                if (x != null)
+                    x.register(ci, first);
+            }
+        }
+
         Term t = g.sub(0).term();
         if (t instanceof Var) {
             numCompClausesIndex.insertAsShared(ci, first);
@@ -253,6 +408,14 @@ public class FamilyClausesList extends ArrayDeque<ClauseInfo> {
                 return;
             }
 
+            ArgIndex[] a = argIndexes;
+            if (a != null) {
+                for (ArgIndex x : a) {
+                    if (x != null)
+                        x.unregister(ci);
+                }
+            }
+
             Term t = g.sub(0).term();
             if (t instanceof Var) {
                 numCompClausesIndex.removeShared(ci);
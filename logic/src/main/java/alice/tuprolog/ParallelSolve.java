@@ -0,0 +1,508 @@
+package alice.tuprolog;
+
+import jcog.data.list.FasterList;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Or-parallel solve of a goal: its alternative branches are solved on a ForkJoinPool, each by
+ * a worker engine with its own state, and their solutions are streamed, as they are found, through
+ * this iterator.  The solutions are those of the sequential solve, in no particular order.
+ * <p>
+ * The branches are found by unfolding the goal: the leftmost call of a branch is replaced, for each
+ * of its candidate clauses, by a branch which unifies it with the clause's head followed by its body,
+ * breadth-first, until there are enough branches for the pool's parallelism.  A call is not unfolded
+ * if it is a primitive or a variable, or if a clause of its predicate contains a cut (which would prune
+ * the alternatives of the clauses after it).
+ * <p>
+ * The worker engines are given a copy of the engine's dynamic clauses, libraries, operators, flags and
+ * tabled predicates, and are reused by the following solves until any of these change.  Any change rebuilds
+ * every worker engine, loading its libraries and copying all the dynamic clauses, so an engine whose clauses are
+ * asserted or retracted between parallel solves pays that on each of them.  Terms are never shared between engines,
+ * since the engines bind the variables of the terms they solve.
+ * <p>
+ * The side effects of a branch's goals (assert, retract, op, flag) are those of its worker engine only: they are
+ * not seen by the engine, nor by the other branches, and a worker whose clauses, operators or flags changed is
+ * discarded rather than reused.
+ * <p>
+ * The solutions found ahead of their consumer are bounded: once SOLUTIONS_BUFFERED are waiting, the workers
+ * wait, so a goal with infinitely many solutions is solved only as far as it is consumed.  An error in a branch
+ * (an uncaught exception of its goal, or of its worker) is given as a halted solution, after which the solve is closed.
+ */
+public final class ParallelSolve implements Iterator<Solution>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelSolve.class);
+
+    /** branches per thread of the pool */
+    static final int BRANCHES_PER_THREAD = 4;
+
+    /** maximum depth of the unfolding */
+    static final int UNFOLD_DEPTH = 8;
+
+    /** solutions found and not yet consumed, beyond which the workers wait */
+    static final int SOLUTIONS_BUFFERED = 256;
+
+    /** period at which waiting workers, and the consumer, check whether the solve is closed or done */
+    private static final long WAIT_MS = 10;
+
+    /** marks the end of the solutions */
+    private static final Solution END = new Solution(null);
+
+    private final Struct goal;
+    private final Workers workers;
+
+    private final BlockingQueue<Solution> solutions = new LinkedBlockingQueue<>(SOLUTIONS_BUFFERED);
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Set<Prolog> running = ConcurrentHashMap.newKeySet();
+
+    /** names of the goal's variables, by which the solutions' bindings are filtered */
+    private final Set<String> vars = new HashSet<>();
+
+    private volatile boolean closed;
+    private Solution next;
+
+    ParallelSolve(Prolog p, Struct goal, ForkJoinPool pool) {
+        this.goal = goal;
+        this.workers = p.workers();
+
+        //the terms given to the workers are clones, so the branches are built from one
+        Struct g = (Struct) deepCopy(goal, new IdentityHashMap<>());
+        collectVars(g, vars);
+
+        List<Branch> branches = unfold(p, new Branch(g, new FasterList<>(1, new Term[]{g}), 0),
+                Math.max(1, pool.getParallelism() * BRANCHES_PER_THREAD));
+
+        if (branches.isEmpty()) {
+            solutions.add(END);
+        } else {
+            pending.set(branches.size());
+            for (Branch b : branches) {
+                Struct query = b.query();
+                pool.execute(() -> solve(query));
+            }
+        }
+    }
+
+    /** a conjunction of goals, whose goals before next are not to be unfolded */
+    private static final class Branch {
+        /** the (clone of the) solved goal */
+        final Struct goal;
+        final FasterList<Term> goals;
+        final int next;
+
+        Branch(Struct goal, FasterList<Term> goals, int next) {
+            this.goal = goal;
+            this.goals = goals;
+            this.next = next;
+        }
+
+        /**
+         * the worker's query: goal = goal, followed by the goals.  the goal is first, so that
+         * its instance is found in the solution, and its variables are bound first
+         */
+        Struct query() {
+            Map<Var, Var> v = new IdentityHashMap<>();
+            Term c = deepCopy(goal, v);
+            Term body = deepCopy(goals.get(goals.size() - 1), v);
+            for (int i = goals.size() - 2; i >= 0; i--)
+                body = new Struct(",", deepCopy(goals.get(i), v), body);
+            return new Struct(",", new Struct("=", c, c), body);
+        }
+    }
+
+    /** unfolds the branches breadth-first, until there are at least n */
+    private static List<Branch> unfold(Prolog p, Branch root, int n) {
+        List<Branch> branches = new FasterList<>(1);
+        branches.add(root);
+        for (int depth = 0; depth < UNFOLD_DEPTH && branches.size() < n; depth++) {
+            List<Branch> next = new FasterList<>(branches.size() * 2);
+            boolean unfolded = false;
+            for (int i = 0, s = branches.size(); i < s; i++) {
+                Branch b = branches.get(i);
+                List<Branch> u = next.size() + (s - i) < n ? unfold(p, b) : null;
+                if (u == null) {
+                    next.add(b);
+                } else {
+                    next.addAll(u);
+                    unfolded = true;
+                }
+            }
+            branches = next;
+            if (!unfolded)
+                break;
+        }
+        return branches;
+    }
+
+    /**
+     * the branches of the alternative clauses of a branch's leftmost call, or null if it is not unfolded
+     */
+    @Nullable
+    private static List<Branch> unfold(Prolog p, Branch b) {
+        int i = b.next, n = b.goals.size();
+        while (i < n && isTrue(b.goals.get(i).term()))
+            i++;
+        if (i >= n)
+            return null;
+
+        Term x = b.goals.get(i).term();
+        if (!(x instanceof Struct))
+            return null;
+        Struct call = (Struct) x;
+
+        Deque<ClauseInfo> family = p.theories.find(call);
+        if (family.isEmpty())
+            return null; //a primitive, or undefined
+
+        List<ClauseInfo> clauses = new FasterList<>(family.size());
+        for (ClauseInfo c : family) {
+            if (hasCut(c.clause.sub(1)))
+                return null;
+            if (call.unifiable(c.head))
+                clauses.add(c);
+        }
+
+        List<Branch> u = new FasterList<>(clauses.size());
+        for (ClauseInfo c : clauses) {
+            //the clause's variables are anonymous, so that they are not mistaken for the goal's
+            Struct clause = (Struct) deepCopy(c.clause, new IdentityHashMap<>(), false);
+            FasterList<Term> goals = new FasterList<>(n + 4);
+            for (int j = 0; j < i; j++)
+                goals.add(b.goals.get(j));
+            goals.add(new Struct("=", call, clause.sub(0)));
+            conjuncts(clause.sub(1), goals);
+            for (int j = i + 1; j < n; j++)
+                goals.add(b.goals.get(j));
+            u.add(new Branch(b.goal, goals, i + 1));
+        }
+        return u;
+    }
+
+    private static boolean isTrue(Term t) {
+        return t instanceof Struct && ((Struct) t).subs() == 0 && ((Struct) t).name().equals("true");
+    }
+
+    private static void conjuncts(Term t, List<Term> goals) {
+        t = t.term();
+        if (t instanceof Struct && ((Struct) t).subs() == 2 && ((Struct) t).name().equals(",")) {
+            conjuncts(((Struct) t).sub(0), goals);
+            conjuncts(((Struct) t).sub(1), goals);
+        } else {
+            goals.add(t);
+        }
+    }
+
+    private static boolean hasCut(Term t) {
+        t = t.term();
+        if (!(t instanceof Struct))
+            return false;
+        Struct s = (Struct) t;
+        int n = s.subs();
+        if (n == 0)
+            return s.name().equals("!");
+        for (int i = 0; i < n; i++) {
+            if (hasCut(s.sub(i)))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * a copy of a term which shares none of its structures or variables, named as the original
+     */
+    static Term deepCopy(Term t, Map<Var, Var> vars) {
+        return deepCopy(t, vars, true);
+    }
+
+    /**
+     * a copy of a term which shares none of its structures or variables, which are anonymous
+     * unless named
+     */
+    static Term deepCopy(Term t, Map<Var, Var> vars, boolean named) {
+        t = t.term();
+        if (t instanceof Var) {
+            Var v = (Var) t;
+            Var c = vars.get(v);
+            if (c == null)
+                vars.put(v, c = !named || v.isAnonymous() ? new Var() : new Var(v.getOriginalName()));
+            return c;
+        } else if (t instanceof Struct) {
+            Struct s = (Struct) t;
+            int n = s.subs();
+            if (n == 0)
+                return new Struct(s.name());
+            Term[] a = new Term[n];
+            for (int i = 0; i < n; i++)
+                a[i] = deepCopy(s.sub(i), vars, named);
+            return new Struct(s.name(), a);
+        } else {
+            return t; //numbers are immutable
+        }
+    }
+
+    private static void collectVars(Term t, Set<String> names) {
+        t = t.term();
+        if (t instanceof Var) {
+            if (!((Var) t).isAnonymous())
+                names.add(((Var) t).getOriginalName());
+        } else if (t instanceof Struct) {
+            Struct s = (Struct) t;
+            for (int i = 0, n = s.subs(); i < n; i++)
+                collectVars(s.sub(i), names);
+        }
+    }
+
+    private void solve(Struct query) {
+        Prolog w = null;
+        long version = 0;
+        try {
+            if (closed)
+                return;
+            w = workers.get();
+            version = w.theories.version();
+            running.add(w);
+
+            Solution s = w.solve(query);
+            while (s.isSuccess() && !closed) {
+                if (!emit(solution(s)))
+                    break;
+                if (!s.hasOpenAlternatives())
+                    break;
+                s = w.solveNext();
+            }
+            if (s.isHalted() && !closed)
+                halt();
+            if (w.hasOpenAlternatives())
+                w.solveEnd();
+        } catch (NoMoreSolutionException e) {
+            //done
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Throwable e) {
+            logger.error("{} {}", query, e);
+            halt();
+        } finally {
+            if (w != null) {
+                running.remove(w);
+                workers.put(w, version);
+            }
+            if (pending.decrementAndGet() == 0)
+                solutions.offer(END); //if full, the consumer finds the end by isDone()
+        }
+    }
+
+    /** queues a solution, waiting while the queue is full; false if the solve was closed meanwhile */
+    private boolean emit(Solution s) throws InterruptedException {
+        while (!solutions.offer(s, WAIT_MS, TimeUnit.MILLISECONDS)) {
+            if (closed)
+                return false;
+        }
+        return true;
+    }
+
+    /** gives the consumer a halted solution, and stops the other branches */
+    private void halt() {
+        try {
+            emit(new Solution(goal, null, PrologRun.HALT, Collections.emptyList()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        close();
+    }
+
+    /** the solution of the goal, from that of a worker's query */
+    private Solution solution(Solution s) {
+        Struct instance = (Struct) ((Struct) s.goal.sub(0)).sub(0).term();
+        List<Var> bindings = new FasterList<>(vars.size());
+        Set<String> bound = new HashSet<>(vars.size());
+        for (Var v : s.bindings) {
+            String name = v.getOriginalName();
+            if (vars.contains(name) && bound.add(name))
+                bindings.add(v);
+        }
+        return new Solution(goal, instance, PrologRun.TRUE, bindings);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            try {
+                next = take(-1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                close();
+                next = END;
+            }
+        }
+        return next != END;
+    }
+
+    @Override
+    public Solution next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        Solution s = next;
+        next = null;
+        return s;
+    }
+
+    /**
+     * the next solution, waiting up to the timeout for it
+     *
+     * @return null if there are no more solutions, or none was found in time
+     */
+    @Nullable
+    public Solution poll(long timeout, TimeUnit unit) throws InterruptedException {
+        Solution s = next;
+        if (s == null)
+            s = take(unit.toNanos(timeout));
+        else
+            next = null;
+
+        if (s == END) {
+            next = END;
+            return null;
+        }
+        return s;
+    }
+
+    /** the next solution, or END; null if none was found in time (unless the timeout is negative) */
+    @Nullable
+    private Solution take(long timeoutNS) throws InterruptedException {
+        long wait = TimeUnit.MILLISECONDS.toNanos(WAIT_MS);
+        long deadline = System.nanoTime() + timeoutNS;
+        while (true) {
+            boolean done = isDone(); //before polling, so that the last branch's solutions are in the queue
+            long w = timeoutNS < 0 ? wait : Math.min(wait, deadline - System.nanoTime());
+            Solution s = solutions.poll(Math.max(0, w), TimeUnit.NANOSECONDS);
+            if (s != null)
+                return s;
+            if (done)
+                return END;
+            if (timeoutNS >= 0 && System.nanoTime() - deadline >= 0)
+                return null;
+        }
+    }
+
+    /** number of solutions found and not yet consumed */
+    int buffered() {
+        return solutions.size();
+    }
+
+    /** whether all the branches have been solved */
+    public boolean isDone() {
+        return pending.get() == 0;
+    }
+
+    /**
+     * stops the solve: the branches not yet started are skipped, and those being solved, or waiting
+     * for their solutions to be consumed, are halted
+     */
+    @Override
+    public void close() {
+        closed = true;
+        running.forEach(Prolog::solveHalt);
+    }
+
+    /**
+     * the worker engines of an engine, and the copy of its state they are given: dynamic clauses,
+     * libraries, operators (including those of :- op directives), flags and tabled predicates
+     */
+    static final class Workers {
+
+        /** the Theories.version() of the copied clauses */
+        final long version;
+
+        private final List<Struct> clauses;
+        private final List<Class<? extends PrologLib>> libs;
+        private final Map<String, PrologOp> ops;
+        /** the engine's flags, whose values are compared by identity since Flag.setValue replaces them */
+        private final Map<String, Flag> flags;
+        private final Map<String, Term> flagValues;
+        private final Set<String> tabled;
+
+        private final Queue<Prolog> idle = new ConcurrentLinkedQueue<>();
+
+        Workers(Prolog p) {
+            version = p.theories.version();
+
+            clauses = new FasterList<>();
+            for (ClauseInfo d : p.theories.dynamics())
+                clauses.add((Struct) deepCopy(d.clause, new IdentityHashMap<>()));
+
+            libs = new FasterList<>();
+            for (PrologLib l : p.libs.libraries())
+                libs.add(l.getClass());
+
+            ops = new HashMap<>(p.ops);
+            flags = new HashMap<>(p.flags);
+            flagValues = new HashMap<>(flags.size());
+            flags.forEach((k, f) -> flagValues.put(k, f.getValue()));
+            tabled = new HashSet<>(p.theories.tabled());
+        }
+
+        /**
+         * whether the workers' state is still a copy of the engine's
+         */
+        boolean current(Prolog p) {
+            if (version != p.theories.version() || !ops.equals(p.ops) || flags.size() != p.flags.size())
+                return false;
+            for (Map.Entry<String, Flag> e : p.flags.entrySet()) {
+                if (flagValues.get(e.getKey()) != e.getValue().getValue())
+                    return false;
+            }
+            return true;
+        }
+
+        Prolog get() {
+            Prolog w = idle.poll();
+            return w != null ? w : engine();
+        }
+
+        /**
+         * returns a worker to be reused, unless its solve changed its state, which would no longer be a copy of the engine's
+         * @param version the Theories.version() of the worker before its solve
+         */
+        void put(Prolog w, long version) {
+            if (w.theories.version() == version && ops.equals(w.ops) && flagsUnchanged(w))
+                idle.add(w);
+        }
+
+        private boolean flagsUnchanged(Prolog w) {
+            if (w.flags.size() != flags.size())
+                return false;
+            for (Map.Entry<String, Flag> e : w.flags.entrySet()) {
+                Term v = flagValues.get(e.getKey());
+                if (v == null || !v.isEqual(e.getValue().getValue()))
+                    return false;
+            }
+            return true;
+        }
+
+        private Prolog engine() {
+            Prolog w = new Prolog();
+            for (Class<? extends PrologLib> l : libs) {
+                if (w.libs.libraries().stream().noneMatch(x -> x.getClass() == l)) {
+                    try {
+                        w.addLibrary(l);
+                    } catch (Exception e) {
+                        logger.warn("worker engine without library {}: {}", l, e.getMessage());
+                    }
+                }
+            }
+            w.ops.putAll(ops);
+            flags.forEach((k, f) -> w.flags.put(k, new Flag(f.getValueList(),
+                    deepCopy(f.getValue(), new IdentityHashMap<>()), f.isModifiable(), f.getLibraryName())));
+            for (Struct c : clauses)
+                w.theories.assertZ(c, true, null, false);
+            //the copied clauses of the tabled predicates are already renamed, so they are marked after
+            w.theories.tabled().addAll(tabled);
+            return w;
+        }
+    }
+}
@@ -33,6 +33,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 
@@ -55,6 +56,9 @@ public class Prolog {
 
     public final PrologRun run = new PrologRun(0);
 
+    /** the worker engines of solveParallel */
+    private ParallelSolve.Workers workers;
+
 
     /* listeners registrated for virtual machine output events */
     final List<OutputListener> onOut = new CopyOnWriteArrayList<>();
@@ -88,7 +92,7 @@ public class Prolog {
      * Builds a prolog engine with default libraries loaded.
      * <p>
      * The default libraries are BasicLibrary, ISOLibrary,
-     * IOLibrary, and  JavaLibrary
+     * and IOLibrary
      */
     public Prolog(ClauseIndex dynamics) {
         this(false, dynamics);
@@ -338,6 +342,46 @@ public class Prolog {
         return sinfo;
     }
 
+    /**
+     * Solves a query or-parallel, on the common ForkJoinPool
+     *
+     * @see ParallelSolve
+     */
+    public ParallelSolve solveParallel(Struct g) {
+        return solveParallel(g, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Solves a query or-parallel: its solutions are streamed, as they are found
+     * by worker engines on the pool, in no particular order
+     *
+     * @see ParallelSolve
+     */
+    public ParallelSolve solveParallel(Struct g, ForkJoinPool pool) {
+        return new ParallelSolve(this, g, pool);
+    }
+
+    public ParallelSolve solveParallel(String g) throws MalformedGoalException {
+        try {
+            Term t = term(g);
+            if (t instanceof Struct)
+                return solveParallel((Struct) t);
+        } catch (InvalidTermException ex) {
+            //invalid
+        }
+        throw new MalformedGoalException();
+    }
+
+    /**
+     * the worker engines of solveParallel, given the current clauses, operators and flags
+     */
+    synchronized ParallelSolve.Workers workers() {
+        ParallelSolve.Workers w = this.workers;
+        if (w == null || !w.current(this))
+            this.workers = w = new ParallelSolve.Workers(this);
+        return w;
+    }
+
     public final Prolog solve(String g, Consumer<Solution> eachSolution) {
         return solve(term(g), eachSolution);
     }
@@ -34,7 +34,6 @@ public class PrologContext {
     PrologContext fatherCtx;
     SubGoal fatherGoalId;
     Struct clause;
-    Struct headClause;
     SubGoalStore goalsToEval;
     OneWayList<Collection<Var>> trailingVars;
     OneWayList<Collection<Var>> fatherVarsList;
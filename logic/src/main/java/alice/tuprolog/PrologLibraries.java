@@ -12,6 +12,7 @@ import java.lang.reflect.InvocationTargetException;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
@@ -307,6 +308,13 @@ public class PrologLibraries {
         return null;
     }
 
+    /**
+     * Gets the loaded libraries
+     */
+    public List<PrologLib> libraries() {
+        return Collections.unmodifiableList(currentLibraries);
+    }
+
     public void onSolveBegin(Term g) {
         for (PrologLib alib : currentLibraries) {
             alib.onSolveBegin(g);
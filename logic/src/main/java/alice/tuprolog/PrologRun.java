@@ -157,15 +157,16 @@ public class PrologRun implements java.io.Serializable, Runnable {
 
             freeze();
 
-            StateEnd result = (solve = new PrologSolve(this, query)).run();
+            PrologSolve s = solve = new PrologSolve(this, query);
+            StateEnd result = s.run();
 
             defreeze();
 
             sinfo = new Solution(
                     query,
-                    result.goal,
+                    s.endGoal,
                     result.endState,
-                    result.vars
+                    s.endVars
             );
             if (this.sinfoSetOf != null)
                 sinfo.setSetOfSolution(sinfoSetOf);
@@ -216,14 +217,15 @@ public class PrologRun implements java.io.Serializable, Runnable {
     public Solution solveNext() throws NoMoreSolutionException {
         if (hasOpenAlternatives()) {
             refreeze();
-            solve.nextState = BACKTRACK;
-            StateEnd result = solve.run();
+            PrologSolve s = solve;
+            s.nextState = BACKTRACK;
+            StateEnd result = s.run();
             defreeze();
             sinfo = new Solution(
-                    solve.query,
-                    result.goal,
+                    s.query,
+                    s.endGoal,
                     result.endState,
-                    result.vars
+                    s.endVars
             );
             if (this.sinfoSetOf != null)
                 sinfo.setSetOfSolution(sinfoSetOf);
@@ -41,6 +41,11 @@ public class PrologSolve {
 	boolean mustStop;
 	final PrologRun run;
 
+	/** the result of the last end state reached */
+	Struct endGoal;
+	List<Var> endVars;
+	int setOfCounter;
+
 
 	public PrologSolve(PrologRun run, Term query) {
 		this.run = run;
@@ -1,6 +1,6 @@
 package alice.tuprolog;
 
-import java.util.LinkedList;
+import java.util.Deque;
 
 /* Copyright (c) 2010 the authors listed at the following URL, and/or
 the authors of referenced articles or incorporated external code:
@@ -303,7 +303,7 @@ public class RBTree<K extends Comparable<? super K>, V> {
 
         /*must be check if node is a list of clause*/
         @SuppressWarnings("unchecked")
-        LinkedList<ClauseInfo> nodeClause = (LinkedList<ClauseInfo>) n.value;
+        Deque<ClauseInfo> nodeClause = (Deque<ClauseInfo>) n.value;
         if (nodeClause.size() > 1) {
             nodeClause.remove(c);
         } else {
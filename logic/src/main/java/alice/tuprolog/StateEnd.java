@@ -31,9 +31,6 @@ import java.util.StringTokenizer;
 public class StateEnd extends State {
 
     public final int endState;
-    Struct goal;
-    List<Var> vars;
-    private int setOfCounter;
 
     /**
      * Constructor
@@ -44,20 +41,25 @@ public class StateEnd extends State {
         endState = end;
     }
 
+    /**
+     * the end states are shared by all engines, so the result is stored in the solve
+     * (PrologSolve.endGoal, endVars) rather than in this
+     */
     @Override
     State run(PrologSolve e) {
         int gv = e.goalVars.size();
         if (gv > 0) {
-            vars = new FasterList<>(gv);
-            goal = (Struct) e.startGoal.copyResult(e.goalVars, vars);
+            List<Var> vars = new FasterList<>(gv);
+            e.endGoal = (Struct) e.startGoal.copyResult(e.goalVars, vars);
+            e.endVars = vars;
 
             if ((this.endState == PrologRun.TRUE || this.endState == PrologRun.TRUE_CP) &&
                     (e.run.prolog.relinkVar()))
                 relinkVar(e);
 
         } else {
-            vars = List.of();
-            goal = e.startGoal;
+            e.endVars = List.of();
+            e.endGoal = e.startGoal;
         }
 
         return null;
@@ -141,9 +143,9 @@ public class StateEnd extends State {
 
         if (((Struct) query).name().equals(";")) {
             Struct query_temp = (Struct) ((Struct) query).sub(0);
-            if (query_temp.name().equals("setof") && setOfCounter == 0) {
+            if (query_temp.name().equals("setof") && e.setOfCounter == 0) {
                 query = query_temp;
-                this.setOfCounter++;
+                e.setOfCounter++;
             } else {
                 query_temp = (Struct) ((Struct) query).sub(1);
                 if (query_temp.name().equals("setof"))
@@ -490,6 +492,7 @@ public class StateEnd extends State {
 
             }
 
+            List<Var> vars = e.endVars;
             for (int j = 0; j < vars.size(); j++) {
                 Var vv = vars.get(j);
                 String on = vv.getOriginalName();
@@ -79,11 +79,6 @@ public class StateRuleSelection extends State {
         PrologContext ec = new PrologContext(e.nDemoSteps++);
         ec.clause = clause.clause;
 
-
-        clause.copyTo(ec.getId(), ec);
-
-
-
         if (alternative != null) {
             ChoicePointContext choicePoint = alternative;
             int depth = alternative.executionContext.depth;
@@ -113,7 +108,6 @@ public class StateRuleSelection extends State {
         PrologContext curCtx = e.currentContext;
         Struct curGoal = curCtx.currentGoal;
         Collection<Var> unifiedVars = e.currentContext.trailingVars.head;
-        curGoal.unify(unifiedVars, unifiedVars, ec.headClause);
 
 
         if ((ec.haveAlternatives = clauseStore.haveAlternatives()) && !fromBacktracking) {
@@ -129,6 +123,11 @@ public class StateRuleSelection extends State {
             e.choicePointSelector.removeUnusedChoicePoints();
         }
 
+        /* the clause is renamed while its head is unified, and its body copied only if it unifies */
+        if (!clause.unifyTo(curGoal, unifiedVars, ec.getId(), ec)) {
+            return PrologRun.BACKTRACK;
+        }
+
         ec.tailCallOptimize(e);
         ec.saveParentState();
         e.currentContext = ec;
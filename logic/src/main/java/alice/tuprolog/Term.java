@@ -17,6 +17,7 @@
  */
 package alice.tuprolog;
 
+import jcog.data.list.FasterList;
 import jcog.data.set.ArrayHashSet;
 
 import java.io.Serializable;
@@ -278,21 +279,12 @@ public abstract class Term implements Serializable, SubTree {
         long now = Term.now();
         resolveTerm(now);
         y.resolveTerm(now);
-        Collection<Var> v1 =
-                new ArrayHashSet();
-                //new HashSet();
-                //new LinkedHashSet<Var>();
-                //new UnifiedSet(); //<- fails, why? unordered?
 
-        Collection<Var> v2 =
-                new ArrayHashSet();
-                //new HashSet();
-                //new LinkedHashSet<Var>();
-                //new UnifiedSet(); //<- fails, why
+        //the bound variables are only freed, so one list, which may repeat them, serves both terms
+        List<Var> v = new FasterList<>(8);
 
-        boolean ok = unify(v1, v2, y);
-        Var.free(v1);
-        Var.free(v2);
+        boolean ok = unify(v, v, y);
+        Var.free(v);
         return ok;
     }
 
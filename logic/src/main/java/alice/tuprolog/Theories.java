@@ -26,6 +26,8 @@ import java.util.ArrayDeque;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Predicate;
 
 import static alice.tuprolog.PrologPrim.PREDICATE;
@@ -57,6 +59,15 @@ public class Theories {
     private final PrologPrimitives prims;
     private final Deque<Term> startGoalStack;
 
+    /** keys (name/arity) of the tabled predicates, whose clauses are stored under their TABLED name */
+    private final Set<String> tabled = ConcurrentHashMap.newKeySet();
+
+    /** prefix of the name under which a tabled predicate's clauses are stored */
+    public static final String TABLED = "$tabled ";
+
+    /** counts the changes to the clauses of the dbase */
+    private volatile long version;
+
 
     public Theories(Prolog vm, ClauseIndex dynamics) {
         engine = vm;
@@ -71,7 +82,8 @@ public class Theories {
      * inserting of a clause at the head of the dbase
      */
     public /*synchronized*/ void assertA(Struct clause, boolean dyn, String libName, boolean backtrackable) {
-        ClauseInfo d = new ClauseInfo(toClause(clause), libName);
+        version++;
+        ClauseInfo d = new ClauseInfo(toClause(tabled(clause)), libName);
         String key = d.head.key();
         if (dyn) {
             dynamicDBase.add(key, d, true);
@@ -88,7 +100,8 @@ public class Theories {
      * inserting of a clause at the end of the dbase
      */
     public /*synchronized*/ void assertZ(Struct clause, boolean dyn, String libName, boolean backtrackable) {
-        ClauseInfo d = new ClauseInfo(toClause(clause), libName);
+        version++;
+        ClauseInfo d = new ClauseInfo(toClause(tabled(clause)), libName);
         String key = d.head.key();
         if (dyn) {
             dynamicDBase.add(key, d, false);
@@ -105,7 +118,7 @@ public class Theories {
      * removing from dbase the first clause with head unifying with clause
      */
     public int retract(final Struct cl, Predicate<ClauseInfo> each) {
-        Struct clause = toClause(cl);
+        Struct clause = toClause(tabled(cl));
         Struct struct = ((Struct) clause.sub(0));
         Deque<ClauseInfo> family = dynamicDBase.clauses(struct.key());
 
@@ -132,6 +145,8 @@ public class Theories {
         });
 
 
+        if (removals[0] > 0)
+            version++;
         return removals[0];
     }
 
@@ -149,6 +164,7 @@ public class Theories {
         String arg1 = Tools.removeApostrophes(pi.sub(1).toString());
         String key = arg0 + '/' + arg1;
         Deque<ClauseInfo> abolished = dynamicDBase.remove(key); /* Reviewed by Paolo Contessi: LinkedList -> List */
+        version++;
         if (abolished != null)
             if (engine.isSpy())
                 engine.spy("ABOLISHED: " + key + " number of clauses=" + abolished.size() + '\n');
@@ -261,6 +277,90 @@ public class Theories {
      */
     public /*synchronized*/ void clear() {
         dynamicDBase.clear();
+        tabled.clear();
+        version++;
+    }
+
+    /**
+     * number of changes to the clauses of the dbase, by which the answers
+     * memoized for tabled predicates are invalidated
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * the clauses of the dynamic dbase
+     */
+    Iterable<ClauseInfo> dynamics() {
+        return dynamicDBase;
+    }
+
+    /**
+     * keys (name/arity) of the tabled predicates
+     */
+    Set<String> tabled() {
+        return tabled;
+    }
+
+    /**
+     * Declares a predicate as tabled: its clauses, those already asserted and
+     * those asserted after, are stored under the name TABLED + name, and the
+     * predicate itself is defined by a clause which calls them through
+     * '$tbl'/2 (see TablingLibrary).
+     *
+     * @return false if it was already tabled
+     */
+    public boolean table(String name, int arity) {
+        String key = name + '/' + arity;
+        if (!tabled.add(key))
+            return false;
+
+        Deque<ClauseInfo> existing = dynamicDBase.remove(key);
+        if (existing != null) {
+            for (ClauseInfo d : existing)
+                assertZ(d.clause, true, d.libName, false);
+        }
+
+        Term[] args = new Term[arity];
+        for (int i = 0; i < arity; i++)
+            args[i] = new Var("A" + i);
+        Struct head = new Struct(name, args);
+        Struct call = new Struct(":-", head,
+                new Struct("$tbl", head, new Struct(TABLED + name, args.clone())));
+        dynamicDBase.add(key, new ClauseInfo(toClause(call), null), true);
+        version++;
+        return true;
+    }
+
+    /**
+     * Renames the head of a tabled predicate's clause (or a head) to its TABLED name
+     */
+    Struct tabled(Struct clause) {
+        if (tabled.isEmpty())
+            return clause;
+
+        boolean rule = clause.isClause();
+        Term h = rule ? clause.subResolve(0) : clause;
+        if (!(h instanceof Struct))
+            return clause;
+
+        Struct head = (Struct) h;
+        if (!tabled.contains(head.key()))
+            return clause;
+
+        Struct renamed = new Struct(TABLED + head.name(), head.subArrayShared().clone());
+        return rule ? new Struct(":-", renamed, clause.sub(1)) : renamed;
+    }
+
+    /**
+     * Restores the name of a tabled predicate's clause, as stored
+     */
+    static Struct untabled(Struct clause) {
+        Struct head = (Struct) clause.subResolve(0);
+        return new Struct(":-",
+                new Struct(head.name().substring(TABLED.length()), head.subArrayShared().clone()),
+                clause.sub(1));
     }
 
     /**
@@ -1004,7 +1004,7 @@ public class BasicLibrary extends PrologLib {
                 
                 
                 + "arg(N,C,T):- arg_guard(N,C,T), C =.. [_|Args], element(N,Args,T).\n"
-                + "clause(H, B) :- clause_guard(H,B), L = [], '$find'(H, L), copy_term(L, LC), member((':-'(H, B)), LC). \n"
+                + "clause(H, B) :- clause_guard(H,B), '$find'(H, L), copy_term(L, LC), member((':-'(H, B)), LC). \n"
                 +
                 //
                 // call/1 is coded both in Prolog, to feature the desired
@@ -1203,9 +1203,9 @@ public class BasicLibrary extends PrologLib {
                 + "assert(C) :- assertz(C). \n"
                 + "retract(Rule) :- retract_guard(Rule), Rule = ':-'(Head, Body), !, clause(Head, Body), '$retract'(Rule). \n"
                 + "retract(Fact) :- retract_guard(Fact), clause(Fact, true), '$retract'(Fact).\n"
-                + "retractall(Head) :- retract_guard(Head), findall(':-'(Head, Body), clause(Head, Body), L), '$retract_clause_list'(L), !.\n"
-                + "'$retract_clause_list'([]). \n"
-                + "'$retract_clause_list'([E | T]) :- !, '$retract'(E), '$retract_clause_list'(T). \n"
+                + "retractall(Head) :- retract_guard(Head), '$find'(Head, L), copy_term(L, LC), '$retract_clause_list'(Head, LC), !.\n"
+                + "'$retract_clause_list'(_, []). \n"
+                + "'$retract_clause_list'(H, [E | T]) :- !, copy_term(H, HC), E = ':-'(HC, _), '$retract'(E), '$retract_clause_list'(H, T). \n"
                 +
                 
                 
@@ -0,0 +1,264 @@
+package alice.tuprolog.lib;
+
+import alice.tuprolog.*;
+
+import java.util.*;
+
+/**
+ * Tabled resolution: the <code>table</code> directive declares predicates
+ * whose answers are memoized per variant call, so that shared subgoals are
+ * solved once, and left-recursive definitions (ex: transitive closure) terminate.
+ * <pre>
+ *   :- table path/2.
+ *   path(X, Y) :- path(X, Z), edge(Z, Y).
+ *   path(X, Y) :- edge(X, Y).
+ * </pre>
+ * A call to a tabled predicate which has no complete table evaluates its clauses
+ * to a fixpoint (linear tabling): its clauses are solved repeatedly, until no
+ * new answers are found.  A recursive variant of a call being evaluated is given
+ * the answers found so far instead of being solved again.  Calls which depend on
+ * each other (a strongly connected component, tracked as in Tarjan's algorithm)
+ * are completed together by the first of them, their leader, once its iteration
+ * finds no new answer for any of them.  The answers of a complete table are then
+ * returned without solving again.
+ * <p>
+ * The tables are abolished when the clauses of the database change.
+ * Clauses of a tabled predicate are stored under the name Theories.TABLED + name.
+ * <p>
+ * Not a default library, since it defines the prefix operator <code>table</code>:
+ * load it with addLibrary("alice.tuprolog.lib.TablingLibrary").
+ * <p>
+ * Library/Theory dependency: BasicLibrary
+ */
+public class TablingLibrary extends PrologLib {
+
+    /** the tables, by the variant of their call */
+    private final Map<String, Table> tables = new HashMap<>();
+
+    /** tables of the strongly connected components being evaluated */
+    private final List<Table> stack = new ArrayList<>();
+
+    /** tables being evaluated, innermost first */
+    private final Deque<Table> calls = new ArrayDeque<>();
+
+    /** answers added to any table, by which a leader detects its fixpoint */
+    private long added;
+
+    /** version of the database which the tables were computed from */
+    private long version = -1;
+
+    private static final class Table {
+        final List<Term> answers = new ArrayList<>();
+        final Set<String> variants = new HashSet<>();
+        boolean complete;
+
+        /** position in the stack, -1 if not in it */
+        int index = -1;
+        /** lowest position in the stack of a table which this depends on */
+        int low;
+        /** answers added, when its iteration began */
+        long iteration;
+    }
+
+    @Override
+    public String getTheory() {
+        return ":- op(1150, fx, table). \n"
+                + "'$tbl'(G, T) :- '$tbl_enter'(G, S), '$tbl_eval'(S, G, T), '$tbl_answers'(G, L), '$tbl_member'(G, L). \n"
+                + "'$tbl_eval'(new, G, T) :- !, '$tbl_fixpoint'(G, T). \n"
+                + "'$tbl_eval'(_, _, _). \n"
+                + "'$tbl_fixpoint'(G, T) :- '$tbl_iterate'(G, T), ('$tbl_complete' -> true ; '$tbl_fixpoint'(G, T)). \n"
+                + "'$tbl_iterate'(G, T) :- call(T), '$tbl_add'(G), fail. \n"
+                + "'$tbl_iterate'(_, _). \n"
+                + "'$tbl_member'(X, [X | _]). \n"
+                + "'$tbl_member'(X, [_ | T]) :- '$tbl_member'(X, T). \n";
+    }
+
+    /*
+     * DIRECTIVES
+     */
+
+    /**
+     * table(Name/Arity), or a sequence or list of them
+     */
+    public void table_1(Term arg) throws PrologError {
+        Term t = arg.term();
+        if (t instanceof Struct) {
+            Struct s = (Struct) t;
+            if (s.isList()) {
+                for (Iterator<Term> i = s.listIterator(); i.hasNext(); )
+                    table_1(i.next());
+                return;
+            }
+            if (s.subs() == 2 && s.name().equals(",")) {
+                table_1(s.sub(0));
+                table_1(s.sub(1));
+                return;
+            }
+            if (s.subs() == 2 && s.name().equals("/")) {
+                Term name = s.subResolve(0), arity = s.subResolve(1);
+                if (name.isAtomic() && arity instanceof NumberTerm && ((NumberTerm) arity).isInteger()) {
+                    prolog.theories.table(((Struct) name).name(), ((NumberTerm) arity).intValue());
+                    return;
+                }
+            }
+        } else if (t instanceof Var)
+            throw PrologError.instantiation_error(prolog, 1);
+        throw PrologError.type_error(prolog, 1, "predicate_indicator", t);
+    }
+
+    /*
+     * PREDICATES
+     */
+
+    public boolean abolish_all_tables_0() {
+        if (!calls.isEmpty())
+            return false;
+        tables.clear();
+        return true;
+    }
+
+    /**
+     * enters the call to a tabled predicate.  its state is complete, evaluating
+     * (by a caller, or in its strongly connected component), or new (to be evaluated)
+     */
+    public boolean $tbl_enter_2(Term goal, Term state) {
+        long v = prolog.theories.version();
+        if (v != version && calls.isEmpty()) {
+            tables.clear();
+            version = v;
+        }
+
+        Table t = tables.computeIfAbsent(variant(goal), k -> new Table());
+        String s;
+        if (t.complete) {
+            s = "complete";
+        } else if (t.index >= 0) {
+            Table c = calls.peek();
+            if (c != null)
+                c.low = Math.min(c.low, t.index);
+            s = "evaluating";
+        } else {
+            t.index = t.low = stack.size();
+            stack.add(t);
+            calls.push(t);
+            t.iteration = added;
+            s = "new";
+        }
+        return unify(state, new Struct(s));
+    }
+
+    /**
+     * adds an answer, found by an iteration of the call being evaluated
+     */
+    public boolean $tbl_add_1(Term answer) {
+        Table t = calls.peek();
+        if (t == null)
+            return false;
+
+        Term a = answer.term();
+        if (t.variants.add(variant(a))) {
+            t.answers.add(a.copy(new IdentityHashMap<>(), 0));
+            added++;
+        }
+        return true;
+    }
+
+    /**
+     * ends an iteration of the call being evaluated.  fails if it must iterate again:
+     * when it is the leader of its component and new answers were found.
+     */
+    public boolean $tbl_complete_0() {
+        Table t = calls.pop();
+        if (t.low < t.index) {
+            //depends on a caller's table, whose leader iterates until their fixpoint
+            Table c = calls.peek();
+            if (c != null)
+                c.low = Math.min(c.low, t.low);
+            return true;
+        }
+
+        if (added != t.iteration) {
+            //the other tables of the component are evaluated again by the next iteration
+            release(t.index + 1, false);
+            t.low = t.index;
+            t.iteration = added;
+            calls.push(t);
+            return false;
+        }
+
+        release(t.index, true);
+        return true;
+    }
+
+    private void release(int from, boolean complete) {
+        for (int i = stack.size() - 1; i >= from; i--) {
+            Table x = stack.remove(i);
+            x.index = -1;
+            x.complete = complete;
+        }
+    }
+
+    /**
+     * the answers of a call's table, renamed
+     */
+    public boolean $tbl_answers_2(Term goal, Term list) {
+        Table t = tables.get(variant(goal));
+        if (t == null || t.answers.isEmpty())
+            return false;
+
+        int n = t.answers.size();
+        Term[] a = new Term[n];
+        for (int i = 0; i < n; i++)
+            a[i] = t.answers.get(i).copy(new IdentityHashMap<>(), 0);
+        return unify(list, new Struct(a));
+    }
+
+    /**
+     * the incomplete tables of a demonstration which was interrupted (ex: by an exception) are discarded
+     */
+    @Override
+    public void onSolveBegin(Term goal) {
+        if (!calls.isEmpty() || !stack.isEmpty()) {
+            calls.clear();
+            stack.clear();
+            tables.values().removeIf(t -> !t.complete);
+        }
+    }
+
+    /**
+     * a key identifying a term up to the renaming of its variables
+     */
+    static String variant(Term t) {
+        StringBuilder b = new StringBuilder(64);
+        variant(t, new IdentityHashMap<>(), b);
+        return b.toString();
+    }
+
+    private static void variant(Term t, Map<Var, Integer> vars, StringBuilder b) {
+        t = t.term();
+        if (t instanceof Var) {
+            Integer v = vars.get(t);
+            if (v == null)
+                vars.put((Var) t, v = vars.size());
+            b.append('_').append(v);
+        } else if (t instanceof NumberTerm) {
+            b.append('#').append(t);
+        } else if (t instanceof Struct) {
+            Struct s = (Struct) t;
+            String name = s.name();
+            b.append(name.length()).append(':').append(name);
+            int n = s.subs();
+            if (n > 0) {
+                b.append('(');
+                for (int i = 0; i < n; i++) {
+                    if (i > 0)
+                        b.append(',');
+                    variant(s.sub(i), vars, b);
+                }
+                b.append(')');
+            }
+        } else {
+            b.append(t);
+        }
+    }
+}
@@ -2,7 +2,13 @@ package alice.tuprolog;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class FamilyClausesListTest {
     
@@ -58,4 +64,104 @@ public class FamilyClausesListTest {
     }
 
 
-}
\ No newline at end of file
+    private static ClauseInfo fact(Term... args) {
+        return new ClauseInfo(new Struct(":-", new Struct("f", args), new Struct("true")), null);
+    }
+
+    /** f(I, aJ, I) where J = I mod 4, and f(X, Y, Z) inserted at the middle */
+    private static FamilyClausesList facts(int n) {
+        FamilyClausesList l = new FamilyClausesList();
+        for (int i = 0; i < n; i++) {
+            if (i == n / 2)
+                l.add(fact(new Var("X"), new Var("Y"), new Var("Z")));
+            l.add(fact(new NumberTerm.Int(i), new Struct("a" + (i % 4)), new NumberTerm.Int(i)));
+        }
+        return l;
+    }
+
+    /** the clauses which the index returns are, in order, those which a full scan would try */
+    private static void assertIndexed(FamilyClausesList l, Struct goal) {
+        List<ClauseInfo> scan = l.stream().filter(c -> goal.unifiable(c.head)).collect(Collectors.toList());
+        Deque<ClauseInfo> indexed = l.get(goal);
+        List<ClauseInfo> matching = indexed.stream().filter(c -> goal.unifiable(c.head)).collect(Collectors.toList());
+        assertEquals(scan, matching, goal::toString);
+    }
+
+    @Test
+    public void testArgumentIndex() {
+        FamilyClausesList l = facts(32);
+
+        Struct second = new Struct("f", new Var("A"), new Struct("a1"), new Var("B"));
+        Deque<ClauseInfo> c = l.get(second);
+        assertEquals(32 / 4 + 1, c.size());
+        assertIndexed(l, second);
+
+        Struct third = new Struct("f", new Var("A"), new Var("B"), new NumberTerm.Int(5));
+        assertEquals(2, l.get(third).size());
+        assertIndexed(l, third);
+
+        //unknown constant: only the variable clause
+        assertEquals(1, l.get(new Struct("f", new Var("A"), new Struct("z"), new Var("B"))).size());
+
+        //the first argument's index is preferred when smaller
+        assertEquals(2, l.get(new Struct("f", new NumberTerm.Int(5), new Struct("a1"), new Var("B"))).size());
+    }
+
+    @Test
+    public void testArgumentIndexMaintained() {
+        FamilyClausesList l = facts(32);
+        Struct second = new Struct("f", new Var("A"), new Struct("a1"), new Var("B"));
+        assertIndexed(l, second);
+
+        //retract
+        l.removeIf(c -> c.head.sub(0).term().isEqual(new NumberTerm.Int(5)));
+        assertEquals(32 / 4, l.get(second).size());
+        assertIndexed(l, second);
+
+        //assert
+        l.addFirst(fact(new NumberTerm.Int(100), new Struct("a1"), new NumberTerm.Int(0)));
+        assertEquals(32 / 4 + 1, l.get(second).size());
+        assertIndexed(l, second);
+
+        //removal of the variable clause
+        for (Iterator<ClauseInfo> i = l.iterator(); i.hasNext(); ) {
+            if (i.next().head.sub(0).term() instanceof Var)
+                i.remove();
+        }
+        assertEquals(32 / 4, l.get(second).size());
+        assertIndexed(l, second);
+        assertIndexed(l, new Struct("f", new Var("A"), new Var("B"), new NumberTerm.Int(0)));
+
+        l.clear();
+        assertTrue(l.get(second).isEmpty());
+    }
+
+    @Test
+    public void testArgumentIndexSolve() throws PrologException {
+        StringBuilder t = new StringBuilder();
+        for (int i = 0; i < 64; i++)
+            t.append("p(").append(i).append(", k").append(i % 8).append(", ").append(i).append(").\n");
+        Prolog engine = new Prolog();
+        engine.setTheory(new Theory(t.toString()));
+
+        assertEquals("[3, 11, 19, 27, 35, 43, 51, 59]", solutions(engine, "p(X, k3, _)."));
+
+        //the clauses are removed from, and added to, the argument indexes built by the query
+        assertEquals(1, engine.theories.retract((Struct) engine.term("p(11, k3, _)."), c -> true));
+        assertTrue(engine.solve("assertz(p(99, k3, 0)).").isSuccess());
+        assertEquals("[3, 19, 27, 35, 43, 51, 59, 99]", solutions(engine, "p(X, k3, _)."));
+
+        assertEquals("[0, 99]", solutions(engine, "p(X, _, 0)."));
+    }
+
+    /** the values of X in the solutions of a goal */
+    private static String solutions(Prolog engine, String goal) throws PrologException {
+        List<String> x = new ArrayList<>();
+        for (Solution s = engine.solve(goal); s.isSuccess(); s = engine.solveNext()) {
+            x.add(s.getVarValue("X").toString());
+            if (!engine.hasOpenAlternatives())
+                break;
+        }
+        return x.toString();
+    }
+}
@@ -0,0 +1,184 @@
+package alice.tuprolog;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSolveTestCase {
+
+    final Prolog engine = new Prolog();
+
+    private static final String graph =
+            "edge(a, b). edge(a, c). edge(b, d). edge(c, d). edge(d, e). edge(e, f). edge(c, f).\n" +
+            "path(X, Y) :- edge(X, Y).\n" +
+            "path(X, Y) :- edge(X, Z), path(Z, Y).\n" +
+            "first(X) :- edge(X, _), !.\n";
+
+    /** the solutions' values, sorted, since a goal can have the same solution more than once */
+    private List<String> sequential(String goal, String... vars) throws PrologException {
+        List<String> s = new ArrayList<>();
+        Solution x = engine.solve(goal);
+        while (x.isSuccess()) {
+            s.add(values(x, vars));
+            if (!engine.hasOpenAlternatives())
+                break;
+            x = engine.solveNext();
+        }
+        Collections.sort(s);
+        return s;
+    }
+
+    private List<String> parallel(String goal, ForkJoinPool pool, String... vars) throws PrologException {
+        List<String> s = new ArrayList<>();
+        try (ParallelSolve p = engine.solveParallel((Struct) engine.term(goal + "."), pool)) {
+            while (p.hasNext()) {
+                Solution x = p.next();
+                assertTrue(x.isSuccess());
+                s.add(values(x, vars));
+            }
+            assertTrue(p.isDone());
+        }
+        Collections.sort(s);
+        return s;
+    }
+
+    private static String values(Solution s, String... vars) throws NoSolutionException {
+        StringBuilder b = new StringBuilder();
+        for (String v : vars)
+            b.append(s.getVarValue(v)).append(' ');
+        return b.toString();
+    }
+
+    @Test
+    public void testSameSolutions() throws PrologException {
+        engine.setTheory(new Theory(graph));
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (String g : new String[]{"path(X, Y)", "path(a, Y)", "path(X, f)", "edge(X, Y), path(Y, Z)"}) {
+                List<String> s = sequential(g + ".", "X", "Y", "Z");
+                assertFalse(s.isEmpty());
+                assertEquals(s, parallel(g, pool, "X", "Y", "Z"), g);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** worker engines are built, and solve, concurrently; repeated, since a race shows only in some runs */
+    @Test
+    public void testSameSolutionsRepeated() throws PrologException {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int i = 0; i < 100; i++) {
+                Prolog e = new Prolog();
+                e.setTheory(new Theory(graph));
+                List<String> s = new ArrayList<>();
+                try (ParallelSolve p = e.solveParallel((Struct) e.term("path(a, Y)."), pool)) {
+                    while (p.hasNext())
+                        s.add(p.next().getVarValue("Y").toString());
+                }
+                Collections.sort(s);
+                assertEquals("[b, c, d, d, e, e, f, f, f]", s.toString(), "run " + i);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testCutAndPrimitives() throws PrologException {
+        engine.setTheory(new Theory(graph));
+        assertEquals(sequential("first(X).", "X"), parallel("first(X)", ForkJoinPool.commonPool(), "X"));
+        assertEquals(sequential("member(X, [1, 2, 3]), Y is X * 2.", "X", "Y"),
+                parallel("member(X, [1, 2, 3]), Y is X * 2", ForkJoinPool.commonPool(), "X", "Y"));
+    }
+
+    @Test
+    public void testSolutionGoal() throws PrologException, InterruptedException {
+        engine.setTheory(new Theory(graph));
+        try (ParallelSolve p = engine.solveParallel("path(e, Y).")) {
+            Solution s = p.poll(10, TimeUnit.SECONDS);
+            assertNotNull(s);
+            assertEquals("path(e,f)", s.getSolution().toString());
+            assertNull(p.poll(10, TimeUnit.SECONDS));
+        }
+        assertFalse(engine.solveParallel("path(f, _).").hasNext());
+    }
+
+    @Test
+    public void testClausesChanged() throws PrologException {
+        engine.setTheory(new Theory(graph));
+        assertFalse(engine.solveParallel("path(f, g).").hasNext());
+        engine.solve("assertz(edge(f, g)).");
+        assertTrue(engine.solveParallel("path(a, g).").hasNext());
+    }
+
+    @Test
+    public void testOperatorsFlagsAndTabling() throws PrologException {
+        engine.addLibrary("alice.tuprolog.lib.TablingLibrary");
+        engine.solve("op(700, xfx, to).");
+        engine.setTheory(new Theory(graph +
+                ":- table reach/2.\n" +
+                "reach(X, Y) :- edge(X, Y).\n" +
+                "reach(X, Y) :- reach(X, Z), edge(Z, Y).\n"));
+        assertEquals(sequential("text_term('a to b', T), T =.. L.", "L"),
+                parallel("text_term('a to b', T), T =.. L", ForkJoinPool.commonPool(), "L"));
+        assertEquals(sequential("reach(a, X).", "X"), parallel("reach(a, X)", ForkJoinPool.commonPool(), "X"));
+
+        //a worker's assert to a tabled predicate is stored under its tabled name, so it is a solution of it
+        assertEquals(sequential("edge(X, _), assertz(reach(X, z)), reach(X, z).", "X"),
+                parallel("edge(X, _), assertz(reach(X, z)), reach(X, z)", ForkJoinPool.commonPool(), "X"));
+        assertTrue(engine.solve("retractall(reach(_, z)).").isSuccess());
+        assertFalse(engine.solve("reach(_, z).").isSuccess());
+
+        //flags and operators set after the workers were made are given to new ones
+        engine.flags.add("mode", (Struct) engine.term("[fast, slow]."), new Struct("slow"), true, "");
+        engine.solve("op(700, xfx, from).");
+        List<String> s = sequential("current_prolog_flag(mode, F), text_term('b from a', T), T =.. L.", "F", "L");
+        assertEquals(Collections.singletonList("slow [from,b,a] "), s);
+        assertEquals(s, parallel("current_prolog_flag(mode, F), text_term('b from a', T), T =.. L",
+                ForkJoinPool.commonPool(), "F", "L"));
+    }
+
+    /** the side effects of a branch are its worker's, which is then not reused */
+    @Test
+    public void testSideEffectsNotShared() throws PrologException {
+        engine.setTheory(new Theory(graph));
+        assertEquals(7, parallel("edge(X, Y), assertz(seen(X))", ForkJoinPool.commonPool(), "X").size());
+        assertFalse(engine.solve("seen(_).").isSuccess());
+        assertTrue(parallel("seen(X)", ForkJoinPool.commonPool(), "X").isEmpty());
+    }
+
+    /** an uncaught exception of a branch is given as a halted solution, which ends the solve */
+    @Test
+    public void testError() throws PrologException {
+        engine.setTheory(new Theory(graph));
+        try (ParallelSolve p = engine.solveParallel("edge(X, Y), (X == d -> throw(oops) ; true).")) {
+            int halted = 0;
+            while (p.hasNext()) {
+                if (p.next().isHalted())
+                    halted++;
+            }
+            assertEquals(1, halted);
+        }
+    }
+
+    /** a goal with infinitely many solutions is solved only as far as they are consumed */
+    @Test
+    public void testBounded() throws PrologException, InterruptedException {
+        engine.setTheory(new Theory("nat(0).\nnat(s(X)) :- nat(X).\n"));
+        try (ParallelSolve p = engine.solveParallel("nat(X).")) {
+            for (int i = 0; i < 10; i++)
+                assertTrue(p.next().isSuccess());
+            Thread.sleep(200);
+            assertTrue(p.buffered() <= ParallelSolve.SOLUTIONS_BUFFERED);
+            assertFalse(p.isDone());
+        }
+    }
+}
@@ -1,29 +1,61 @@
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
-
+package alice.tuprolog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StateRuleSelectionTestCase {
+
+    final Prolog engine = new Prolog();
+
+    @Test
+    public void testHeadRenaming() throws PrologException {
+        engine.setTheory(new Theory(
+                "pair(X, X).\n" +
+                "wrap(X, f(X, Y), Y).\n" +
+                "swap(p(A, B), p(B, A)).\n" +
+                "nest(X, g(h(X), Z)) :- Z = X.\n"));
+
+        assertTrue(engine.solve("pair(a, a).").isSuccess());
+        assertFalse(engine.solve("pair(a, b).").isSuccess());
+        assertFalse(engine.solve("pair(f(A), f(b)), A == a.").isSuccess());
+
+        //head subterms bound to the goal's variables share the clause's renamed variables
+        Solution s = engine.solve("wrap(1, F, Y), Y = 2.");
+        assertTrue(s.isSuccess());
+        assertEquals("f(1,2)", s.getVarValue("F").toString());
+
+        s = engine.solve("swap(p(1, Q), R), Q = 2.");
+        assertTrue(s.isSuccess());
+        assertEquals("p(2,1)", s.getVarValue("R").toString());
+
+        //the body sees the bindings of the head
+        s = engine.solve("nest(a, G).");
+        assertTrue(s.isSuccess());
+        assertEquals("g(h(a),a)", s.getVarValue("G").toString());
+    }
+
+    @Test
+    public void testClausesUnchanged() throws PrologException {
+        engine.setTheory(new Theory(
+                "app([], L, L).\n" +
+                "app([H | T], L, [H | R]) :- app(T, L, R).\n"));
+
+        Solution s = engine.solve("app(X, Y, [1, 2, 3]), Y = [3].");
+        assertTrue(s.isSuccess());
+        assertEquals("[1,2]", s.getVarValue("X").toString());
+
+        //the stored clauses are not bound by the solves against them
+        for (int i = 0; i < 2; i++) {
+            int n = 0;
+            for (s = engine.solve("app(X, Y, [a, b])."); s.isSuccess(); s = engine.solveNext()) {
+                n++;
+                if (!engine.hasOpenAlternatives())
+                    break;
+            }
+            assertEquals(3, n);
+        }
+        for (ClauseInfo c : engine.theories.find(new Struct("app", new Var(), new Var(), new Var())))
+            assertTrue(c.head.sub(1).term() instanceof Var);
+    }
+}
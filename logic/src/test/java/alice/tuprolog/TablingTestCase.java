@@ -0,0 +1,103 @@
+package alice.tuprolog;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TablingTestCase {
+
+    final Prolog engine = new Prolog();
+
+    public TablingTestCase() throws InvalidLibraryException {
+        engine.addLibrary("alice.tuprolog.lib.TablingLibrary");
+    }
+
+    private static final String graph =
+            ":- table path/2.\n" +
+            "path(X, Y) :- path(X, Z), edge(Z, Y).\n" +
+            "path(X, Y) :- edge(X, Y).\n" +
+            "edge(a, b). edge(b, c). edge(c, a). edge(c, d).\n";
+
+    private int count(String goal) throws PrologException {
+        int n = 0;
+        for (Solution s = engine.solve(goal + "."); s.isSuccess(); s = engine.solveNext()) {
+            n++;
+            if (!engine.hasOpenAlternatives())
+                break;
+        }
+        return n;
+    }
+
+    @Test
+    public void testLeftRecursion() throws PrologException {
+        engine.setTheory(new Theory(graph));
+
+        assertEquals(4, count("path(a, _)"));
+        assertEquals(0, count("path(d, _)"));
+        assertEquals(12, count("path(_, _)"));
+        assertEquals(3, count("path(_, a)"));
+
+        assertTrue(engine.solve("path(b, d).").isSuccess());
+        assertFalse(engine.solve("path(d, a).").isSuccess());
+    }
+
+    @Test
+    public void testMutualRecursion() throws PrologException {
+        engine.setTheory(new Theory(
+                ":- table [p/1, q/1].\n" +
+                "p(X) :- q(X).\n" +
+                "p(a).\n" +
+                "q(X) :- p(X).\n" +
+                "q(b).\n"));
+
+        assertEquals(2, count("p(_)"));
+        assertEquals(2, count("q(_)"));
+        assertTrue(engine.solve("q(a).").isSuccess());
+    }
+
+    @Test
+    public void testSharedSubgoals() throws PrologException {
+        engine.setTheory(new Theory(
+                ":- table fib/2.\n" +
+                "fib(0, 0).\n" +
+                "fib(1, 1).\n" +
+                "fib(N, F) :- N > 1, N1 is N - 1, N2 is N - 2, fib(N1, F1), fib(N2, F2), F is F1 + F2.\n"));
+
+        Solution s = engine.solve("fib(30, F).");
+        assertTrue(s.isSuccess());
+        assertEquals(832040, ((NumberTerm) s.getVarValue("F")).intValue());
+    }
+
+    @Test
+    public void testAssert() throws PrologException {
+        engine.setTheory(new Theory(graph));
+        assertFalse(engine.solve("path(a, e).").isSuccess());
+
+        //the tables are abolished by a change to the database
+        assertTrue(engine.solve("assertz(edge(d, e)).").isSuccess());
+        assertTrue(engine.solve("path(a, e).").isSuccess());
+
+        //clauses of tabled predicates are asserted, inspected and retracted as others
+        assertTrue(engine.solve("assertz(path(e, f)).").isSuccess());
+        assertTrue(engine.solve("path(e, f).").isSuccess());
+        assertEquals(1, count("path(e, _)"));
+        assertTrue(engine.solve("clause(path(e, f), true).").isSuccess());
+        assertEquals(3, count("clause(path(_, _), _)"));
+        assertTrue(engine.solve("retract(path(e, f)).").isSuccess());
+        assertFalse(engine.solve("path(e, f).").isSuccess());
+        assertFalse(engine.solve("clause(path(e, f), true).").isSuccess());
+        assertEquals(2, count("clause(path(_, _), _)"));
+
+        //and the tables follow
+        assertTrue(engine.solve("retract(edge(d, e)).").isSuccess());
+        assertFalse(engine.solve("path(a, e).").isSuccess());
+        assertEquals(4, count("path(a, _)"));
+    }
+
+    @Test
+    public void testNotDefault() throws PrologException {
+        Prolog p = new Prolog();
+        assertFalse(p.solve("current_op(_, _, table).").isSuccess());
+        assertTrue(engine.solve("current_op(1150, fx, table).").isSuccess());
+    }
+}
@@ -70,7 +70,7 @@ public class TheoriesTestCase {
         if (info.hasOpenAlternatives())
             System.err.println(engine.solveNext());
 
-        assertEquals("c2", info.getVarValue("N").toString());
+        assertEquals("c3", info.getVarValue("N").toString());
     }
 
 
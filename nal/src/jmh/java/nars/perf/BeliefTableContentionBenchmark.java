@@ -0,0 +1,86 @@
+package nars.perf;
+
+import nars.$;
+import nars.NAR;
+import nars.NARS;
+import nars.Task;
+import nars.control.op.Remember;
+import nars.table.temporal.ColumnarBeliefTable;
+import nars.table.temporal.CopyOnWriteRTreeBeliefTable;
+import nars.table.temporal.RTreeBeliefTable;
+import nars.table.temporal.TemporalBeliefTable;
+import nars.term.Term;
+import org.junit.jupiter.api.Disabled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static nars.Op.BELIEF;
+import static nars.perf.JmhBenchmark.perf;
+
+/**
+ * many readers answering belief queries from one temporal table while a writer
+ * inputs new beliefs into it, as a sensor concept does
+ */
+@State(Scope.Group)
+@Disabled
+public class BeliefTableContentionBenchmark {
+
+    @Param({"rtree", "copyOnWrite", "columnar"})
+    private String table;
+
+    @Param({"64", "2048"})
+    private String capacity;
+
+    private NAR n;
+    private Term x;
+    private TemporalBeliefTable r;
+    private int cap;
+    private final AtomicLong now = new AtomicLong();
+
+    public static void main(String[] args) throws RunnerException {
+        perf(BeliefTableContentionBenchmark.class, (o) -> {
+            o.warmupIterations(2);
+            o.measurementIterations(4);
+            o.forks(1);
+        });
+    }
+
+    @Setup
+    public void start() {
+        n = NARS.shell();
+        x = $.$$("x");
+        switch (table) {
+            case "copyOnWrite": r = new CopyOnWriteRTreeBeliefTable(); break;
+            case "columnar": r = new ColumnarBeliefTable(); break;
+            default: r = new RTreeBeliefTable(); break;
+        }
+        r.setTaskCapacity(cap = Integer.parseInt(capacity));
+        for (int i = 0; i < cap; i++)
+            write();
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.Throughput)
+    public void write() {
+        long t = now.incrementAndGet();
+        Task a = $.task(x, BELIEF, ThreadLocalRandom.current().nextFloat(), 0.9f).time(t, t, t).apply(n);
+        a.pri(0.5f);
+        r.add(Remember.the(a, n), n);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(7)
+    @BenchmarkMode(Mode.Throughput)
+    public void read(Blackhole b) {
+        long t = now.get() - ThreadLocalRandom.current().nextInt(cap);
+        b.consume(r.truth(t, t, x, null, n));
+    }
+
+}
@@ -0,0 +1,52 @@
+package nars.perf;
+
+import nars.NAR;
+import nars.NARS;
+import nars.Param;
+import nars.test.impl.DeductiveMeshTest;
+import org.junit.jupiter.api.Disabled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import static nars.perf.JmhBenchmark.perf;
+
+/** compares the interpreted deriver rule trie with its bytecode-compiled equivalent */
+@State(Scope.Thread)
+@Disabled
+public class DeriverBytecodeBenchmark {
+
+    @Param({"false", "true"})
+    private String bytecode;
+
+    @Param("4000")
+    private String cycles;
+
+    private NAR n;
+
+    public static void main(String[] args) throws RunnerException {
+        perf(DeriverBytecodeBenchmark.class, (o) -> {
+            o.warmupIterations(2);
+            o.measurementIterations(4);
+            o.forks(1);
+        });
+    }
+
+    @Setup
+    public void start() {
+        Param.DERIVER_BYTECODE = Boolean.parseBoolean(bytecode);
+        n = NARS.tmp();
+    }
+
+    @TearDown
+    public void end() {
+        Param.DERIVER_BYTECODE = false;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public void deductiveMesh() {
+        new DeductiveMeshTest(n, 6, 6);
+        n.run(Integer.parseInt(cycles));
+    }
+
+}
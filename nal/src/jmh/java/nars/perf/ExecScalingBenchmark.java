@@ -0,0 +1,84 @@
+package nars.perf;
+
+import jcog.Util;
+import jcog.exe.Loop;
+import nars.NAR;
+import nars.NARS;
+import nars.exe.Exec;
+import nars.exe.MultiExec;
+import nars.exe.Valuator;
+import nars.test.impl.DeductiveMeshTest;
+import org.junit.jupiter.api.Disabled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import static nars.perf.JmhBenchmark.perf;
+
+/**
+ * derived tasks/sec of the multithreaded executors at increasing thread counts
+ * (reported as the 'derivedTasks' secondary result)
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+@Disabled
+public class ExecScalingBenchmark {
+
+    @Param({"worker", "stealing"})
+    private String exec;
+
+    @Param({"1", "2", "4", "8", "16"})
+    private String threads;
+
+    /** accumulated across invocations; JMH reports it as a rate */
+    public long derivedTasks;
+
+    private NAR n;
+    private Loop loop;
+    private long derivedBefore;
+
+    public static void main(String[] args) throws RunnerException {
+        perf(ExecScalingBenchmark.class, (o) -> {
+            o.warmupIterations(1);
+            o.measurementIterations(3);
+            o.forks(1);
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void start() {
+        int t = Integer.parseInt(threads);
+        Exec e;
+        switch (exec) {
+            case "worker":
+                e = new MultiExec.WorkerExec(new Valuator.DefaultValuator(), t);
+                break;
+            case "stealing":
+                e = new MultiExec.StealingExec(new Valuator.DefaultValuator(), t);
+                break;
+            default:
+                throw new UnsupportedOperationException(exec);
+        }
+
+        n = NARS.realtime(50f).exe(e).get();
+        new DeductiveMeshTest(n, 8, 8);
+        loop = n.startFPS(50f);
+        derivedBefore = n.emotion.deriveTask.get();
+        derivedTasks = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void end() {
+        loop.stop();
+        n.stop();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void derive() {
+        Util.sleepMS(100);
+        long d = n.emotion.deriveTask.get();
+        derivedTasks += d - derivedBefore;
+        derivedBefore = d;
+    }
+
+}
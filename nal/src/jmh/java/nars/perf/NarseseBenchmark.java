@@ -0,0 +1,59 @@
+package nars.perf;
+
+import nars.NAR;
+import nars.NARS;
+import nars.Narsese;
+import org.junit.jupiter.api.Disabled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.io.StringReader;
+
+import static nars.perf.JmhBenchmark.perf;
+
+/**
+ * parses a text of tasks, as when loading a .nal file.
+ * 'grappa' by NarseseParser; 'reader' by the streaming NarseseReader
+ */
+@State(Scope.Thread)
+@Disabled
+public class NarseseBenchmark {
+
+    @Param({"grappa", "reader"})
+    private String parser;
+
+    private NAR n;
+    private String text;
+
+    public static void main(String[] args) throws RunnerException {
+        perf(NarseseBenchmark.class, (o) -> {
+            o.warmupIterations(1);
+            o.measurementIterations(3);
+            o.forks(1);
+        });
+    }
+
+    @Setup
+    public void start() {
+        n = NARS.shell();
+
+        StringBuilder s = new StringBuilder(64 * 1024);
+        for (int i = 0; i < 1000; i++) {
+            s.append("<a").append(i).append(" --> (b, {c").append(i % 7).append("})>. %1.0;0.9%\n");
+            s.append("$0.5 ((x").append(i).append(" &&+1 y) ==> --z:w). :|:\n");
+            s.append("(&&,(a-->b),[c,d],\"e").append(i).append("\")?\n");
+        }
+        text = s.toString();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void tasks(Blackhole bh) throws Narsese.NarseseException {
+        if (parser.equals("reader"))
+            Narsese.tasks(new StringReader(text), bh::consume, n);
+        else
+            Narsese.tasks(text, n).forEach(bh::consume);
+    }
+
+}
@@ -0,0 +1,80 @@
+package nars.perf;
+
+import jcog.data.list.FasterList;
+import nars.NAR;
+import nars.NARS;
+import nars.Task;
+import nars.test.impl.DeductiveMeshTest;
+import nars.truth.Stamp;
+import org.junit.jupiter.api.Disabled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.Random;
+
+import static nars.perf.JmhBenchmark.perf;
+
+/**
+ * stamp overlap tests between pairs of the tasks of a NAR, which have the stamp length and
+ * overlap distribution of derivation premises and revisions.
+ * 'arrays' compares the stamps directly; 'bloom' first compares their 64-bit bloom filters
+ */
+@State(Scope.Thread)
+@Disabled
+public class StampOverlapBenchmark {
+
+    @Param({"arrays", "bloom"})
+    private String test;
+
+    private Task[] tasks;
+    private int[] pairs;
+    private int next;
+
+    public static void main(String[] args) throws RunnerException {
+        perf(StampOverlapBenchmark.class, (o) -> {
+            o.warmupIterations(1);
+            o.measurementIterations(3);
+            o.forks(1);
+        });
+    }
+
+    @Setup
+    public void start() {
+        NAR n = NARS.tmp();
+        new DeductiveMeshTest(n, 5, 5);
+        n.run(1000);
+
+        FasterList<Task> t = new FasterList<>();
+        n.tasks().forEach(t::add);
+        tasks = t.toArray(new Task[0]);
+
+        Random rng = new Random(1);
+        pairs = new int[1 << 16];
+        for (int i = 0; i < pairs.length; i++)
+            pairs[i] = rng.nextInt(tasks.length);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void overlapsAny(Blackhole bh) {
+        int i = next;
+        Task a = tasks[pairs[i]], b = tasks[pairs[i + 1]];
+        next = (i + 2) & (pairs.length - 1);
+
+        bh.consume(test.equals("bloom") ?
+                Stamp.overlapsAny(a, b) :
+                Stamp.overlapsAny(a.stamp(), b.stamp()));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void overlapFraction(Blackhole bh) {
+        int i = next;
+        Task a = tasks[pairs[i]], b = tasks[pairs[i + 1]];
+        next = (i + 2) & (pairs.length - 1);
+
+        bh.consume(Stamp.overlapFraction(a.stamp(), b.stamp()));
+    }
+
+}
@@ -0,0 +1,78 @@
+package nars.perf;
+
+import jcog.Util;
+import jcog.exe.Loop;
+import nars.NAR;
+import nars.NARS;
+import nars.exe.MultiExec;
+import nars.exe.Valuator;
+import nars.index.concept.SimpleConceptIndex;
+import nars.test.impl.DeductiveMeshTest;
+import org.junit.jupiter.api.Disabled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import static nars.perf.JmhBenchmark.perf;
+
+/**
+ * derived tasks/sec of a multithreaded NAR with a single (shards=1) or sharded tasklink bag
+ * (reported as the 'derivedTasks' secondary result)
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+@Disabled
+public class TaskLinkBagBenchmark {
+
+    /** 0 = one per thread */
+    @Param({"1", "0"})
+    private String shards;
+
+    @Param({"4", "8"})
+    private String threads;
+
+    /** accumulated across invocations; JMH reports it as a rate */
+    public long derivedTasks;
+
+    private NAR n;
+    private Loop loop;
+    private long derivedBefore;
+
+    public static void main(String[] args) throws RunnerException {
+        perf(TaskLinkBagBenchmark.class, (o) -> {
+            o.warmupIterations(1);
+            o.measurementIterations(3);
+            o.forks(1);
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void start() {
+        SimpleConceptIndex concepts = new SimpleConceptIndex(64 * 1024, true);
+        concepts.activeShards = Integer.parseInt(shards);
+
+        n = NARS.realtime(50f)
+                .index(concepts)
+                .exe(new MultiExec.WorkerExec(new Valuator.DefaultValuator(), Integer.parseInt(threads)))
+                .get();
+        new DeductiveMeshTest(n, 8, 8);
+        loop = n.startFPS(50f);
+        derivedBefore = n.emotion.deriveTask.get();
+        derivedTasks = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void end() {
+        loop.stop();
+        n.stop();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void derive() {
+        Util.sleepMS(100);
+        long d = n.emotion.deriveTask.get();
+        derivedTasks += d - derivedBefore;
+        derivedBefore = d;
+    }
+
+}
@@ -0,0 +1,84 @@
+package nars.perf;
+
+import jcog.pri.bag.Bag;
+import jcog.pri.op.PriMerge;
+import nars.$;
+import nars.link.ShardedTaskLinkBag;
+import nars.link.TaskLink;
+import nars.link.TaskLinkBag;
+import nars.term.Term;
+import org.junit.jupiter.api.Disabled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static nars.Op.BELIEF;
+import static nars.perf.JmhBenchmark.perf;
+import static nars.time.Tense.ETERNAL;
+
+/**
+ * threads inputting tasklinks into, and sampling, one active tasklink bag while another
+ * commits it, as the workers and the cycle of a multithreaded NAR do
+ */
+@State(Scope.Group)
+@Disabled
+public class TaskLinkBagContentionBenchmark {
+
+    /** 1 = TaskLinkBag */
+    @Param({"1", "8"})
+    private String shards;
+
+    private static final int capacity = 1024;
+
+    private Bag<TaskLink, TaskLink> bag;
+    private Term[] terms;
+
+    public static void main(String[] args) throws RunnerException {
+        perf(TaskLinkBagContentionBenchmark.class, (o) -> {
+            o.warmupIterations(2);
+            o.measurementIterations(4);
+            o.forks(1);
+        });
+    }
+
+    @Setup
+    public void start() {
+        int s = Integer.parseInt(shards);
+        bag = s > 1 ? new ShardedTaskLinkBag(s, capacity, PriMerge.plus) : new TaskLinkBag(capacity, PriMerge.plus);
+        terms = new Term[capacity * 2];
+        for (int i = 0; i < terms.length; i++)
+            terms[i] = $.$$("(x-->y" + i + ')');
+        for (int i = 0; i < capacity; i++)
+            put();
+        bag.commit(null);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    @BenchmarkMode(Mode.Throughput)
+    public void put() {
+        ThreadLocalRandom rng = ThreadLocalRandom.current();
+        Term t = terms[rng.nextInt(terms.length)];
+        bag.put(new TaskLink.GeneralTaskLink(t, t.sub(1), BELIEF, ETERNAL, rng.nextFloat()));
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    @BenchmarkMode(Mode.Throughput)
+    public void sample(Blackhole b) {
+        b.consume(bag.sample(ThreadLocalRandom.current()));
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    @BenchmarkMode(Mode.Throughput)
+    public void commit() {
+        bag.commit(x -> x.priMult(0.99f));
+    }
+
+}
@@ -0,0 +1,85 @@
+package nars.perf;
+
+import jcog.memoize.Memoizers;
+import nars.term.Term;
+import nars.term.atom.Atomic;
+import nars.term.util.builder.HeapTermBuilder;
+import nars.term.util.builder.InterningTermBuilder;
+import nars.term.util.builder.TermBuilder;
+import org.junit.jupiter.api.Disabled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.Random;
+
+import static nars.Op.*;
+import static nars.perf.JmhBenchmark.perf;
+
+/**
+ * term construction throughput through the heap, interning, and off-heap interning term builders.
+ * the GC profiler reports the allocation per construction; the interning caches' hit rates and
+ * (off-heap) bytes per entry are printed after each iteration
+ */
+@State(Scope.Thread)
+@Disabled
+public class TermInternBenchmark {
+
+    @Param({"heap", "interning", "offHeap"})
+    private String termBuilder;
+
+    /** distinct atoms; more atoms, more distinct compounds */
+    @Param({"16", "256"})
+    private String atoms;
+
+    private TermBuilder b;
+    private Term[] a;
+    private final Random rng = new Random(1);
+
+    public static void main(String[] args) throws RunnerException {
+        perf(TermInternBenchmark.class, (o) -> {
+            o.warmupIterations(1);
+            o.measurementIterations(3);
+            o.forks(1);
+            o.addProfiler(GCProfiler.class);
+        });
+    }
+
+    @Setup
+    public void start() {
+        int cacheSize = 64 * 1024;
+        String id = TermInternBenchmark.class.getSimpleName() + '_' + termBuilder + '_' + atoms;
+        switch (termBuilder) {
+            case "interning": b = new InterningTermBuilder(id, true, 28, cacheSize, false); break;
+            case "offHeap": b = new InterningTermBuilder(id, true, 28, cacheSize, true); break;
+            default: b = HeapTermBuilder.the; break;
+        }
+
+        int n = Integer.parseInt(atoms);
+        a = new Term[n];
+        for (int i = 0; i < n; i++)
+            a[i] = Atomic.the("a" + i);
+    }
+
+    @TearDown(Level.Iteration)
+    public void stats() {
+        Memoizers.the.print();
+    }
+
+    private Term atom() {
+        //skewed toward the first atoms, as term frequencies are
+        int n = a.length;
+        return a[Math.min(n - 1, (int) (n * Math.pow(rng.nextFloat(), 2)))];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void construct(Blackhole bh) {
+        Term x = b.compound(PROD, atom(), atom());
+        Term y = b.compound(INH, x, atom());
+        Term z = b.compound(SIM, y, b.compound(PROD, atom(), x));
+        bh.consume(z);
+    }
+
+}
@@ -0,0 +1,90 @@
+package nars.perf;
+
+import nars.$;
+import nars.NAR;
+import nars.NARS;
+import nars.truth.Truth;
+import nars.truth.func.NALTruth;
+import nars.truth.func.TabulatedTruth;
+import nars.truth.func.TruthFunc;
+import org.junit.jupiter.api.Disabled;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.Random;
+
+import static nars.perf.JmhBenchmark.perf;
+
+/**
+ * double-premise truth functions applied to grid truths, with a premise distribution
+ * which repeats as tasks' dithered truths do.
+ * 'exact' computes the function; 'table' looks up its TabulatedTruth, whose hit rate
+ * and memory are printed after each iteration
+ */
+@State(Scope.Thread)
+@Disabled
+public class TruthFuncBenchmark {
+
+    @Param({"Deduction", "Induction", "Comparison", "Intersection", "Analogy"})
+    private String func;
+
+    @Param({"exact", "table"})
+    private String mode;
+
+    /** number of distinct truths */
+    @Param({"64", "1024"})
+    private String truths;
+
+    private NAR n;
+    private float minConf;
+    private TruthFunc f;
+    private Truth[] t;
+    private int[] pairs;
+    private int next;
+
+    public static void main(String[] args) throws RunnerException {
+        perf(TruthFuncBenchmark.class, (o) -> {
+            o.warmupIterations(1);
+            o.measurementIterations(3);
+            o.forks(1);
+        });
+    }
+
+    @Setup
+    public void start() {
+        n = NARS.shell();
+        minConf = n.confMin.floatValue();
+
+        NALTruth x = NALTruth.valueOf(func);
+        f = mode.equals("table") ? TabulatedTruth.the(x) : x;
+
+        Random rng = new Random(1);
+        t = new Truth[Integer.parseInt(truths)];
+        for (int i = 0; i < t.length; i++)
+            t[i] = $.t(Math.round(rng.nextFloat() * 100) / 100f, Math.round((0.1f + rng.nextFloat() * 0.8f) * 100) / 100f);
+
+        pairs = new int[1 << 16];
+        for (int i = 0; i < pairs.length; i++)
+            pairs[i] = rng.nextInt(t.length);
+    }
+
+    @TearDown(Level.Iteration)
+    public void print() {
+        TabulatedTruth.print(System.out);
+    }
+
+    @TearDown(Level.Trial)
+    public void clear() {
+        TabulatedTruth.clearAll();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public void apply(Blackhole bh) {
+        int i = next;
+        next = (i + 2) & (pairs.length - 1);
+        bh.consume(f.apply(t[pairs[i]], t[pairs[i + 1]], n, minConf));
+    }
+
+}
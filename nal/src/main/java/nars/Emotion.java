@@ -53,6 +53,9 @@ public class Emotion implements Meter {
 
     public final FastCounter deriveTask = new FastCounter("derive task");
     public final FastCounter deriveTermify = new FastCounter("derive termify");
+
+    /** bytes allocated by deriver threads while deriving (see Param.DERIVE_ALLOCATION_METER) */
+    public final FastCounter deriveAllocBytes = new FastCounter("derive alloc bytes");
     public final ExplainedCounter deriveFailTemporal = new ExplainedCounter("derive fail temporal");
     public final ExplainedCounter deriveFailEval = new ExplainedCounter("derive fail eval");
     public final FastCounter deriveFailVolLimit = new FastCounter("derive fail vol limit");
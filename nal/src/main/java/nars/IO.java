@@ -16,6 +16,7 @@ import nars.term.Term;
 import nars.term.Termlike;
 import nars.term.Terms;
 import nars.term.anon.Anom;
+import nars.term.atom.Atom;
 import nars.term.atom.Atomic;
 import nars.term.atom.Bool;
 import nars.term.atom.Int;
@@ -26,6 +27,8 @@ import org.jetbrains.annotations.Nullable;
 import java.io.*;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
 
 import static nars.Op.*;
 import static nars.time.Tense.DTERNAL;
@@ -63,6 +66,9 @@ public class IO {
     public static final byte SPECIAL_BIT = (byte) (1 << 7);
     public static final byte TEMPORAL_BIT = (byte) (1 << 6);
 
+    /** ATOM subtype of an atom written as its index in a dictionary (ex: TaskLog's) */
+    static final byte ATOM_DICTIONARY = 2;
+
     /** lower 5 bits (bits 0..4) */
     public static final byte OP_MASK = (0b00011111);
 
@@ -102,10 +108,17 @@ public class IO {
     }
 
     public static Task readTask(DataInput in) throws IOException {
+        return readTask(in, null);
+    }
+
+    /**
+     * @param dict resolves dictionary-encoded atoms (see writeTask), or null if there are none
+     */
+    public static Task readTask(DataInput in, @Nullable IntFunction<Term> dict) throws IOException {
 
         byte punc = in.readByte();
 
-        Term preterm = readTerm(in);
+        Term preterm = readTerm(in, dict);
 
         final Term term = preterm.normalize();
         if (term == null)
@@ -148,13 +161,24 @@ public class IO {
      * with Term first
      */
     private static void bytes(ByteArrayDataOutput out, Task t) throws IOException {
+        writeTask(out, t, null);
+    }
+
+    /**
+     * writes a task as readTask(in, dict) reads it
+     * @param dict index of an atom in the reader's dictionary, or -1 to write it inline. null to write all atoms inline
+     */
+    public static void writeTask(ByteArrayDataOutput out, Task t, @Nullable ToIntFunction<Atom> dict) throws IOException {
 
 
         byte p = t.punc();
         out.writeByte(p);
 
 
-        t.term().appendTo(out);
+        if (dict == null)
+            t.term().appendTo(out);
+        else
+            writeTerm(t.term(), out, dict);
 
 
         if (p != COMMAND) {
@@ -198,9 +222,46 @@ public class IO {
 
 
     /**
-     * called by readTerm after determining the op type
+     * as Term.appendTo, but atoms present in the dictionary are written as their index
      */
-    private static Term readTerm(DataInput in) throws IOException {
+    public static void writeTerm(Term t, ByteArrayDataOutput out, ToIntFunction<Atom> dict) {
+        if (t instanceof Atom) {
+            int i = dict.applyAsInt((Atom) t);
+            if (i >= 0) {
+                out.writeByte(opAndSubType(ATOM, ATOM_DICTIONARY));
+                IntCoding.writeUnsignedVariableInt(i, out);
+                return;
+            }
+        }
+
+        if (t instanceof Compound) {
+            Op o = t.op();
+            if (o == NEG) {
+                out.writeByte(NEG.id);
+                writeTerm(t.unneg(), out, dict);
+            } else {
+                int dt = 0;
+                boolean temporal = o.temporal && (dt = t.dt()) != DTERNAL;
+                out.writeByte(o.id | (temporal ? TEMPORAL_BIT : 0));
+                if (temporal)
+                    IntCoding.writeZigZagInt(dt, out);
+
+                Subterms s = t.subterms();
+                int n = s.subs();
+                out.writeByte(n);
+                for (int i = 0; i < n; i++)
+                    writeTerm(s.sub(i), out, dict);
+            }
+        } else {
+            t.appendTo(out);
+        }
+    }
+
+    public static Term readTerm(DataInput in) throws IOException {
+        return readTerm(in, null);
+    }
+
+    private static Term readTerm(DataInput in, @Nullable IntFunction<Term> dict) throws IOException {
 
         byte opByte = in.readByte();
         if (opByte != SPECIAL_BYTE) {
@@ -231,15 +292,19 @@ public class IO {
                             return Atomic.the(in.readUTF());
                         case 1:
                             return Anom.the(in.readByte());
+                        case ATOM_DICTIONARY:
+                            if (dict == null)
+                                throw new IOException("dictionary atom without a dictionary");
+                            return dict.apply(IntCoding.readUnsignedVariableInt(in));
                         default:
                             throw new TODO();
                     }
                 case INT:
                     return Int.the(IntCoding.readZigZagInt(in));
                 case NEG:
-                    return readNegated(in);
+                    return readNegated(in, dict);
                 default:
-                    return readCompound(in, o, (opByte & TEMPORAL_BIT) != 0);
+                    return readCompound(in, o, (opByte & TEMPORAL_BIT) != 0, dict);
 
             }
         } else {
@@ -270,14 +335,14 @@ public class IO {
 
 
 
-    private static Term[] readTermContainer(DataInput in) throws IOException {
+    private static Term[] readTermContainer(DataInput in, @Nullable IntFunction<Term> dict) throws IOException {
         int siz = in.readByte();
 
         assert (siz < Param.COMPOUND_SUBTERMS_MAX);
 
         Term[] s = new Term[siz];
         for (int i = 0; i < siz; i++) {
-            Term read = (s[i] = readTerm(in));
+            Term read = (s[i] = readTerm(in, dict));
             if (read == null)
                 throw new TermException(Op.PROD /* consider the termvector as a product */, s, "invalid");
         }
@@ -285,19 +350,19 @@ public class IO {
         return s;
     }
 
-    private static Term readNegated(DataInput in) throws IOException {
-        return readTerm(in).neg();
+    private static Term readNegated(DataInput in, @Nullable IntFunction<Term> dict) throws IOException {
+        return readTerm(in, dict).neg();
     }
 
     /**
      * called by readTerm after determining the op type
      * TODO make a version which reads directlyinto TermIndex
      */
-    private static Term readCompound(DataInput in, /*@NotNull*/ Op o, boolean temporal) throws IOException {
+    private static Term readCompound(DataInput in, /*@NotNull*/ Op o, boolean temporal, @Nullable IntFunction<Term> dict) throws IOException {
 
         int dt = temporal ? IntCoding.readZigZagInt(in) : DTERNAL;
 
-        Term[] v = readTermContainer(in);
+        Term[] v = readTermContainer(in, dict);
 
         Term y = o.the(dt, v);
         if (!(y instanceof Compound))
@@ -27,6 +27,7 @@ import nars.concept.util.ConceptBuilder;
 import nars.control.Cause;
 import nars.control.MetaGoal;
 import nars.control.NARService;
+import nars.control.batch.TaskInputBatch;
 import nars.control.channel.CauseChannel;
 import nars.control.op.Remember;
 import nars.eval.Evaluator;
@@ -34,6 +35,7 @@ import nars.eval.Facts;
 import nars.exe.Exec;
 import nars.exe.NARLoop;
 import nars.index.concept.ConceptIndex;
+import nars.io.Snapshot;
 import nars.link.Activate;
 import nars.subterm.Subterms;
 import nars.table.BeliefTable;
@@ -279,6 +281,11 @@ public class NAR extends Param implements Consumer<ITask>, NARIn, NAROut, Cycled
 
         emotion.getter(() -> x).run();
 
+        if (DERIVE_ALLOCATION_METER) {
+            long derived = emotion.deriveTask.get();
+            x.put("derive alloc bytes per task", derived > 0 ? ((double) emotion.deriveAllocBytes.get()) / derived : 0.0);
+        }
+
         return x;
 
     }
@@ -630,6 +637,23 @@ public class NAR extends Param implements Consumer<ITask>, NARIn, NAROut, Cycled
         }
     }
 
+    /**
+     * inputs a batch of tasks, grouped by concept so that each concept is resolved,
+     * and each of its tables updated, once per batch
+     */
+    public final void inputBatch(Task[] t) {
+        switch (t.length) {
+            case 0:
+                break;
+            case 1:
+                input(t[0]);
+                break;
+            default:
+                TaskInputBatch.input(t, this);
+                break;
+        }
+    }
+
     @Override
     public final void accept(ITask task) {
         input(task);
@@ -881,6 +905,13 @@ public class NAR extends Param implements Consumer<ITask>, NARIn, NAROut, Cycled
         exe.execute(t);
     }
 
+    /**
+     * executes work which may block (ex: I/O) asynchronously, outside of the executor's workers
+     */
+    public final void runBlocking(Runnable t) {
+        exe.executeBlocking(t);
+    }
+
 //    /**
 //     * executes task either synchronously or asynchronously according to the executor's mode.
 //     * this is different from input(ITask) because it will force async if available whereas input will
@@ -919,9 +950,24 @@ public class NAR extends Param implements Consumer<ITask>, NARIn, NAROut, Cycled
         return inputNarsese(url.openStream());
     }
 
+    /** reads and inputs the narsese asynchronously; the read does not block the caller or the executor's workers */
+    public void inputNarseseLater(URL url) {
+        runBlocking(() -> {
+            try {
+                inputNarsese(url);
+            } catch (IOException | NarseseException e) {
+                logger.error("{} {}", url, e);
+            }
+        });
+    }
+
+    /** inputs each task as soon as it has been read, so the tasks before a parse error have been input */
     public NAR inputNarsese(InputStream inputStream) throws IOException, NarseseException {
-        String x = new String(inputStream.readAllBytes());
-        input(x);
+        try {
+            Narsese.tasks(new InputStreamReader(inputStream), t -> input(t), this);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
         return this;
     }
 
@@ -1302,6 +1348,22 @@ public class NAR extends Param implements Consumer<ITask>, NARIn, NAROut, Cycled
         return this;
     }
 
+    /**
+     * writes a binary snapshot of the memory (see Snapshot), while running
+     */
+    public NAR snapshot(OutputStream o) throws IOException {
+        Snapshot.write(this, o);
+        return this;
+    }
+
+    /**
+     * restores a snapshot, written by snapshot(OutputStream), into the memory
+     */
+    public NAR restore(InputStream i) throws IOException {
+        Snapshot.read(this, i);
+        return this;
+    }
+
     /**
      * The id/name of the reasoner
      */
@@ -29,6 +29,7 @@ import nars.util.SoftException;
 import org.jetbrains.annotations.Nullable;
 
 import javax.annotation.Nonnull;
+import java.io.Reader;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -134,6 +135,26 @@ public final class Narsese {
 
     }
 
+    /**
+     * parses tasks as they are read from a stream, by NarseseReader, rather than from the
+     * whole of its text.  returns the number of tasks parsed
+     */
+    public static int tasks(Reader input, Consumer<Task> c, NAR m) throws NarseseException {
+        NarseseReader r = new NarseseReader(input);
+
+        int parsedTasks = 0;
+        Task t;
+        while ((t = r.next(m)) != null) {
+            c.accept(t);
+            parsedTasks++;
+        }
+
+        if (parsedTasks == 0)
+            throw new NarseseException("nothing parsed");
+
+        return parsedTasks;
+    }
+
     /**
      * parse one task
      */
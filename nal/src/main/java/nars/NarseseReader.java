@@ -0,0 +1,879 @@
+package nars;
+
+import jcog.Texts;
+import jcog.data.list.FasterList;
+import nars.term.Term;
+import nars.term.Variable;
+import nars.term.atom.Atom;
+import nars.term.atom.Atomic;
+import nars.term.obj.QuantityTerm;
+import nars.time.Tense;
+import nars.truth.PreciseTruth;
+import nars.unify.ellipsis.Ellipsis;
+import org.jetbrains.annotations.Nullable;
+import tec.uom.se.AbstractQuantity;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static nars.Op.*;
+import static nars.term.atom.Bool.Null;
+import static nars.time.Tense.ETERNAL;
+import static nars.time.Tense.XTERNAL;
+
+/**
+ * streaming Narsese parser: a hand-written recursive descent of NarseseParser's grammar,
+ * which reads its input incrementally, from a Reader or a character sequence, and decodes
+ * each task as soon as it has been read.
+ * <p>
+ * the grammar is a PEG, so the alternatives of a rule are tried in order, and a rule which
+ * fails restores the input position, exactly as the grappa parser does; but no rule graph,
+ * matcher contexts or value stack are involved, a term is not parsed again after it is found
+ * not to begin a 'y:x' macro, and input is buffered only from the start of the task being read.
+ * <p>
+ * like NarseseParser.Input, reading stops (next() returns null) at input which is not a task,
+ * a comment or a final command term, and a triple-quoted atom ends at the last closing quotes
+ * in the input, so reading one reads the rest of the input.
+ */
+public final class NarseseReader {
+
+    private static final int BUFFER = 4096;
+
+    private static final String[] PREFIX_OPS = {
+            DISJstr, "&|", "&&+-", "||+-", DIFFe, DIFFi, SECTe.str
+    };
+    private static final String[] INFIX_OPS = {
+            DISJstr, SECTi.str, SECTe.str, INH.str, SIM.str, IMPL.str, DIFFi, DIFFe, PROD.str, CONJ.str,
+            "&|", "=|>", "-{-", "-]-", "{-]"
+    };
+    private static final String[] OPS = {
+            SECTe.str, SECTi.str, PROD.str, INH.str, SIM.str, NEG.str, IMPL.str, CONJ.str
+    };
+    private static final String[] TEMPORAL_OPS = {
+            IMPL.str, CONJ.str
+    };
+    private static final String[] PRESENT = {
+            "now", "|", ":|:"
+    };
+
+    @Nullable
+    private final Reader in;
+
+    private char[] buf;
+
+    /** number of chars read into buf */
+    private int len;
+
+    /** position in buf */
+    private int p;
+
+    private boolean eof;
+
+    public NarseseReader(Reader in) {
+        this.in = in;
+        this.buf = new char[BUFFER];
+    }
+
+    public NarseseReader(CharSequence s) {
+        this.in = null;
+        this.len = s.length();
+        this.buf = new char[len];
+        s.toString().getChars(0, len, buf, 0);
+        this.eof = true;
+    }
+
+    /**
+     * parses a target, NOT NORMALIZED, from the start of the text
+     */
+    public static Term term(CharSequence s) throws Narsese.NarseseException {
+        Term y;
+        try {
+            y = new NarseseReader(s).term(true, true);
+        } catch (RuntimeException e) {
+            throw new Narsese.NarseseException(s.toString(), e);
+        }
+        if (y == null)
+            throw new Narsese.NarseseException("incomplete parse: " + s);
+        return y;
+    }
+
+    /**
+     * parses and decodes the next task, or returns null at the end of the input
+     * or at input which can not be parsed
+     */
+    @Nullable
+    public Task next(NAR n) throws Narsese.NarseseException {
+        Object[] x;
+        try {
+            x = next();
+        } catch (UncheckedIOException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new Narsese.NarseseException(new String(buf, 0, Math.min(p + 1, len)), e);
+        }
+        return x != null ? Narsese.decodeTask(n, x) : null;
+    }
+
+    @Nullable
+    private Object[] next() {
+        while (true) {
+            compact();
+
+            int start = p;
+            s();
+            if (at(p) == -1)
+                return null;
+
+            if (lineComment())
+                continue;
+
+            Object[] x = task();
+            if (x == null)
+                x = termCommandTask();
+            if (x == null)
+                p = start;
+            return x;
+        }
+    }
+
+    /** discards the input already read, which will not be backtracked to */
+    private void compact() {
+        if (in == null || p == 0)
+            return;
+        System.arraycopy(buf, p, buf, 0, len - p);
+        len -= p;
+        p = 0;
+    }
+
+    /** the char at a position, reading as necessary, or -1 past the end of the input */
+    private int at(int i) {
+        while (i >= len) {
+            if (!read())
+                return -1;
+        }
+        return buf[i];
+    }
+
+    private boolean read() {
+        if (eof)
+            return false;
+        if (len == buf.length)
+            buf = Arrays.copyOf(buf, len * 2);
+        int r;
+        try {
+            r = in.read(buf, len, buf.length - len);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (r < 0) {
+            eof = true;
+            return false;
+        }
+        len += r;
+        return true;
+    }
+
+    private String text(int from) {
+        return new String(buf, from, p - from);
+    }
+
+    private boolean ch(char c) {
+        if (at(p) == c) {
+            p++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean str(String s) {
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            if (at(p + i) != s.charAt(i))
+                return false;
+        }
+        p += n;
+        return true;
+    }
+
+    /** the longest of the strings at the position, as a trie (and a firstOf of only strings) matches */
+    @Nullable
+    private String trie(String[] options) {
+        String y = null;
+        for (String o : options) {
+            if ((y == null || o.length() > y.length()) && str(o)) {
+                p -= o.length();
+                y = o;
+            }
+        }
+        if (y != null)
+            p += y.length();
+        return y;
+    }
+
+    private int digits() {
+        int start = p;
+        while (digit(at(p)))
+            p++;
+        return p - start;
+    }
+
+    private static boolean digit(int c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean alpha(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean whitespace(int c) {
+        switch (c) {
+            case ' ':
+            case '\t':
+            case '\f':
+            case '\n':
+            case '\r':
+                return true;
+        }
+        return false;
+    }
+
+    /** whitespace, optional */
+    private void s() {
+        while (whitespace(at(p)))
+            p++;
+    }
+
+    /** whitespace, required */
+    private boolean ss() {
+        int start = p;
+        s();
+        return p > start;
+    }
+
+    private boolean lineComment() {
+        int start = p;
+        s();
+        if (!str("//")) {
+            p = start;
+            return false;
+        }
+        int c;
+        while ((c = at(p)) != -1 && c != '\n')
+            p++;
+        ch('\n');
+        return true;
+    }
+
+    @Nullable
+    private Object[] termCommandTask() {
+        int start = p;
+        Term x = term(true, true);
+        if (x != null) {
+            s();
+            if (at(p) == -1)
+                return (Object[]) NarseseParser.newTask(1f, ';', x, null, new long[]{ETERNAL, ETERNAL});
+        }
+        p = start;
+        return null;
+    }
+
+    @Nullable
+    private Object[] task() {
+        int start = p;
+
+        Float budget = null;
+        if (ch(BUDGET_VALUE_MARK)) {
+            budget = shortFloat();
+            ch(BUDGET_VALUE_MARK);
+        }
+
+        Term x = term(true, true);
+        if (x == null) {
+            p = start;
+            return null;
+        }
+        s();
+
+        int punc = at(p);
+        switch (punc) {
+            case '.':
+            case '?':
+            case '!':
+            case '@':
+            case ';':
+                p++;
+                break;
+            default:
+                p = start;
+                return null;
+        }
+        s();
+
+        Object occ = new long[]{ETERNAL, ETERNAL};
+        Object a = occurrence();
+        if (a != null) {
+            int end = p;
+            Object b;
+            if (str("..") && (b = occurrence()) != null) {
+                occ = new Object[]{a, b};
+            } else {
+                p = end;
+                occ = a;
+            }
+            s();
+        }
+
+        Object truth = truth();
+        if (truth != null)
+            s();
+
+        return (Object[]) NarseseParser.newTask(budget, (char) punc, x, truth, occ);
+    }
+
+    private float shortFloat() {
+        int start = p;
+        if (digit(at(p)))
+            p++;
+        decimals();
+        return Texts.f(p > start ? text(start) : "NaN", 0, 1.0f);
+    }
+
+    /** optional('.', oneOrMore(digit())) */
+    private void decimals() {
+        int dot = p;
+        if (ch('.') && digits() == 0)
+            p = dot;
+    }
+
+    /** a Truth, a frequency (Float), or null */
+    @Nullable
+    private Object truth() {
+        int start = p;
+        if (ch(TRUTH_VALUE_MARK)) {
+            float f = shortFloat();
+            int end = p;
+            if (ch(';')) {
+                float c = shortFloat();
+                ch(TRUTH_VALUE_MARK);
+                return PreciseTruth.byConf(f, c);
+            }
+            p = end;
+            if (ch(TRUTH_VALUE_MARK))
+                return f;
+        }
+        p = start;
+        return null;
+    }
+
+    /** a Tense, QuantityTerm, Integer, or null */
+    @Nullable
+    private Object occurrence() {
+        if (trie(PRESENT) != null)
+            return Tense.Present;
+
+        QuantityTerm q = timeUnit();
+        if (q != null)
+            return q;
+
+        return cycles();
+    }
+
+    /** '+' or '-' and digits */
+    @Nullable
+    private Integer cycles() {
+        int start = p;
+        int sign = at(p);
+        if (sign == '+' || sign == '-') {
+            p++;
+            int d = p;
+            if (digits() > 0) {
+                int x = Texts.i(text(d));
+                return sign == '-' ? -x : x;
+            }
+        }
+        p = start;
+        return null;
+    }
+
+    @Nullable
+    private QuantityTerm timeUnit() {
+        int start = p;
+        int sign = at(p);
+        if (sign == '+' || sign == '-') {
+            p++;
+            int n = p;
+            int c;
+            while ((c = at(p)) == '.' || digit(c))
+                p++;
+            if (p > n) {
+                String num = text(n);
+                int u = p;
+                while (alpha(at(p)))
+                    p++;
+                if (p > u) {
+                    return new QuantityTerm(
+                            AbstractQuantity.parse(
+                                    num + " " + NarseseParser.timeUnitize(text(u))
+                            ).multiply(sign == '-' ? -1 : +1));
+                }
+            }
+        }
+        p = start;
+        return null;
+    }
+
+    /** a QuantityTerm or Integer dt, or null */
+    @Nullable
+    private Object timeDelta() {
+        QuantityTerm q = timeUnit();
+        if (q != null)
+            return q;
+        if (str("+-"))
+            return XTERNAL;
+        return cycles();
+    }
+
+    /**
+     * Term(oper, temporal), or null
+     */
+    @Nullable
+    private Term term(boolean oper, boolean temporal) {
+        int start = p;
+        s();
+        Term y = _term(oper, temporal);
+        if (y == null) {
+            p = start;
+            return null;
+        }
+        s();
+        return y;
+    }
+
+    @Nullable
+    private Term _term(boolean oper, boolean temporal) {
+        Term y;
+        if ((y = quotedAtom()) != null) return y;
+        if ((y = uriAtom()) != null) return y;
+        if ((y = ellipsis()) != null) return y;
+        if ((y = set('{', SETe, SET_EXT_CLOSER)) != null) return y;
+        if ((y = set('[', SETi, SET_INT_CLOSER)) != null) return y;
+        if (oper && (y = function()) != null) return y;
+        if (temporal && (y = temporalRelation()) != null) return y;
+        if ((y = compound()) != null) return y;
+        if (oper && temporal) {
+            //the remaining alternatives are those of Term(false, false), which this has parsed
+            return colonReverseInheritance();
+        }
+        if ((y = numberAtom()) != null) return y;
+
+        String a = atomStr();
+        if (a != null)
+            return Atomic.the(a);
+
+        if ((y = variable()) != null) return y;
+        if ((y = neg()) != null) return y;
+        return oldStatement();
+    }
+
+    @Nullable
+    private Term quotedAtom() {
+        int start = p;
+        if (!ch('"'))
+            return null;
+
+        //""" ... """, greedy as NarseseParser's regex: to the last closing quotes in the input
+        if (at(p) == '"' && at(p + 1) == '"') {
+            while (read()) { }
+            for (int i = len - 3; i >= p + 3; i--) {
+                if (buf[i] == '"' && buf[i + 1] == '"' && buf[i + 2] == '"') {
+                    p = i + 3;
+                    return Atomic.the(text(start));
+                }
+            }
+        }
+
+        for (int i = p; ; ) {
+            int c = at(i);
+            if (c == -1)
+                break;
+            if (c == '"') {
+                p = i + 1;
+                return Atomic.the(text(start));
+            }
+            if (c == '\\') {
+                int e = at(i + 1);
+                if (e == -1 || e == '\n' || e == '\r' || e == '\u0085' || e == '\u2028' || e == '\u2029')
+                    break;
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+        p = start;
+        return null;
+    }
+
+    @Nullable
+    private Term uriAtom() {
+        int i = p;
+        int c;
+        while ((c = at(i)) >= 'a' && c <= 'z')
+            i++;
+        if (i == p || at(i) != ':' || at(i + 1) != '/' || at(i + 2) != '/')
+            return null;
+        i += 3;
+
+        //the longest run of URI chars, ending at the last which may end one
+        int end = -1;
+        for (; uriChar(c = at(i)); i++) {
+            if (c != '?' && c != '!' && c != ':' && c != ',' && c != '.' && c != ';')
+                end = i + 1;
+        }
+        if (end == -1)
+            return null;
+
+        int start = p;
+        p = end;
+        return $.quote(text(start));
+    }
+
+    private static boolean uriChar(int c) {
+        if (alpha(c) || digit(c))
+            return true;
+        switch (c) {
+            case '-':
+            case '+':
+            case '&':
+            case '@':
+            case '#':
+            case '/':
+            case '%':
+            case '?':
+            case '=':
+            case '~':
+            case '_':
+            case '|':
+            case '!':
+            case ':':
+            case ',':
+            case '.':
+            case ';':
+                return true;
+        }
+        return false;
+    }
+
+    @Nullable
+    private Term ellipsis() {
+        int start = p;
+        Term v = variable();
+        if (v instanceof Variable && str("..")) {
+            int c = at(p);
+            if (c == '+' || c == '*') {
+                p++;
+                return new Ellipsis.EllipsisPrototype(VAR_PATTERN, (Variable) v, c == '+' ? 1 : 0);
+            }
+        }
+        p = start;
+        return null;
+    }
+
+    @Nullable
+    private Term set(char open, Op op, char close) {
+        int start = p;
+        if (ch(open)) {
+            Term y = multiArgTerm(op, close, false, false);
+            if (y != null)
+                return y;
+        }
+        p = start;
+        return null;
+    }
+
+    @Nullable
+    private Term function() {
+        int start = p;
+        String f = atomStr();
+        if (f != null && ch(COMPOUND_TERM_OPENER)) {
+            s();
+            Term args = ch(COMPOUND_TERM_CLOSER) ? EmptyProduct :
+                    multiArgTerm(PROD, COMPOUND_TERM_CLOSER, false, false);
+            if (args != null)
+                return INH.the(args, $.the(f));
+        }
+        p = start;
+        return null;
+    }
+
+    @Nullable
+    private Term temporalRelation() {
+        int start = p;
+        if (ch(COMPOUND_TERM_OPENER)) {
+            s();
+            Term subj = term(true, true);
+            if (subj != null) {
+                s();
+                String o = trie(TEMPORAL_OPS);
+                Object dt;
+                if (o != null && (dt = timeDelta()) != null) {
+                    s();
+                    Term pred = term(true, true);
+                    if (pred != null) {
+                        s();
+                        if (ch(COMPOUND_TERM_CLOSER)) {
+                            Term y = NarseseParser.TemporalRelationBuilder(pred, dt, Op.the(o), subj);
+                            return y != null ? y : Null;
+                        }
+                    }
+                }
+            }
+        }
+        p = start;
+        return null;
+    }
+
+    @Nullable
+    private Term compound() {
+        int start = p;
+        if (ch(COMPOUND_TERM_OPENER)) {
+            s();
+            if (ch(COMPOUND_TERM_CLOSER))
+                return EmptyProduct;
+
+            Term y;
+            if ((y = compoundPrefix()) != null ||
+                    (y = compoundInfix()) != null ||
+                    (y = multiArgTerm(null, COMPOUND_TERM_CLOSER, true, false)) != null ||
+                    (y = multiArgTerm(null, COMPOUND_TERM_CLOSER, false, false)) != null)
+                return y;
+        }
+        p = start;
+        return null;
+    }
+
+    @Nullable
+    private Term compoundPrefix() {
+        int start = p;
+        String o = trie(PREFIX_OPS);
+        if (o != null) {
+            List<Term> subs = args(new FasterList<>(4));
+            if (!subs.isEmpty()) {
+                s();
+                if (ch(COMPOUND_TERM_CLOSER))
+                    return build(subs, o);
+            }
+        }
+        p = start;
+        return null;
+    }
+
+    @Nullable
+    private Term compoundInfix() {
+        int start = p;
+        Term a = term(true, true);
+        if (a != null) {
+            s();
+            String o = trie(INFIX_OPS);
+            if (o != null) {
+                s();
+                Term b = term(true, true);
+                if (b != null) {
+                    s();
+                    if (ch(COMPOUND_TERM_CLOSER))
+                        return build(new FasterList<>(new Term[]{a, b}), o);
+                }
+            }
+        }
+        p = start;
+        return null;
+    }
+
+    private static Term build(List<Term> subs, String op) {
+        return subs.contains(Null) ? Null : NarseseParser.buildCompound(subs, op);
+    }
+
+    /**
+     * list of terms, prefixed by an operator or with an infix operator
+     */
+    @Nullable
+    private Term multiArgTerm(@Nullable Op op, char close, boolean initialOp, boolean allowInternalOp) {
+        int start = p;
+        FasterList<Term> subs = new FasterList<>(4);
+
+        ok:
+        {
+            if (initialOp) {
+                Op o = op();
+                if (o == null)
+                    break ok;
+                op = o;
+            } else {
+                Term x = term(true, true);
+                if (x == null)
+                    break ok;
+                subs.add(x);
+            }
+
+            if (allowInternalOp) {
+                s();
+                Op o = op();
+                if (o == null)
+                    break ok;
+                op = o;
+                s();
+                Term x = term(true, true);
+                if (x == null)
+                    break ok;
+                subs.add(x);
+            } else {
+                args(subs);
+            }
+
+            s();
+            if (!ch(close))
+                break ok;
+
+            return subs.contains(Null) ? Null : (op != null ? op : PROD).the(subs);
+        }
+
+        p = start;
+        return null;
+    }
+
+    /** zeroOrMore(sepArgSep(), Term()) */
+    private List<Term> args(List<Term> subs) {
+        while (true) {
+            int start = p;
+            Term x;
+            if (sepArgSep() && (x = term(true, true)) != null) {
+                subs.add(x);
+            } else {
+                p = start;
+                return subs;
+            }
+        }
+    }
+
+    private boolean sepArgSep() {
+        int start = p;
+        s();
+        if (ch(ARGUMENT_SEPARATOR)) {
+            s();
+            return true;
+        }
+        p = start;
+        return ss();
+    }
+
+    @Nullable
+    private Op op() {
+        String o = trie(OPS);
+        return o != null ? Op.the(o) : null;
+    }
+
+    /**
+     * MACRO: y:x    becomes    <x --> y>
+     * <p>
+     * otherwise x, the term which the grappa parser would parse again by the alternatives which follow
+     */
+    @Nullable
+    private Term colonReverseInheritance() {
+        Term x = term(false, false);
+        if (x == null)
+            return null;
+        int end = p;
+        if (ch(':')) {
+            Term y = term(true, true);
+            if (y != null)
+                return INH.the(y, x);
+        }
+        p = end;
+        return x;
+    }
+
+    @Nullable
+    private Term numberAtom() {
+        int start = p;
+        ch('-');
+        if (digits() == 0) {
+            p = start;
+            return null;
+        }
+        decimals();
+        return $.the(Float.parseFloat(text(start)));
+    }
+
+    @Nullable
+    private String atomStr() {
+        int start = p;
+        int c;
+        while ((c = at(p)) != -1 && Atom.isValidAtomChar((char) c))
+            p++;
+        return p > start ? text(start) : null;
+    }
+
+    @Nullable
+    private Term variable() {
+        int c = at(p);
+        Op type;
+        switch (c) {
+            case '_':
+                p++;
+                return VarAuto;
+            case '\\':
+                p++;
+                return ImgInt;
+            case '/':
+                p++;
+                return ImgExt;
+            case '$':
+                type = VAR_INDEP;
+                break;
+            case '#':
+                type = VAR_DEP;
+                break;
+            case '?':
+                type = VAR_QUERY;
+                break;
+            case '%':
+                type = VAR_PATTERN;
+                break;
+            default:
+                return null;
+        }
+        int start = p++;
+        String name = atomStr();
+        if (name == null) {
+            p = start;
+            return null;
+        }
+        return $.v(type, name);
+    }
+
+    @Nullable
+    private Term neg() {
+        int start = p;
+        if (str(NEG.str)) {
+            Term x = term(true, true);
+            if (x != null)
+                return x.neg();
+        }
+        p = start;
+        return null;
+    }
+
+    @Nullable
+    private Term oldStatement() {
+        int start = p;
+        if (ch(OLD_STATEMENT_OPENER)) {
+            Term y = multiArgTerm(null, OLD_STATEMENT_CLOSER, false, true);
+            if (y != null)
+                return y;
+        }
+        p = start;
+        return null;
+    }
+}
@@ -64,6 +64,9 @@ public abstract class Param {
 
     public static final boolean DYNAMIC_TRUTH_STAMP_OVERLAP_FILTER = true;
 
+    /** capacity of each dynamic truth table's cache of recent results, by query; 0 to disable */
+    public static final int DYNAMIC_TRUTH_CACHE_CAPACITY = 4;
+
 
 
 
@@ -143,6 +146,24 @@ public abstract class Param {
     public static final boolean INVALID_DERIVATION_TRY_QUESTION = true;
 
 
+    /** compile deriver rule tries to generated bytecode (see BytecodePred) instead of interpreting the PREDICATE tree */
+    public static boolean DERIVER_BYTECODE = false;
+
+    /** count the bytes allocated by derivation (Emotion.deriveAllocBytes), measured per deriver iteration through ThreadMXBean */
+    public static boolean DERIVE_ALLOCATION_METER = false;
+
+    /** record each rule's invocations, TTL, time and yield of stored tasks (see RuleProfile) */
+    public static boolean DERIVE_PROFILE = false;
+
+    /** temporal belief tables publish a snapshot for lock-free reads (see CopyOnWriteRTreeBeliefTable) */
+    public static boolean TEMPORAL_TABLE_COPY_ON_WRITE = false;
+
+    /** temporal belief tables store tasks in primitive columns (see ColumnarBeliefTable) */
+    public static boolean TEMPORAL_TABLE_COLUMNAR = false;
+
+    /** derivation rules compiled after this is set answer two-premise truth functions from tables (see TabulatedTruth) */
+    public static boolean TRUTH_TABULATE = false;
+
     public static final boolean FILTER_SIMILAR_DERIVATIONS = true;
     public static final boolean DEBUG_SIMILAR_DERIVATIONS = false;
 
@@ -219,6 +240,12 @@ public abstract class Param {
     /** whether timegraph should not return solutions with volume significantly less than the input's */
     public static final boolean TIMEGRAPH_IGNORE_DEGENERATE_SOLUTIONS = false;
 
+    /** capacity of each deriver's memo of relative-time dt solutions, by premise shape; 0 to disable */
+    public static final int TIMEGRAPH_SOLVED_DT_CAPACITY = 1024;
+
+    /** solves answered by a memoized dt solution search before the premise is searched again */
+    public static final int TIMEGRAPH_SOLVED_DT_REUSE = 16;
+
 
 
 
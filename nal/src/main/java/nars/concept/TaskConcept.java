@@ -101,6 +101,33 @@ public class TaskConcept extends NodeConcept  {
         }
     }
 
+    /**
+     * process a batch of new tasks of this concept.
+     * the tasks of each punctuation are added to its table together
+     */
+    public void add(FasterList<Remember> r, NAR n) {
+        int s = r.size();
+        if (s == 1) {
+            add(r.get(0), n);
+            return;
+        }
+
+        r.sortThisByInt(x -> x.input.punc());
+        for (int i = 0; i < s; ) {
+            byte p = r.get(i).input.punc();
+            int j = i + 1;
+            while (j < s && r.get(j).input.punc() == p)
+                j++;
+
+            Remember[] group = new Remember[j - i];
+            for (int k = i; k < j; k++)
+                group[k - i] = r.get(k);
+            table(p).add(group, n);
+
+            i = j;
+        }
+    }
+
     public void value(Task t, NAR n) {
 
         n.emotion.perceive(t);
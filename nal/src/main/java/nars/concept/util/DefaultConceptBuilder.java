@@ -1,6 +1,7 @@
 package nars.concept.util;
 
 import nars.Op;
+import nars.Param;
 import nars.concept.Concept;
 import nars.concept.NodeConcept;
 import nars.link.TemplateTermLinker;
@@ -9,6 +10,8 @@ import nars.table.BeliefTables;
 import nars.table.eternal.EternalTable;
 import nars.table.question.HijackQuestionTable;
 import nars.table.question.QuestionTable;
+import nars.table.temporal.ColumnarBeliefTable;
+import nars.table.temporal.CopyOnWriteRTreeBeliefTable;
 import nars.table.temporal.RTreeBeliefTable;
 import nars.table.temporal.TemporalBeliefTable;
 import nars.term.Term;
@@ -67,7 +70,8 @@ public class DefaultConceptBuilder extends ConceptBuilder {
     @Override
     public TemporalBeliefTable newTemporalTable(Term c, boolean beliefOrGoal) {
         return //c.hasXternal() ?
-                new RTreeBeliefTable()
+                Param.TEMPORAL_TABLE_COLUMNAR ? new ColumnarBeliefTable() :
+                Param.TEMPORAL_TABLE_COPY_ON_WRITE ? new CopyOnWriteRTreeBeliefTable() : new RTreeBeliefTable()
                 //: new RTreeBeliefTable.EternalizingRTreeBeliefTable(beliefOrGoal)
         ;
     }
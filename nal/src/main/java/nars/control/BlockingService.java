@@ -0,0 +1,93 @@
+package nars.control;
+
+import nars.NAR;
+import nars.term.Term;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.function.Consumer;
+
+/**
+ * long-running service which may block (ex: I/O sensors and inputs).
+ * instead of being time-sliced by the executor's workers like a Causable,
+ * it runs on its own thread (virtual, if available) from Exec.executeBlocking
+ * so that any number of these can wait without starving the derivers.
+ * the thread is interrupted when the service stops.
+ */
+abstract public class BlockingService extends NARService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockingService.class);
+
+    private volatile Thread thread = null;
+    private volatile boolean alive = false;
+
+    protected BlockingService(NAR n) {
+        super((NAR)null); //dont call through super constructor
+        if (n!=null) {
+            (this.nar = n).on(this);
+        }
+    }
+
+    protected BlockingService(Term id) {
+        super(id);
+    }
+
+    /**
+     * simple convenient adapter, executing the procedure in a loop until stopped
+     */
+    public static BlockingService on(NAR nar, Consumer<NAR> r) {
+        return new BlockingService(nar) {
+            @Override
+            protected void run(NAR n) {
+                while (alive())
+                    r.accept(n);
+            }
+
+            @Override
+            public String toString() {
+                return r.toString();
+            }
+        };
+    }
+
+    /** the procedure; it should return when interrupted */
+    protected abstract void run(NAR n) throws Exception;
+
+    @Override
+    protected void starting(NAR nar) {
+        alive = true;
+        nar.runBlocking(() -> {
+            thread = Thread.currentThread();
+            if (!alive) {
+                thread = null;
+                return;
+            }
+            try {
+                run(nar);
+            } catch (InterruptedException e) {
+                //stopped
+            } catch (Throwable t) {
+                logger.error("{} {}", this, t);
+            } finally {
+                thread = null;
+            }
+        });
+    }
+
+    @Override
+    protected void stopping(NAR nar) {
+        alive = false;
+        Thread t = thread;
+        if (t != null)
+            t.interrupt();
+    }
+
+    /** whether the procedure should continue */
+    protected final boolean alive() {
+        return alive && !Thread.currentThread().isInterrupted();
+    }
+
+    public final boolean running() {
+        return thread != null;
+    }
+}
@@ -0,0 +1,96 @@
+package nars.control.batch;
+
+import jcog.data.list.FasterList;
+import nars.NAR;
+import nars.Task;
+import nars.concept.Concept;
+import nars.concept.TaskConcept;
+import nars.control.op.Remember;
+import nars.eval.Evaluation;
+import nars.task.ActiveQuestionTask;
+import nars.task.ITask;
+import nars.task.NALTask;
+import nars.term.Term;
+
+import java.util.LinkedHashMap;
+
+import static nars.Op.COMMAND;
+import static nars.Op.GOAL;
+
+/**
+ * inputs an array of tasks grouped by concept.
+ * each concept is resolved once, and each of its tables receives its group of tasks
+ * in one operation (ex: one write lock of a temporal belief table) before the
+ * remembered tasks are linked and announced.
+ * <p>
+ * tasks which perceive into other tasks (evaluable terms, commands, operation goals)
+ * are input individually, as by NAR.input(ITask), so may be processed before the rest of the batch.
+ */
+public final class TaskInputBatch {
+
+    private TaskInputBatch() {
+
+    }
+
+    public static void input(Task[] x, NAR n) {
+        //in order of first appearance
+        LinkedHashMap<Term, FasterList<Task>> concepts = null;
+        for (Task t : x) {
+            if (t == null)
+                continue;
+
+            if (batchable(t)) {
+                if (concepts == null)
+                    concepts = new LinkedHashMap<>(x.length);
+                concepts.computeIfAbsent(t.term().concept(), k -> new FasterList<>(1)).add(t);
+            } else {
+                n.input(t);
+            }
+        }
+
+        if (concepts != null) {
+            for (FasterList<Task> c : concepts.values())
+                input(c, n);
+        }
+    }
+
+    /** whether the task's perception is only its remembering */
+    private static boolean batchable(Task t) {
+        if (!(t instanceof NALTask) || t instanceof ActiveQuestionTask)
+            return false;
+        byte p = t.punc();
+        return p != COMMAND && !(p == GOAL && !t.isEternal()) && !Evaluation.canEval(t.term());
+    }
+
+    private static void input(FasterList<Task> tasks, NAR n) {
+        Concept c = n.conceptualize(tasks.get(0));
+        if (!(c instanceof TaskConcept)) {
+            //report each as the individual input would
+            tasks.forEach(n::input);
+            return;
+        }
+
+        TaskConcept tc = (TaskConcept) c;
+        FasterList<Remember> r = new FasterList<>(tasks.size());
+        for (Task t : tasks) {
+            try {
+                if (Remember.valid(t, n))
+                    r.add(new Remember(t, tc));
+            } catch (Throwable e) {
+                ITask.error(t, t, e, n);
+            }
+        }
+        if (r.isEmpty())
+            return;
+
+        tc.add(r, n);
+
+        for (Remember x : r) {
+            try {
+                x.commit(n);
+            } catch (Throwable e) {
+                ITask.error(x, x, e, n);
+            }
+        }
+    }
+}
@@ -8,6 +8,7 @@ import nars.Task;
 import nars.concept.Concept;
 import nars.concept.TaskConcept;
 import nars.control.CauseMerge;
+import nars.derive.premise.RuleProfile;
 import nars.op.stm.ConjClustering;
 import nars.task.AbstractTask;
 import nars.task.ITask;
@@ -42,6 +43,34 @@ public class Remember extends AbstractTask {
     @Nullable
     public static Remember the(Task input, NAR n) {
 
+        if (!valid(input, n))
+            return null;
+
+        Concept c = n.conceptualize(input);
+        if (c != null) {
+            if (!(c instanceof TaskConcept)) {
+                if (Param.DEBUG || input.isInput())
+                    throw new TaskException(input, c + " is not a TaskConcept: " + c.getClass());
+                else
+                    return null;
+            }
+
+            return new Remember(input, (TaskConcept) c);
+        } else {
+            if (Param.DEBUG) {
+                if (input.isInput())
+                    throw new TaskException(input, "not conceptualized");
+            }
+            return null;
+        }
+    }
+
+    /**
+     * tests whether a task may be remembered, independently of its concept.
+     * may throw TaskException for invalid input
+     */
+    public static boolean valid(Task input, NAR n) {
+
         assert (!input.isCommand());
 
         assert (input.op().taskable);
@@ -58,7 +87,7 @@ public class Remember extends AbstractTask {
             if (Param.DEBUG)
                 throw new TaskException(input, "insufficient evidence for non-input Task");
             else
-                return null;
+                return false;
         }
 
 
@@ -102,24 +131,7 @@ public class Remember extends AbstractTask {
             }
         }
 
-
-        Concept c = n.conceptualize(input);
-        if (c != null) {
-            if (!(c instanceof TaskConcept)) {
-                if (Param.DEBUG || isInput)
-                    throw new TaskException(input, c + " is not a TaskConcept: " + c.getClass());
-                else
-                    return null;
-            }
-
-            return new Remember(input, (TaskConcept) c);
-        } else {
-            if (Param.DEBUG) {
-                if (isInput)
-                    throw new TaskException(input, "not conceptualized");
-            }
-            return null;
-        }
+        return true;
     }
 
     public Remember(Task input, TaskConcept c) {
@@ -147,13 +159,16 @@ public class Remember extends AbstractTask {
 
         add(n);
 
-        if (remembered != null && !remembered.isEmpty())
-            commit(n);
+        commit(n);
 
         return null;
     }
 
-    private void commit(NAR n) {
+    /** links and announces the tasks remembered by the insertion */
+    public void commit(NAR n) {
+        if (remembered == null || remembered.isEmpty())
+            return;
+
         Term conceptTerm = concept != null ? concept.term() : null;
 
         for (ITask r : remembered) {
@@ -170,6 +185,9 @@ public class Remember extends AbstractTask {
     private void commit(NAR n, Term conceptTerm, Task r) {
         Task rr = r;
 
+        if (Param.DERIVE_PROFILE)
+            RuleProfile.stored(rr, n);
+
         if (tasklink()) {
             Concept c = conceptTerm != null && conceptTerm.equals(rr.term().concept()) ? concept : null;
             TaskLinkTask t = tasklink(rr, c);
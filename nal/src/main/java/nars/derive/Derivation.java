@@ -56,6 +56,11 @@ import static nars.truth.func.TruthFunctions.c2wSafe;
 
 /**
  * evaluates a premise (task, belief, termlink, taskLink, ...) to derive 0 or more new tasks
+ * <p>
+ * one per deriver thread, so per-premise working state (ex: the action weights, see scratchWeights(),
+ * and the occurrence solver's graph) is reused rather than reallocated.  the conclusion terms, truths
+ * and occurrence ranges still allocate: they become part of the derived task.
+ * Param.DERIVE_ALLOCATION_METER measures the bytes allocated per derived task.
  */
 public class Derivation extends PreDerivation {
 
@@ -223,7 +228,11 @@ public class Derivation extends PreDerivation {
     public transient float priSingle, priDouble;
 
 
-    public transient short[] parentCause;
+    private transient short[] parentCause;
+
+    /** per-thread scratch arrays, by length; see scratchWeights() */
+    private float[][] scratchWeights = new float[0][];
+    private short[][] scratchChoices = new short[0][];
     public transient boolean concSingle;
     public transient float parentVoluplexitySum;
 
@@ -468,14 +477,7 @@ public class Derivation extends PreDerivation {
 //            }
 //        }
 
-        int causeCap = Param.causeCapacity.intValue();
-        this.parentCause =
-            CauseMerge.limit(
-                _belief != null ?
-                    CauseMerge.Append.merge(causeCap -1 /* for channel to be appended */, _task, _belief) :
-                    _task.cause(), causeCap-1);
-        if (parentCause.length >= causeCap)
-            throw new WTF();
+        this.parentCause = null; //computed on demand, most premises derive nothing
 
 
 
@@ -688,6 +690,47 @@ public class Derivation extends PreDerivation {
 //        return concSingle ? taskEvi : (taskEvi + beliefEvi);
 //    }
 
+    /** merged causes of the task and belief, leaving room for the conclusion's channel */
+    public short[] parentCause() {
+        short[] c = this.parentCause;
+        if (c == null) {
+            int causeCap = Param.causeCapacity.intValue();
+            this.parentCause = c =
+                CauseMerge.limit(
+                    _belief != null ?
+                        CauseMerge.Append.merge(causeCap -1 /* for channel to be appended */, _task, _belief) :
+                        _task.cause(), causeCap-1);
+            if (c.length >= causeCap)
+                throw new WTF();
+        }
+        return c;
+    }
+
+    /**
+     * reusable array of the given length, so that per-premise weighting does not allocate.
+     * only valid until the next call with the same length
+     */
+    public float[] scratchWeights(int n) {
+        float[][] s = this.scratchWeights;
+        if (s.length <= n)
+            this.scratchWeights = s = Arrays.copyOf(s, n + 1);
+        float[] w = s[n];
+        if (w == null)
+            s[n] = w = new float[n];
+        return w;
+    }
+
+    /** see scratchWeights */
+    public short[] scratchChoices(int n) {
+        short[][] s = this.scratchChoices;
+        if (s.length <= n)
+            this.scratchChoices = s = Arrays.copyOf(s, n + 1);
+        short[] c = s[n];
+        if (c == null)
+            s[n] = c = new short[n];
+        return c;
+    }
+
     public final float parentPri() {
         return (concSingle ? priSingle : priDouble);
     }
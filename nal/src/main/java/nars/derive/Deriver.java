@@ -2,6 +2,7 @@ package nars.derive;
 
 import jcog.Util;
 import jcog.math.IntRange;
+import jcog.signal.meter.resource.ThreadAllocationTracker;
 import nars.$;
 import nars.NAR;
 import nars.Param;
@@ -106,7 +107,17 @@ abstract public class Deriver extends Causable {
     protected final void next(NAR n, final BooleanSupplier kontinue) {
 
 
-        derive(Derivation.derivation.get().next(this), kontinue);
+        Derivation d = Derivation.derivation.get().next(this);
+
+        if (Param.DERIVE_ALLOCATION_METER && ThreadAllocationTracker.supported()) {
+            long before = ThreadAllocationTracker.allocated();
+
+            derive(d, kontinue);
+
+            n.emotion.deriveAllocBytes.increment(ThreadAllocationTracker.allocated() - before);
+        } else {
+            derive(d, kontinue);
+        }
 
     }
 
@@ -16,6 +16,7 @@ import nars.derive.premise.PremiseRuleProto;
 import nars.index.concept.AbstractConceptIndex;
 import nars.link.Activate;
 import nars.link.TaskLink;
+import nars.link.TaskLinkIndex;
 import nars.link.TermLinker;
 import nars.term.Compound;
 import nars.term.Term;
@@ -158,14 +159,20 @@ public class BatchDeriver extends Deriver {
         //heuristic
         match.setCapacity(Util.clamp(tasklinks.size()/2, 1, match.capacityMax()));
 
-        tasklinks.forEach((x)->{
+        Consumer<TaskLink> each = (x)->{
             float xp = x.priElseZero();
             if (xp > match.minValueIfFull()) {
                 Term bb = atomTangent(tt, src, x);
                 if (bb != null)
                     match.add(x);
             }
-        });
+        };
+
+        TaskLinkIndex index = TaskLinkIndex.of(tasklinks);
+        if (index != null)
+            index.forEachSource(src, each); //only the links from src
+        else
+            tasklinks.forEach(each);
 
         if (!match.isEmpty()) {
             Term y = match.getRoulette(d.random).target();
@@ -1,5 +1,6 @@
 package nars.derive.op;
 
+import jcog.Util;
 import jcog.WTF;
 import jcog.data.bit.MetalBitSet;
 import jcog.data.set.ArrayHashSet;
@@ -249,8 +250,17 @@ public class Occurrify extends TimeGraph {
     private boolean decomposeEvents;
     int patternVolume;
 
+    /** the prepared premise */
+    private Term taskTerm, beliefTerm;
+    private long taskStart, taskEnd, beliefStart, beliefEnd;
+
+    /** memoized DT solutions, or null if disabled */
+    @Nullable private final SolutionMemo<SolvedDT> solvedDT;
+
     public Occurrify(Derivation d) {
         this.d = d;
+        this.solvedDT = Param.TIMEGRAPH_SOLVED_DT_CAPACITY > 0 ?
+                new SolutionMemo<>(Param.TIMEGRAPH_SOLVED_DT_CAPACITY, Param.TIMEGRAPH_SOLVED_DT_REUSE) : null;
     }
 
 
@@ -311,12 +321,16 @@ public class Occurrify extends TimeGraph {
 
 
     private Occurrify reset(boolean taskOccurrence, boolean beliefOccurrence, Term pattern, boolean decomposeEvents) {
+        prepare(taskOccurrence, beliefOccurrence, decomposeEvents);
+        return build(pattern);
+    }
+
+    /** determines the occurrences and terms of the premise's events */
+    private void prepare(boolean taskOccurrence, boolean beliefOccurrence, boolean decomposeEvents) {
 
         if (d.concSingle)
             beliefOccurrence = false;
 
-        clear();
-
         long taskStart = taskOccurrence ? d.taskStart : TIMELESS,
                 taskEnd = taskOccurrence ? d.taskEnd : TIMELESS,
                 beliefStart = beliefOccurrence ? d.beliefStart : TIMELESS,
@@ -331,14 +345,24 @@ public class Occurrify extends TimeGraph {
 //            taskStart = beliefStart; taskEnd = beliefEnd;
 //        }
 
+        this.taskStart = taskStart; this.taskEnd = taskEnd;
+        this.beliefStart = beliefStart; this.beliefEnd = beliefEnd;
+
         this.decomposeEvents = decomposeEvents;
 
-        final Term taskTerm = d.retransform(d.taskTerm);
-        Term beliefTerm;
+        this.taskTerm = d.retransform(d.taskTerm);
         if (d.beliefTerm.equals(d.taskTerm))
-            beliefTerm = taskTerm;
+            this.beliefTerm = taskTerm;
         else
-            beliefTerm = d.retransform(d.beliefTerm);
+            this.beliefTerm = d.retransform(d.beliefTerm);
+    }
+
+    /** refills the graph with the prepared premise */
+    private Occurrify build(Term pattern) {
+
+        clear();
+
+        Term taskTerm = this.taskTerm, beliefTerm = this.beliefTerm;
 
         //auto-neg first
         if (taskTerm.hasAny(NEG) || beliefTerm.hasAny(NEG) || pattern.hasAny(NEG)) {
@@ -367,6 +391,63 @@ public class Occurrify extends TimeGraph {
         return this;
     }
 
+    /**
+     * solves the XTERNAL dt's of a pattern.  when the premise's events have no absolute
+     * occurrence (only relative or eternal), the solutions depend only on the terms, so
+     * they are memoized by the premise's shape and later solves choose among them
+     * without rebuilding the graph, until the memo searches again (see SolutionMemo).
+     */
+    private Term solveDT(Term pattern, boolean taskOccurrence, boolean beliefOccurrence, boolean decomposeEvents) {
+        prepare(taskOccurrence, beliefOccurrence, decomposeEvents);
+
+        if (solvedDT == null || !timeless(taskStart) || !timeless(beliefStart))
+            return solveDT(pattern, build(pattern).solutions(pattern));
+
+        SolvedDT key = new SolvedDT(pattern, taskTerm, beliefTerm,
+                (taskStart == ETERNAL ? 1 : 0) | (beliefStart == ETERNAL ? 2 : 0) | (decomposeEvents ? 4 : 0),
+                d.ditherTime);
+        Term solved = solvedDT.get(key, () -> {
+            ArrayHashSet<Event> solutions = build(pattern).solutions(pattern);
+            int ss = filterSolutions(solutions);
+            Term[] s = new Term[ss];
+            for (int i = 0; i < ss; i++)
+                s[i] = solutions.get(i).id;
+            return s;
+        }, random());
+        return solved != null ? solved : pattern;
+    }
+
+    private static boolean timeless(long start) {
+        return start == TIMELESS || start == ETERNAL;
+    }
+
+    /** key of a memoized DT solution: the pattern, the premise's event terms, and their kinds of occurrence */
+    private static final class SolvedDT {
+        final Term pattern, task, belief;
+        final int flags, dither;
+        final int hash;
+
+        SolvedDT(Term pattern, Term task, Term belief, int flags, int dither) {
+            this.pattern = pattern; this.task = task; this.belief = belief;
+            this.flags = flags; this.dither = dither;
+            this.hash = Util.hashCombine(Util.hashCombine(pattern.hashCode(), task.hashCode(), belief.hashCode()), flags, dither);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof SolvedDT)) return false;
+            SolvedDT k = (SolvedDT) o;
+            return hash == k.hash && flags == k.flags && dither == k.dither &&
+                    pattern.equals(k.pattern) && task.equals(k.task) && belief.equals(k.belief);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
 //    private void retransform(Event e) {
 //        Term t = e.id;
 //        Term u = d.retransform(t);
@@ -1238,7 +1319,7 @@ public class Occurrify extends TimeGraph {
             long[] occ = occurrence(d);
             //assert (occ != null);
             return occ == null ? null : pair(
-                    x.hasXternal() ? d.occ.solveDT(x, d.occ.reset(taskOcc, beliefOcc, x, decomposeEvents).solutions(x)) : x,
+                    x.hasXternal() ? d.occ.solveDT(x, taskOcc, beliefOcc, decomposeEvents) : x,
                     occ);
         }
 
@@ -0,0 +1,54 @@
+package nars.derive.op;
+
+import jcog.data.map.MRUMap;
+import nars.term.Term;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * most-recently-used memo of the solutions of a search, among which each lookup chooses at random.
+ * <p>
+ * the search (ex: TimeGraph's) is randomized and finds a sample of the solutions, so a memoized
+ * sample is reused for a bounded number of lookups and then searched again.  the choices then
+ * follow the distribution of searching every time, rather than that of whichever sample was first.
+ * not thread-safe; one per deriver.
+ */
+final class SolutionMemo<K> {
+
+    private final MRUMap<K, Solutions> memo;
+    private final int reuse;
+
+    private static final class Solutions {
+        final Term[] terms;
+        int uses;
+
+        Solutions(Term[] terms) {
+            this.terms = terms;
+        }
+    }
+
+    /** @param reuse lookups answered by a search's solutions, including the first */
+    SolutionMemo(int capacity, int reuse) {
+        if (reuse < 1)
+            throw new IllegalArgumentException("reuse must be positive");
+        this.memo = new MRUMap<>(capacity);
+        this.reuse = reuse;
+    }
+
+    /** one of the solutions, or null if there are none */
+    @Nullable Term get(K key, Supplier<Term[]> search, Random rng) {
+        Solutions s = memo.get(key);
+        if (s == null || s.uses >= reuse)
+            memo.put(key, s = new Solutions(search.get()));
+        s.uses++;
+
+        Term[] t = s.terms;
+        switch (t.length) {
+            case 0: return null;
+            case 1: return t[0];
+            default: return t[rng.nextInt(t.length)];
+        }
+    }
+}
@@ -159,7 +159,7 @@ public class Taskify extends AbstractPred<Derivation> {
         }
 
         //these must be applied before possible merge on input to derivedTask bag
-        t.cause(ArrayUtils.add(d.parentCause, channel.id) );
+        t.cause(ArrayUtils.add(d.parentCause(), channel.id) );
 
         if ((d.concSingle) || (Param.OVERLAP_DOUBLE_SET_CYCLIC && d.overlapDouble))
             t.setCyclic(true);
@@ -179,6 +179,8 @@ public class Taskify extends AbstractPred<Derivation> {
 
             d.use(Param.TTL_DERIVE_TASK_SUCCESS);
             d.nar.emotion.deriveTask.increment();
+            if (Param.DERIVE_PROFILE)
+                channel.profile.derive();
 
         }
 
@@ -3,6 +3,7 @@ package nars.derive.op;
 import jcog.data.list.FasterList;
 import nars.$;
 import nars.Op;
+import nars.Param;
 import nars.derive.Derivation;
 import nars.derive.op.Occurrify.BeliefProjection;
 import nars.term.Term;
@@ -10,6 +11,7 @@ import nars.term.atom.Atomic;
 import nars.term.control.AbstractPred;
 import nars.term.control.PREDICATE;
 import nars.truth.Truth;
+import nars.truth.func.TabulatedTruth;
 import nars.truth.func.TruthFunc;
 import org.eclipse.collections.api.block.function.primitive.ByteToByteFunction;
 
@@ -50,6 +52,10 @@ public class Truthify extends AbstractPred<Derivation> {
         this.punc = punc;
         this.timeFilter = time.filter();
         this.beliefProjection = time.beliefProjection();
+        if (Param.TRUTH_TABULATE) {
+            belief = TabulatedTruth.the(belief);
+            goal = TabulatedTruth.the(goal);
+        }
         this.belief = belief;
         if (belief != null) {
             beliefMode = (byte) (belief.single() ? +1 : 0);
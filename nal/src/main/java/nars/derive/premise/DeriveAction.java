@@ -1,15 +1,15 @@
 package nars.derive.premise;
 
 import jcog.pri.ScalarValue;
-import nars.control.Cause;
 import nars.derive.Derivation;
 import nars.derive.op.Truthify;
 import nars.term.control.AND;
+import nars.term.control.BytecodePred;
 import nars.term.control.PREDICATE;
 
 final class DeriveAction  /*implements ThrottledAction<Derivation>*/ {
 
-    public final Cause cause;
+    public final PremiseRuleProto.RuleCause cause;
     private final Truthify truth;
     public final PREDICATE<Derivation> run;
 
@@ -31,6 +31,10 @@ final class DeriveAction  /*implements ThrottledAction<Derivation>*/ {
     }
 
 
+    DeriveAction bytecode() {
+        return new DeriveAction(BytecodePred.compile(run), cause, truth);
+    }
+
 //    @Override
 //    public boolean test(Derivation d, float power) {
 //        //d.use(power) //d's own powerToTTL function, temporarily subtract TTL for the fork
@@ -1,11 +1,12 @@
 package nars.derive.premise;
 
 import jcog.Util;
-import jcog.data.bit.MetalBitSet;
 import jcog.decide.MutableRoulette;
 import jcog.memoize.Memoizers;
+import nars.Param;
 import nars.control.Cause;
 import nars.derive.Derivation;
+import nars.term.control.BytecodePred;
 import nars.term.control.PREDICATE;
 
 import java.io.PrintStream;
@@ -35,6 +36,9 @@ public class DeriverRules {
      */
     private final DeriveAction[] could;
 
+    /** the bytecode-compiled equivalent, once compiled */
+    private volatile DeriverRules bytecode = null;
+
 
     public DeriverRules(PREDICATE<Derivation> what, DeriveAction[] actions) {
 
@@ -54,6 +58,29 @@ public class DeriverRules {
         this.whats = Memoizers.the.memoizeByte(this + "_what", 128 * 1024, this::can);
     }
 
+    /**
+     * equivalent rules with the trie and each action compiled to bytecode;
+     * compiled once, and shared by the derivers of the (memoized) rules
+     */
+    public DeriverRules bytecode() {
+        if (what instanceof BytecodePred)
+            return this;
+
+        DeriverRules b = bytecode;
+        if (b == null) {
+            synchronized (this) {
+                if ((b = bytecode) == null) {
+                    DeriveAction[] c = new DeriveAction[could.length];
+                    for (int i = 0; i < c.length; i++)
+                        c[i] = could[i].bytecode();
+
+                    bytecode = b = new DeriverRules(BytecodePred.compile(what), c);
+                }
+            }
+        }
+        return b;
+    }
+
     private short[] can(PremiseKey k) {
 
         Derivation derivation  = k.derivation;
@@ -71,7 +98,15 @@ public class DeriverRules {
      * choice id to branch id mapping
      */
     private boolean test(Derivation d, int branch) {
-        could[branch].run.test(d);
+        DeriveAction a = could[branch];
+        if (Param.DERIVE_PROFILE) {
+            int ttl = d.ttl;
+            long start = System.nanoTime();
+            a.run.test(d);
+            a.cause.profile.invoked(ttl - d.ttl, System.nanoTime() - start);
+        } else {
+            a.run.test(d);
+        }
         return d.use(1); //return d.revertLive(0, 1);
     }
 
@@ -89,39 +124,29 @@ public class DeriverRules {
 
         if (could.length > 1) {
 
-            float[] f = Util.map(choice -> this.could[could[choice]].value(d), new float[could.length]);
-            int n = f.length;
-
-            MetalBitSet toRemove = null;
+            int n = could.length;
+            float[] f = d.scratchWeights(n);
+            int removed = 0;
             for (int i = 0; i < n; i++) {
-                if (f[i] <= 0) {
-                    if (toRemove == null) toRemove = MetalBitSet.bits(n);
-                    toRemove.set(i);
-                }
+                if ((f[i] = this.could[could[i]].value(d)) <= 0)
+                    removed++;
             }
 
-            if (toRemove == null) {
+            if (removed == 0) {
                 maybeWhat = could; //no change
-                maybeHow = maybeWhat.length > 1 ? f : null /* not necessary */;
-
+                maybeHow = f;
+            } else if (removed == n) {
+                return; //all removed; nothing remains
             } else {
-                int r = toRemove.cardinality();
-                if (r == n) {
-                    return; //all removed; nothing remains
-                } /*else if (r == n-1) {
-                    //TODO all but one
-                } */ else {
-                    int fanOut = n - r;
-
-                    maybeHow = new float[fanOut];
-                    maybeWhat = new short[fanOut];
-                    int xx = 0;
-                    int i;
-                    for (i = 0; i < n; i++) {
-                        if (!toRemove.get(i)) {
-                            maybeHow[xx] = f[i];
-                            maybeWhat[xx++] = could[i];
-                        }
+                int fanOut = n - removed;
+
+                maybeHow = d.scratchWeights(fanOut);
+                maybeWhat = d.scratchChoices(fanOut);
+                int xx = 0;
+                for (int i = 0; i < n; i++) {
+                    if (!(f[i] <= 0)) {
+                        maybeHow[xx] = f[i];
+                        maybeWhat[xx++] = could[i];
                     }
                 }
             }
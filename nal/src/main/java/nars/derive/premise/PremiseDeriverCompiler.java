@@ -5,12 +5,14 @@ import jcog.data.list.FasterList;
 import jcog.memoize.Memoizers;
 import jcog.tree.perfect.TrieNode;
 import nars.Op;
+import nars.Param;
 import nars.derive.Derivation;
 import nars.derive.op.Branchify;
 import nars.derive.op.UnifyTerm;
 import nars.subterm.Subterms;
 import nars.term.Term;
 import nars.term.control.AND;
+import nars.term.control.BytecodePred;
 import nars.term.control.FORK;
 import nars.term.control.PREDICATE;
 import nars.term.control.SWITCH;
@@ -36,7 +38,13 @@ public enum PremiseDeriverCompiler {
 
 
     public static DeriverRules the(Set<PremiseRuleProto> r) {
-        return the.apply(r);
+        return the(r, Param.DERIVER_BYTECODE);
+    }
+
+    /** @param bytecode whether to compile the rule trie to generated bytecode, or interpret it */
+    public static DeriverRules the(Set<PremiseRuleProto> r, boolean bytecode) {
+        DeriverRules d = the.apply(r);
+        return bytecode ? d.bytecode() : d;
     }
 
     private static final Function<Set<PremiseRuleProto>, DeriverRules> the = Memoizers.the.memoize(PremiseDeriverCompiler.class.getSimpleName(), 64, PremiseDeriverCompiler::_the);
@@ -89,6 +97,11 @@ public enum PremiseDeriverCompiler {
 
     public static void print(Object p, PrintStream out, int indent) {
 
+        if (p instanceof BytecodePred) {
+            print(((BytecodePred) p).source, out, indent);
+            return;
+        }
+
         TermTrie.indent(indent);
 
         if (p instanceof DeriverRules) {
@@ -118,6 +118,9 @@ public class PremiseRuleProto extends PremiseRuleSource {
         public final PremiseRuleSource rule;
         public final String ruleString;
 
+        /** recorded while Param.DERIVE_PROFILE is enabled */
+        public final RuleProfile profile = new RuleProfile();
+
         RuleCause(PremiseRuleSource rule, short id) {
             super(id);
             this.rule = rule;
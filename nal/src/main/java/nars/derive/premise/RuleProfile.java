@@ -0,0 +1,116 @@
+package nars.derive.premise;
+
+import jcog.Texts;
+import nars.NAR;
+import nars.Task;
+import nars.control.Cause;
+import nars.task.DerivedTask;
+
+import java.io.PrintStream;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * cost and yield of a derivation rule, recorded while Param.DERIVE_PROFILE is enabled:
+ * its invocations (the rule's conclusion procedure, after the trie has matched the premise),
+ * the unification TTL and time they spent, the tasks they derived, and how many of those
+ * were stored by a belief or question table.
+ */
+public final class RuleProfile {
+
+    private final LongAdder invocations = new LongAdder(), ttl = new LongAdder(), nanos = new LongAdder(),
+            derived = new LongAdder(), stored = new LongAdder();
+
+    void invoked(int ttlUsed, long ns) {
+        invocations.increment();
+        ttl.add(ttlUsed);
+        nanos.add(ns);
+    }
+
+    /** called by Taskify for each new task derived by the rule */
+    public void derive() {
+        derived.increment();
+    }
+
+    /** credits the rule which derived a task when it is stored */
+    public static void stored(Task t, NAR n) {
+        if (!(t instanceof DerivedTask))
+            return;
+        short[] c = t.cause();
+        if (c.length == 0)
+            return;
+        //the deriving rule's cause is appended after its parents'
+        Cause r = n.causes.get(c[c.length - 1]);
+        if (r instanceof PremiseRuleProto.RuleCause)
+            ((PremiseRuleProto.RuleCause) r).profile.stored.increment();
+    }
+
+    public long invocations() {
+        return invocations.sum();
+    }
+
+    public long ttl() {
+        return ttl.sum();
+    }
+
+    public long nanos() {
+        return nanos.sum();
+    }
+
+    public long derived() {
+        return derived.sum();
+    }
+
+    public long stored() {
+        return stored.sum();
+    }
+
+    /** stored tasks per millisecond spent, 0 if not invoked */
+    public double yield() {
+        long ns = nanos();
+        return ns > 0 ? stored() / (ns / 1.0e6) : 0;
+    }
+
+    public void reset() {
+        invocations.reset();
+        ttl.reset();
+        nanos.reset();
+        derived.reset();
+        stored.reset();
+    }
+
+    /** the rules of the NAR's derivers which have been invoked, by decreasing time spent */
+    public static List<PremiseRuleProto.RuleCause> rules(NAR n) {
+        return n.causes.stream()
+                .filter(c -> c instanceof PremiseRuleProto.RuleCause)
+                .map(c -> (PremiseRuleProto.RuleCause) c)
+                .filter(c -> c.profile.invocations() > 0)
+                .sorted(Comparator.comparingLong((PremiseRuleProto.RuleCause c) -> c.profile.nanos()).reversed())
+                .collect(Collectors.toList());
+    }
+
+    public static void reset(NAR n) {
+        n.causes.forEach(c -> {
+            if (c instanceof PremiseRuleProto.RuleCause)
+                ((PremiseRuleProto.RuleCause) c).profile.reset();
+        });
+    }
+
+    /** prints the profile of each invoked rule, by decreasing time spent */
+    public static void print(NAR n, PrintStream out) {
+        out.println("invocations\tttl\tms\tderived\tstored\tstored/ms\trule");
+        for (PremiseRuleProto.RuleCause c : rules(n)) {
+            RuleProfile p = c.profile;
+            out.println(p.invocations() + "\t" + p.ttl() + "\t" + Texts.n2(p.nanos() / 1.0e6) + "\t" +
+                    p.derived() + "\t" + p.stored() + "\t" + Texts.n2(p.yield()) + "\t" + c.ruleString);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "invocations=" + invocations() + " ttl=" + ttl() + " ns=" + nanos() +
+                " derived=" + derived() + " stored=" + stored();
+    }
+}
@@ -8,6 +8,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -19,6 +22,8 @@ abstract public class Exec extends ConsumerX<ITask> implements Executor {
 
     protected NAR nar;
 
+    private volatile boolean running;
+
     public void input(Object t) {
         executeNow(t);
     }
@@ -28,11 +33,44 @@ abstract public class Exec extends ConsumerX<ITask> implements Executor {
         ITask.run(t, nar);
     }
 
+    /** executor for blocking work; created on demand */
+    private volatile ExecutorService blocking = null;
+
     abstract public void input(Consumer<NAR> r);
 
     @Override
     abstract public void execute(Runnable async);
 
+    /**
+     * executes work which may block (I/O input, long-running services) on its own thread
+     * so that it does not occupy a (possibly pinned) worker needed for derivation.
+     * virtual threads are used when the runtime supports them.
+     */
+    public void executeBlocking(Runnable r) {
+        ExecutorService b = blocking;
+        if (b == null) {
+            synchronized (this) {
+                if ((b = blocking) == null)
+                    blocking = b = blockingExecutor();
+            }
+        }
+        b.execute(r);
+    }
+
+    /** thread-per-task; virtual threads (JDK 21+) otherwise an elastic pool of daemon threads */
+    private static ExecutorService blockingExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger serial = new AtomicInteger();
+            return Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "blocking_" + serial.getAndIncrement());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
 
     /**
      * inline, synchronous
@@ -58,15 +96,32 @@ abstract public class Exec extends ConsumerX<ITask> implements Executor {
 
     public void start(NAR nar) {
         this.nar = nar;
+        running = true;
     }
 
 
     public void stop() {
 
+        running = false;
+
+        ExecutorService b = blocking;
+        if (b != null) {
+            blocking = null;
+            b.shutdownNow(); //interrupts blocked threads
+        }
+
         //this.nar = null;
     }
 
 
+    /**
+     * true between start() and stop(); input queued by a stopped executor is not executed
+     * until it is started again
+     */
+    public final boolean running() {
+        return running;
+    }
+
     /**
      * true if this executioner executes procedures concurrently.
      * in subclasses, if this is true but concurrency()==1, it will use
@@ -4,6 +4,7 @@ import com.google.common.base.Joiner;
 import jcog.Texts;
 import jcog.Util;
 import jcog.data.list.FasterList;
+import jcog.data.list.MetalConcurrentQueue;
 import jcog.event.Off;
 import jcog.exe.AffinityExecutor;
 import jcog.exe.Exe;
@@ -18,8 +19,10 @@ import nars.task.TaskProxy;
 import nars.time.clock.RealTime;
 
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static java.lang.System.nanoTime;
@@ -41,9 +44,19 @@ abstract public class MultiExec extends UniExec {
 
     private float explorationRate = 0.1f;
 
-    MultiExec(Valuator valuator, int concurrency  /* TODO adjustable dynamically */) {
-        super(concurrency, concurrency);
+    final int threads;
+    final boolean affinity;
+
+    final AffinityExecutor exe = new AffinityExecutor();
+
+    /** the system-wide executor replaced by start(), restored by stop() */
+    private Executor replaced = null;
+
+    MultiExec(Valuator valuator, int threads  /* TODO adjustable dynamically */, boolean affinity) {
+        super(threads, threads);
         this.valuator = valuator;
+        this.threads = threads;
+        this.affinity = affinity;
     }
 
     @Override
@@ -64,7 +77,7 @@ abstract public class MultiExec extends UniExec {
         executeLater(r);
     }
 
-    private void executeLater(/*@NotNull */Object x) {
+    void executeLater(/*@NotNull */Object x) {
 
         if (!in.offer(x)) {
             logger.warn("{} blocked queue on: {}", this, x);
@@ -107,11 +120,42 @@ abstract public class MultiExec extends UniExec {
         if (!(n.time instanceof RealTime))
             throw new UnsupportedOperationException("non-realtime clock not supported");
 
+        int procs = Runtime.getRuntime().availableProcessors();
+
         super.start(n);
         ons.add(DurService.on(n, this::onDur));
 
+        startWorkers();
+
+        if (concurrency() > procs / 2) {
+            /** absorb system-wide tasks rather than using the default ForkJoin commonPool */
+            replaced = Exe.executor();
+            Exe.setExecutor(this);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (replaced != null) {
+            Exe.setExecutor(replaced);
+            replaced = null;
+        }
+
+        stopWorkers();
+
+        exe.shutdownNow();
+
+        sync();
+
+        super.stop();
     }
 
+    /** creates the workers and runs them in the executor's threads */
+    abstract void startWorkers();
+
+    /** turns off the workers; their remaining work is run by stop() */
+    abstract void stopWorkers();
+
 
     private void prioritize() {
         int n = cpu.size();
@@ -205,100 +249,224 @@ abstract public class MultiExec extends UniExec {
         return true;
     }
 
-    public static class WorkerExec extends MultiExec {
+    /**
+     * worker thread: alternates between draining queued work and
+     * time-sliced execution of the Causables
+     */
+    abstract class AbstractWorker implements Runnable, Off {
 
-        final int threads;
-        final boolean affinity;
+        final FasterList schedule = new FasterList(inputQueueCapacityPerThread);
 
-        final AffinityExecutor exe = new AffinityExecutor();
-        private List<Worker> workers;
+        TimedLink.MyTimedLink[] play = new TimedLink.MyTimedLink[0];
 
-        public WorkerExec(Valuator r, int threads) {
-            this(r, threads, false);
-        }
+        private boolean alive = true;
 
-        public WorkerExec(Valuator valuator, int threads, boolean affinity) {
-            super(valuator, threads);
-            this.threads = threads;
-            this.affinity = affinity;
+        final SplitMix64Random rng;
+        private long deadline;
+
+//            private static final long minMaxExe = 10_000 /* 10uS */;
+
+        int i = 0;
+        long lastScheduled = ETERNAL;
+        private int n;
+        private long maxExe;
+        int granularity = 2;
+
+        AbstractWorker() {
+             rng = new SplitMix64Random((31L * System.identityHashCode(this)) + nanoTime());
         }
 
         @Override
-        public void start(NAR n) {
+        public void run() {
 
-            int procs = Runtime.getRuntime().availableProcessors();
+            while (alive) {
 
-            super.start(n);
+                long workTime = work();
 
-            workers = exe.execute(Worker::new, threads, affinity);
+                long cycleTimeNS =
+                        //cpu.cycleTimeNS.longValue();
+                        nar.loop.periodNS();
+
+                long playTime = cycleTimeNS - workTime;
+                if (playTime > 0)
+                    play(playTime);
 
-            if (concurrency() > procs / 2) {
-                /** absorb system-wide tasks rather than using the default ForkJoin commonPool */
-                Exe.setExecutor(this);
+                sleep();
             }
+        }
+
 
+        /** drains and executes queued work; returns the time spent */
+        abstract protected long work();
+
+        /** whether the pending work is low enough to continue playing */
+        abstract protected boolean queueSafe();
+
+        /** accounts time consumed by a Causable */
+        protected void use(TimedLink.MyTimedLink s, long t) {
+            s.use(t);
         }
 
+        private void play(long playTime) {
 
-        @Override
-        public void stop() {
-            Exe.setExecutor(ForkJoinPool.commonPool()); //TODO use the actual executor replaced by the start() call instead of assuming FJP
+            n = cpu.size();
+            if (n == 0)
+                return;
 
-            workers.forEach(Worker::off);
-            workers.clear();
+            long now = nar.time();
+            if (now > lastScheduled) {
+                if (scheduleDone(nar.loop.cycleTimeNS, now))
+                    return;
+            }
 
-            exe.shutdownNow();
+            long start = nanoTime();
+            long until = start + playTime, after = start /* assigned for safety */;
 
-            sync();
+            int skip = 0;
+            do {
+                if (i == n) i = 0;
+                TimedLink.MyTimedLink s = play[i++];
+                long sTime = s.time;
 
-            super.stop();
-        }
+                Causable c = s.can;
 
+                boolean playing = false;
+                if (sTime <= 0 || c.sleeping()) {
 
-        private final class Worker implements Runnable, Off {
+                } else {
 
-            private final FasterList schedule = new FasterList(inputQueueCapacityPerThread);
+                    boolean singleton = c.singleton();
+                    if (!singleton || c.busy.compareAndSet(false, true)) {
+//                            try {
 
-            TimedLink.MyTimedLink[] play = new TimedLink.MyTimedLink[0];
+                        long before = nanoTime();
 
-            private boolean alive = true;
+                        long runtimeNS = Math.min(until - before, Math.min(sTime, maxExe));
 
-            final SplitMix64Random rng;
-            private long deadline;
+                        if (runtimeNS > 0) {
+                            playing = true;
+                            deadline = before + runtimeNS;
+                            try {
+                                c.next(nar, this::deadline);
+                            } catch (Throwable t) {
+                                logger.error("{} {}", this, t);
+                            } finally {
+                                if (singleton)
+                                    c.busy.set(false);
+                            }
+                            after = nanoTime();
+                            use(s, after - before);
+                        }
 
-//            private static final long minMaxExe = 10_000 /* 10uS */;
+                    }
+                }
+
+                if (!playing) {
+                    if (++skip == n) {
+                        after = nanoTime(); //safety
+                        skip = 0;
+                    } else {
+                        continue;
+                    }
+                }
+
+            } while ((until > after) && queueSafe());
+//                System.out.println(
+//                    this + "\tplaytime=" + Texts.timeStr(playTime) + " " +
+//                        Texts.n2((((double)(after - start))/playTime)*100) + "% used"
+//                );
+        }
+
+        private boolean scheduleDone(long cycleTimeNS, long now) {
+
+            lastScheduled = now;
+
+            maxExe = cycleTimeNS / (granularity);
+
+            for (TimedLink.MyTimedLink m : play)
+                m.commit();
 
-            int i = 0;
-            long lastScheduled = ETERNAL;
-            private int n;
-            private long maxExe;
-            int granularity = 2;
+            if (play.length != n) {
+                //TODO more careful test for change
+                play = new TimedLink.MyTimedLink[n];
+                for (int i = 0; i < n; i++)
+                    play[i] = cpu.get(i).my();
 
-            Worker() {
-                 rng = new SplitMix64Random((31L * System.identityHashCode(this)) + nanoTime());
+                ArrayUtils.shuffle(play, rng); //each worker gets unique order
             }
 
-            @Override
-            public void run() {
 
-                while (alive) {
+            //schedule
+            //TODO Util.max((TimedLink.MyTimedLink m) -> m.time, play);
+            long maxTime =  Long.MIN_VALUE;
+            for (TimedLink.MyTimedLink m : play)
+                if (m.time > maxTime)
+                    maxTime = m.time;
 
-                    long workTime = work();
+            float spendRate = 1f;
+            long shift = maxTime < 0 ? 1 - maxTime : 0;
+            for (TimedLink.MyTimedLink m : play) {
+                int t = Math.round(shift + (cycleTimeNS * spendRate) * m.pri());
+                m.add(Math.max(1, t), -cycleTimeNS, cycleTimeNS);
+            }
+            return false;
+        }
 
-                    long cycleTimeNS =
-                            //cpu.cycleTimeNS.longValue();
-                            nar.loop.periodNS();
+        private boolean deadline() {
+            return nanoTime() < deadline;
+        }
 
-                    long playTime = cycleTimeNS - workTime;
-                    if (playTime > 0)
-                        play(playTime);
+        void sleep() {
+            long i = MultiExec.this.idleTimePerCyclePerThread;
+            if (i > 0) {
+                Util.sleepNSwhile(i, NapTime, this::queueSafe);
+            }
+        }
 
-                    sleep();
+        @Override
+        public void off() {
+            if (alive) {
+                synchronized (this) {
+                    alive = false;
+
+                    //execute remaining tasks in callee's thread
+                    schedule.removeIf(x -> {
+                        executeNow(x);
+                        return true;
+                    });
                 }
             }
+        }
+    }
 
+    public static class WorkerExec extends MultiExec {
 
-            private long work() {
+        private List<Worker> workers;
+
+        public WorkerExec(Valuator r, int threads) {
+            this(r, threads, false);
+        }
+
+        public WorkerExec(Valuator valuator, int threads, boolean affinity) {
+            super(valuator, threads, affinity);
+        }
+
+        @Override
+        void startWorkers() {
+            workers = exe.execute(Worker::new, threads, affinity);
+        }
+
+        @Override
+        void stopWorkers() {
+            workers.forEach(Worker::off);
+            workers.clear();
+        }
+
+
+        private final class Worker extends AbstractWorker {
+
+            @Override
+            protected long work() {
                 long workStart = nanoTime();
 
                 float granularity =
@@ -332,139 +500,171 @@ abstract public class MultiExec extends UniExec {
                 return workEnd - workStart;
             }
 
-            private void play(long playTime) {
+            @Override
+            protected boolean queueSafe() {
+                return WorkerExec.this.queueSafe();
+            }
+        }
 
-                n = cpu.size();
-                if (n == 0)
-                    return;
 
-                long now = nar.time();
-                if (now > lastScheduled) {
-                    if (scheduleDone(nar.loop.cycleTimeNS, now))
-                        return;
-                }
+        private boolean queueSafe() {
+            return in.availablePct(inputQueueCapacityPerThread) >= inputQueueSizeSafetyThreshold;
+        }
+    }
 
-                long start = nanoTime();
-                long until = start + playTime, after = start /* assigned for safety */;
+    /**
+     * each worker owns a bounded input queue.  work submitted from a worker thread
+     * stays local; other submissions are distributed round-robin.  idle workers steal
+     * half of another worker's queue.  Causable time is accounted locally per worker
+     * and committed to the shared cpu bag once per cycle.
+     * <p>
+     * avoids the shared input queue and cpu bag accounting of WorkerExec which
+     * become contention points as the number of threads grows.
+     */
+    public static class StealingExec extends MultiExec {
 
-                int skip = 0;
-                do {
-                    if (i == n) i = 0;
-                    TimedLink.MyTimedLink s = play[i++];
-                    long sTime = s.time;
+        private Worker[] workers = new Worker[0];
 
-                    Causable c = s.can;
+        /** the worker running in the current thread, if any */
+        private final ThreadLocal<Worker> local = new ThreadLocal<>();
 
-                    boolean playing = false;
-                    if (sTime <= 0 || c.sleeping()) {
+        /** round-robin target for submissions from non-worker threads */
+        private final AtomicInteger next = new AtomicInteger();
 
-                    } else {
+        public StealingExec(Valuator r, int threads) {
+            this(r, threads, false);
+        }
 
-                        boolean singleton = c.singleton();
-                        if (!singleton || c.busy.compareAndSet(false, true)) {
-//                            try {
+        public StealingExec(Valuator valuator, int threads, boolean affinity) {
+            super(valuator, threads, affinity);
+        }
 
-                            long before = nanoTime();
-
-                            long runtimeNS = Math.min(until - before, Math.min(sTime, maxExe));
-
-                            if (runtimeNS > 0) {
-                                playing = true;
-                                deadline = before + runtimeNS;
-                                try {
-                                    c.next(nar, this::deadline);
-                                } catch (Throwable t) {
-                                    logger.error("{} {}", this, t);
-                                } finally {
-                                    if (singleton)
-                                        c.busy.set(false);
-                                }
-                                after = nanoTime();
-                                s.use(after - before);
-                            }
+        @Override
+        void startWorkers() {
+            Worker[] w = new Worker[threads];
+            for (int i = 0; i < threads; i++)
+                w[i] = new Worker(i);
+            workers = w;
+
+            Iterator<Worker> ww = List.of(w).iterator();
+            exe.execute(ww::next, threads, affinity);
+        }
 
-                        }
-                    }
+        @Override
+        void stopWorkers() {
+            Worker[] w = workers;
+            workers = new Worker[0];
+            for (Worker x : w)
+                x.off();
+        }
 
-                    if (!playing) {
-                        if (++skip == n) {
-                            after = nanoTime(); //safety
-                            skip = 0;
-                        } else {
-                            continue;
-                        }
-                    }
+        @Override
+        void executeLater(Object x) {
+            Worker[] w = workers;
+            int n = w.length;
+            if (n == 0) {
+                super.executeLater(x);
+                return;
+            }
 
-                } while ((until > after) && queueSafe());
-//                System.out.println(
-//                    this + "\tplaytime=" + Texts.timeStr(playTime) + " " +
-//                        Texts.n2((((double)(after - start))/playTime)*100) + "% used"
-//                );
+            Worker mine = local.get();
+            int start = mine != null ? mine.id : Math.floorMod(next.getAndIncrement(), n);
+            for (int i = 0; i < n; i++) {
+                if (w[(start + i) % n].q.offer(x))
+                    return;
             }
 
-            private boolean scheduleDone(long cycleTimeNS, long now) {
+            logger.warn("{} blocked queue on: {}", this, x);
+            executeNow(x);
+        }
 
-                lastScheduled = now;
+        @Override
+        void sync() {
+            super.sync();
+            for (Worker w : workers) {
+                Object next;
+                while ((next = w.q.poll()) != null) executeNow(next);
+            }
+        }
 
-                maxExe = cycleTimeNS / (granularity);
+        private final class Worker extends AbstractWorker {
 
-                if (play.length != n) {
-                    //TODO more careful test for change
-                    play = new TimedLink.MyTimedLink[n];
-                    for (int i = 0; i < n; i++)
-                        play[i] = cpu.get(i).my();
+            final int id;
 
-                    ArrayUtils.shuffle(play, rng); //each worker gets unique order
-                }
+            final MetalConcurrentQueue q = new MetalConcurrentQueue(inputQueueCapacityPerThread);
 
+            Worker(int id) {
+                this.id = id;
+            }
 
-                //schedule
-                //TODO Util.max((TimedLink.MyTimedLink m) -> m.time, play);
-                long maxTime =  Long.MIN_VALUE;
-                for (TimedLink.MyTimedLink m : play)
-                    if (m.time > maxTime)
-                        maxTime = m.time;
+            @Override
+            public void run() {
+                local.set(this);
+                super.run();
+            }
 
-                float spendRate = 1f;
-                long shift = maxTime < 0 ? 1 - maxTime : 0;
-                for (TimedLink.MyTimedLink m : play) {
-                    int t = Math.round(shift + (cycleTimeNS * spendRate) * m.pri());
-                    m.add(Math.max(1, t), -cycleTimeNS, cycleTimeNS);
+            @Override
+            protected long work() {
+                long workStart = nanoTime();
+
+                do {
+                    int drained = q.remove(schedule, q.size());
+                    if (drained == 0)
+                        drained = in.remove(schedule, Math.max(1, in.size() / threads));
+                    if (drained == 0)
+                        drained = steal();
+                    if (drained == 0)
+                        break;
+
+                    execute(schedule, 1);
+
+                } while (!queueSafe());
+
+                return nanoTime() - workStart;
+            }
+
+            /** takes half of the queue of the first non-empty victim, starting at a random worker */
+            private int steal() {
+                Worker[] w = workers;
+                int n = w.length;
+                if (n < 2)
+                    return 0;
+
+                int start = rng.nextInt(n);
+                for (int i = 0; i < n; i++) {
+                    Worker v = w[(start + i) % n];
+                    if (v == this)
+                        continue;
+
+                    int available = v.q.size();
+                    if (available > 0) {
+                        int stolen = v.q.remove(schedule, Math.max(1, available / 2));
+                        if (stolen > 0)
+                            return stolen;
+                    }
                 }
-                return false;
+                return 0;
             }
 
-            private boolean deadline() {
-                return nanoTime() < deadline;
+            @Override
+            protected boolean queueSafe() {
+                return q.availablePct(inputQueueCapacityPerThread) >= inputQueueSizeSafetyThreshold;
             }
 
-            void sleep() {
-                long i = WorkerExec.this.idleTimePerCyclePerThread;
-                if (i > 0) {
-                    Util.sleepNSwhile(i, NapTime, WorkerExec.this::queueSafe);
-                }
+            @Override
+            protected void use(TimedLink.MyTimedLink s, long t) {
+                s.useLocal(t);
             }
 
             @Override
             public void off() {
-                if (alive) {
-                    synchronized (this) {
-                        alive = false;
-
-                        //execute remaining tasks in callee's thread
-                        schedule.removeIf(x -> {
-                            executeNow(x);
-                            return true;
-                        });
-                    }
+                super.off();
+                synchronized (this) {
+                    Object next;
+                    while ((next = q.poll()) != null) executeNow(next);
                 }
             }
         }
-
-
-        private boolean queueSafe() {
-            return in.availablePct(inputQueueCapacityPerThread) >= inputQueueSizeSafetyThreshold;
-        }
     }
 
     static private class QueueLatencyMeasurement extends AbstractTask {
@@ -60,11 +60,28 @@ public class UniExec extends AbstractExec {
 //            public long addAt(long t) {
 //
 //            }
+            /** time used but not yet committed to the shared TimedLink */
+            private long pending = 0;
+
             public void use(long t) {
                 TimedLink.this.use(t);
                 time -= t;
             }
 
+            /** thread-local accounting: the shared counter is updated on commit() */
+            public void useLocal(long t) {
+                pending += t;
+                time -= t;
+            }
+
+            public void commit() {
+                long p = pending;
+                if (p != 0) {
+                    pending = 0;
+                    TimedLink.this.use(p);
+                }
+            }
+
             public float pri() {
                 return TimedLink.this.priElseZero();
             }
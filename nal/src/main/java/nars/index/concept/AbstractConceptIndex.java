@@ -7,7 +7,6 @@ import jcog.pri.PriBuffer;
 import jcog.pri.Prioritizable;
 import jcog.pri.ScalarValue;
 import jcog.pri.bag.Bag;
-import jcog.pri.bag.impl.ArrayBag;
 import jcog.pri.bag.impl.BufferedBag;
 import jcog.pri.bag.impl.hijack.PriHijackBag;
 import jcog.pri.op.PriMerge;
@@ -15,12 +14,13 @@ import nars.NAR;
 import nars.Param;
 import nars.Task;
 import nars.link.Activate;
+import nars.link.ShardedTaskLinkBag;
 import nars.link.TaskLink;
+import nars.link.TaskLinkBag;
 import nars.term.Term;
 import nars.term.Termed;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.HashMap;
 import java.util.Random;
 import java.util.function.Function;
 import java.util.stream.Stream;
@@ -63,6 +63,13 @@ abstract public class AbstractConceptIndex extends ConceptIndex {
     };
 
 
+    /**
+     * number of shards of the tasklink bag (see ShardedTaskLinkBag), fixed when started; 0 for one per thread
+     * of a concurrent executor.  unsharded by default: sharding has not yet been measured to help
+     */
+    public int activeShards = 1;
+
+
     @Override
     public Stream<TaskLink> active() {
         return active.stream();
@@ -78,7 +85,7 @@ abstract public class AbstractConceptIndex extends ConceptIndex {
 
 
         active =
-            new BufferedBag.SimplestBufferedBag( arrayBag(), //hijackBag()
+            new BufferedBag.SimplestBufferedBag( tasklinkBag(nar), //hijackBag()
                 new PriBufferExtension(Param.tasklinkMerge, nar.exe.concurrent())
             );
 
@@ -111,23 +118,17 @@ abstract public class AbstractConceptIndex extends ConceptIndex {
 //        };
 //    }
 
+    private Bag<TaskLink, TaskLink> tasklinkBag(NAR nar) {
+        int shards = activeShards > 0 ? activeShards : (nar.exe.concurrent() ? nar.exe.concurrencyMax() : 1);
+        return shards > 1 ? shardedBag(shards) : arrayBag();
+    }
+
+    protected Bag<TaskLink, TaskLink> shardedBag(int shards) {
+        return new ShardedTaskLinkBag(shards, activeCapacity.intValue(), Param.tasklinkMerge);
+    }
+
     protected Bag<TaskLink, TaskLink> arrayBag() {
-        return new ArrayBag<TaskLink,TaskLink>(
-                activeCapacity.intValue(),
-                Param.tasklinkMerge,
-                new HashMap<>(activeCapacity.intValue() * 2, 0.99f)
-        ) {
-
-            @Override
-            public TaskLink key(TaskLink value) {
-                return value;
-            }
-
-            @Override
-            protected float merge(TaskLink existing, TaskLink incoming) {
-                return existing.merge(incoming, Param.tasklinkMerge);
-            }
-        };
+        return new TaskLinkBag(activeCapacity.intValue(), Param.tasklinkMerge);
     }
 
 
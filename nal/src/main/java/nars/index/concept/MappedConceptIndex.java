@@ -0,0 +1,565 @@
+package nars.index.concept;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.RemovalListener;
+import jcog.Util;
+import jcog.data.list.FasterList;
+import nars.IO;
+import nars.Task;
+import nars.concept.PermanentConcept;
+import nars.concept.TaskConcept;
+import nars.control.op.Remember;
+import nars.term.Term;
+import nars.term.Termed;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * concept index persisted in memory-mapped files, with a bounded cache of live Concepts on top.
+ * <p>
+ * a concept leaving the cache (or every cached concept, on flush()) is written to a log of mapped
+ * segments as its term and tasks, in IO.termToBytes / IO.taskToBytes form.  a record which fits in
+ * the space of the term's previous record overwrites it; otherwise it is appended, with room to grow.
+ * a mapped open-addressing hash table locates the record of each term.  on a cache miss
+ * the record is decoded and its tasks are re-inserted into the tables of a new concept.
+ * <p>
+ * reopening the same directory restores the knowledge base without replaying the input, and
+ * heap usage is bounded by the cache rather than by the size of the knowledge base.
+ */
+public class MappedConceptIndex extends MaplikeConceptIndex implements RemovalListener<Term, Termed>, Executor {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedConceptIndex.class);
+
+    private final Cache<Term, Termed> concepts;
+
+    private final Log log;
+    private final Table table;
+
+    public MappedConceptIndex(File dir, long cacheCapacity) throws IOException {
+        this(dir, cacheCapacity, Log.SEGMENT_SIZE_DEFAULT);
+    }
+
+    public MappedConceptIndex(File dir, long cacheCapacity, int segmentSize) throws IOException {
+        super();
+
+        if (!dir.isDirectory() && !dir.mkdirs())
+            throw new IOException("unable to create " + dir);
+
+        this.log = new Log(new File(dir, "concepts.log"), segmentSize);
+        this.table = new Table(new File(dir, "concepts.idx"), log);
+
+        this.concepts = Caffeine.newBuilder()
+                .maximumWeight(cacheCapacity)
+                .weigher((Term k, Termed v) -> v instanceof PermanentConcept ? 0 : 1)
+                .removalListener(this)
+                .executor(this)
+                .build();
+    }
+
+    @Override
+    public Termed get(Term x, boolean createIfMissing) {
+        Termed y = concepts.getIfPresent(x);
+        if (y != null)
+            return y;
+
+        byte[] record = table.get(IO.termToBytes(x));
+        if (record == null && !createIfMissing)
+            return null;
+
+        //restored outside of the cache's compute, which would block other gets of its bin meanwhile
+        Termed c = restore(x, record);
+        Termed prev = concepts.asMap().putIfAbsent(x, c);
+        return prev != null ? prev : c;
+    }
+
+    /** constructs the concept and re-inserts its persisted tasks */
+    private Termed restore(Term x, @Nullable byte[] record) {
+        Termed c = nar.conceptBuilder.apply(x, null);
+        if (record != null && c instanceof TaskConcept) {
+            TaskConcept tc = (TaskConcept) c;
+            try {
+                Record.tasks(record, t -> tc.add(new Remember(t, tc), nar));
+            } catch (IOException e) {
+                logger.error("restore {} {}", x, e);
+            }
+        }
+        return c;
+    }
+
+    /** writes the concept's tasks, replacing any previous record of it */
+    private void persist(Termed c) {
+        if (!(c instanceof TaskConcept) || c instanceof PermanentConcept)
+            return;
+
+        byte[] term = IO.termToBytes(c.term());
+        if (term.length > Record.TERM_LENGTH_MAX) {
+            logger.warn("not persisted, term exceeds {} bytes: {}", Record.TERM_LENGTH_MAX, c);
+            return;
+        }
+
+        FasterList<byte[]> tasks = new FasterList<>();
+        ((TaskConcept) c).forEachTask(t -> {
+            byte[] b = IO.taskToBytes(t);
+            if (b != null)
+                tasks.add(b);
+        });
+
+        table.put(term, Record.bytes(term, tasks));
+    }
+
+    /**
+     * persists all cached concepts; call before exit to include the concepts which
+     * have not been evicted
+     */
+    public void flush() {
+        concepts.asMap().values().forEach(this::persist);
+        log.force();
+        table.force();
+    }
+
+    /** flush and close; the index must not be used after */
+    public void close() {
+        flush();
+        concepts.invalidateAll();
+    }
+
+    @Override
+    public final void onRemoval(Term key, Termed value, RemovalCause cause) {
+        if (value == null)
+            return;
+
+        if (cause.wasEvicted())
+            persist(value);
+
+        onRemove(value);
+    }
+
+    /** caffeine removal notifications run inline */
+    @Override
+    public final void execute(Runnable command) {
+        command.run();
+    }
+
+    @Override
+    protected final boolean elideConceptGets() {
+        return false;
+    }
+
+    @Override
+    public Termed remove(Term x) {
+        table.remove(IO.termToBytes(x));
+        return concepts.asMap().remove(x);
+    }
+
+    @Override
+    public void set(Term src, Termed target) {
+        concepts.asMap().merge(src, target, setOrReplaceNonPermanent);
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        concepts.invalidateAll();
+        table.clear();
+        log.clear();
+    }
+
+    /** cached concepts only */
+    @Override
+    public Stream<Termed> stream() {
+        return concepts.asMap().values().stream().filter(Objects::nonNull);
+    }
+
+    /** cached concepts only */
+    @Override
+    public void forEach(Consumer<? super Termed> c) {
+        concepts.asMap().values().forEach(c);
+    }
+
+    /** cached concepts only */
+    @Override
+    public int size() {
+        return (int) concepts.estimatedSize();
+    }
+
+    /** number of persisted concepts */
+    public int sizePersisted() {
+        return table.size();
+    }
+
+    /** length of the record log */
+    public long bytesPersisted() {
+        return log.end();
+    }
+
+    @Override
+    public String summary() {
+        return concepts.estimatedSize() + " cached concepts, " + table.size() + " persisted, " + log.end() + " bytes";
+    }
+
+    /**
+     * [int length][short termLength][term][int tasks]{[int taskLength][task]}*
+     * the length prefix is written by Log, and includes any space after the tasks left for the record to grow
+     */
+    static final class Record {
+
+        /** termLength is an unsigned short */
+        static final int TERM_LENGTH_MAX = 0xffff;
+
+        static byte[] bytes(byte[] term, FasterList<byte[]> tasks) {
+            if (term.length > TERM_LENGTH_MAX)
+                throw new UnsupportedOperationException("term exceeds " + TERM_LENGTH_MAX + " bytes: " + term.length);
+
+            int len = 2 + term.length + 4;
+            for (byte[] t : tasks)
+                len += 4 + t.length;
+
+            ByteBuffer b = ByteBuffer.allocate(len);
+            b.putShort((short) term.length).put(term);
+            b.putInt(tasks.size());
+            for (byte[] t : tasks)
+                b.putInt(t.length).put(t);
+            return b.array();
+        }
+
+        static boolean termEquals(byte[] record, byte[] term) {
+            int tl = ((record[0] & 0xff) << 8) | (record[1] & 0xff);
+            return tl == term.length && Arrays.equals(record, 2, 2 + tl, term, 0, tl);
+        }
+
+        static void tasks(byte[] record, Consumer<Task> each) throws IOException {
+            ByteBuffer b = ByteBuffer.wrap(record);
+            b.position(2 + (b.getShort(0) & 0xffff));
+            int n = b.getInt();
+            for (int i = 0; i < n; i++) {
+                int tl = b.getInt();
+                int from = b.position();
+                each.accept(IO.bytesToTask(Arrays.copyOfRange(record, from, from + tl)));
+                b.position(from + tl);
+            }
+        }
+    }
+
+    /**
+     * record log in fixed-size mapped segments.  records do not span segments.
+     * the header (in segment 0) stores the end position.
+     * <p>
+     * a record's space is reused by the next record of its term which fits in it, so a concept
+     * persisted again without growing does not lengthen the log.  a record which does not fit is
+     * appended with half its length again to grow into; the space it leaves is not reused until clear().
+     */
+    static final class Log {
+
+        static final int SEGMENT_SIZE_DEFAULT = 1 << 28;
+
+        private static final int MAGIC = 0x4e41524c; //"NARL"
+        private static final int HEADER = 16;
+
+        private final FileChannel file;
+        private final int segmentSize;
+
+        /** copy-on-write; grows as segments are mapped */
+        private volatile MappedByteBuffer[] segments = new MappedByteBuffer[0];
+
+        private long end;
+
+        Log(File f, int segmentSize) throws IOException {
+            this.file = new RandomAccessFile(f, "rw").getChannel();
+            this.segmentSize = segmentSize;
+
+            boolean exists = file.size() > 0;
+            MappedByteBuffer h = segment(0);
+            if (exists) {
+                if (h.getInt(0) != MAGIC)
+                    throw new IOException(f + " is not a concept log");
+                end = h.getLong(8);
+            } else {
+                h.putInt(0, MAGIC);
+                clear();
+            }
+        }
+
+        synchronized void clear() {
+            end = HEADER;
+            segments[0].putLong(8, end);
+        }
+
+        synchronized long end() {
+            return end;
+        }
+
+        private MappedByteBuffer segment(int s) throws IOException {
+            MappedByteBuffer[] ss = segments;
+            if (s < ss.length)
+                return ss[s];
+
+            synchronized (this) {
+                ss = segments;
+                if (s >= ss.length) {
+                    MappedByteBuffer[] next = Arrays.copyOf(ss, s + 1);
+                    for (int i = ss.length; i <= s; i++)
+                        next[i] = file.map(FileChannel.MapMode.READ_WRITE, ((long) i) * segmentSize, segmentSize);
+                    segments = ss = next;
+                }
+                return ss[s];
+            }
+        }
+
+        /**
+         * writes the record over the one at prev, if it fits in its space, otherwise appends it
+         * @param prev position of the record it replaces, or 0 if none
+         * @return the position of the record
+         */
+        synchronized long replace(long prev, byte[] record) {
+            if (prev == 0)
+                return append(record, record.length);
+
+            ByteBuffer s = at(prev);
+            if (s.getInt() < record.length)
+                return append(record, record.length + record.length / 2);
+
+            s.put(record); //the length prefix remains that of the space
+            return prev;
+        }
+
+        /** returns the position of the record, which is given capacity bytes of space */
+        synchronized long append(byte[] record, int capacity) {
+            if (4 + record.length > segmentSize)
+                throw new UnsupportedOperationException("record exceeds segment size: " + (4 + record.length));
+            int len = 4 + Math.min(capacity, segmentSize - 4);
+
+            long pos = end;
+            if ((pos % segmentSize) + len > segmentSize)
+                pos = (pos / segmentSize + 1) * segmentSize; //skip to next segment
+
+            at(pos).putInt(len - 4).put(record);
+
+            end = pos + len;
+            segments[0].putLong(8, end);
+            return pos;
+        }
+
+        private ByteBuffer at(long pos) {
+            try {
+                ByteBuffer s = segment((int) (pos / segmentSize)).duplicate();
+                s.position((int) (pos % segmentSize));
+                return s;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        byte[] read(long pos) {
+            ByteBuffer s = at(pos);
+            byte[] b = new byte[s.getInt()];
+            s.get(b);
+            return b;
+        }
+
+        void force() {
+            for (MappedByteBuffer s : segments)
+                s.force();
+        }
+    }
+
+    /**
+     * mapped open-addressing hash table: (64-bit term hash, log position) slots.
+     * hash collisions are resolved by comparing the term stored in the record.
+     * removed entries remain as tombstones (position 0) until the next resize.
+     * <p>
+     * a resized table is built in a temporary file which then replaces the table's file, so the
+     * file is always a complete table.
+     */
+    static final class Table {
+
+        private static final int MAGIC = 0x4e415249; //"NARI"
+        private static final int HEADER = 16;
+        private static final int SLOT = 16;
+        private static final int CAPACITY_INITIAL = 1 << 16;
+        private static final float LOAD_MAX = 0.5f;
+
+        private final File f, tmp;
+        private final Log log;
+
+        private MappedByteBuffer map;
+        /** size = occupied slots (incl. tombstones), live = entries */
+        private int capacity, size, live;
+
+        Table(File f, Log log) throws IOException {
+            this.f = f;
+            this.tmp = new File(f.getPath() + ".tmp");
+            this.log = log;
+            if (f.exists() && f.length() > 0) {
+                map = map(f, f.length());
+                if (map.getInt(0) != MAGIC)
+                    throw new IOException(f + " is not a concept table");
+                capacity = map.getInt(4);
+                size = map.getInt(8);
+                live = map.getInt(12);
+            } else {
+                install(create(CAPACITY_INITIAL));
+            }
+        }
+
+        private static MappedByteBuffer map(File f, long bytes) throws IOException {
+            try (FileChannel c = new RandomAccessFile(f, "rw").getChannel()) {
+                return c.map(FileChannel.MapMode.READ_WRITE, 0, bytes);
+            }
+        }
+
+        /** an empty table, in the temporary file */
+        private MappedByteBuffer create(int capacity) throws IOException {
+            long bytes = HEADER + ((long) capacity) * SLOT;
+            if (bytes > Integer.MAX_VALUE)
+                throw new UnsupportedOperationException("table capacity exceeded");
+            try (RandomAccessFile r = new RandomAccessFile(tmp, "rw")) {
+                r.setLength(0);
+                r.setLength(bytes);
+            }
+            MappedByteBuffer m = map(tmp, bytes);
+            m.putInt(0, MAGIC);
+            m.putInt(4, capacity);
+            m.putInt(8, 0);
+            m.putInt(12, 0);
+            return m;
+        }
+
+        /** replaces the table's file with the created table */
+        private void install(MappedByteBuffer next) throws IOException {
+            next.force();
+            Files.move(tmp.toPath(), f.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            map = next;
+            capacity = next.getInt(4);
+            size = next.getInt(8);
+            live = next.getInt(12);
+        }
+
+        synchronized int size() {
+            return live;
+        }
+
+        private static long hash(byte[] term) {
+            long h = Util.hash64(term);
+            return h == 0 ? 1 : h; //0 = empty slot
+        }
+
+        private int slot(int i) {
+            return HEADER + i * SLOT;
+        }
+
+        /** index of the slot containing the term, or the empty slot where it would be */
+        private int find(byte[] term, long h) {
+            int mask = capacity - 1;
+            for (int i = (int) (h ^ (h >>> 32)) & mask; ; i = (i + 1) & mask) {
+                int s = slot(i);
+                long sh = map.getLong(s);
+                if (sh == 0)
+                    return i;
+                if (sh == h) {
+                    long pos = map.getLong(s + 8);
+                    if (pos != 0 && Record.termEquals(log.read(pos), term))
+                        return i;
+                }
+            }
+        }
+
+        /** log position of the term's record, or 0 if none */
+        private long position(int s) {
+            return map.getLong(s) == 0 ? 0 : map.getLong(s + 8);
+        }
+
+        @Nullable synchronized byte[] get(byte[] term) {
+            long h = hash(term);
+            long pos = position(slot(find(term, h)));
+            return pos == 0 ? null : log.read(pos);
+        }
+
+        /** writes the term's record to the log, in place of its previous record if that has the space */
+        synchronized void put(byte[] term, byte[] record) {
+            long h = hash(term);
+            int s = slot(find(term, h));
+            long prev = position(s);
+            long pos = log.replace(prev, record);
+            if (map.getLong(s) == 0) {
+                map.putLong(s, h);
+                map.putInt(8, ++size);
+            }
+            if (prev == 0)
+                map.putInt(12, ++live);
+            map.putLong(s + 8, pos);
+
+            if (size > capacity * LOAD_MAX)
+                resize(capacity * 2);
+        }
+
+        synchronized void remove(byte[] term) {
+            long h = hash(term);
+            int s = slot(find(term, h));
+            if (map.getLong(s) != 0 && map.getLong(s + 8) != 0) {
+                map.putLong(s + 8, 0); //tombstone
+                map.putInt(12, --live);
+            }
+        }
+
+        private void resize(int nextCapacity) {
+            int prevCapacity = capacity;
+            long[] entries = new long[live * 2];
+            int e = 0;
+            for (int i = 0; i < prevCapacity; i++) {
+                int s = slot(i);
+                long h = map.getLong(s), pos = map.getLong(s + 8);
+                if (h != 0 && pos != 0) {
+                    entries[e++] = h;
+                    entries[e++] = pos;
+                }
+            }
+
+            try {
+                MappedByteBuffer next = create(nextCapacity);
+                int mask = nextCapacity - 1;
+                for (int j = 0; j < e; j += 2) {
+                    long h = entries[j];
+                    int i = (int) (h ^ (h >>> 32)) & mask;
+                    while (next.getLong(slot(i)) != 0)
+                        i = (i + 1) & mask;
+                    next.putLong(slot(i), h);
+                    next.putLong(slot(i) + 8, entries[j + 1]);
+                }
+                next.putInt(8, e / 2);
+                next.putInt(12, e / 2);
+                install(next);
+            } catch (IOException x) {
+                throw new RuntimeException(x);
+            }
+        }
+
+        synchronized void clear() {
+            try {
+                install(create(CAPACITY_INITIAL));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        synchronized void force() {
+            map.force();
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package nars.io;
+
+import jcog.data.byt.DynBytes;
+import jcog.io.BytesInput;
+import jcog.io.LZ4;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * the frames of TaskLog and Snapshot:
+ * <pre>
+ *   [byte type][byte codec][short 0][int count][int rawLength][int storedLength][stored bytes]
+ * </pre>
+ * count items of the frame's type, whose payload of rawLength bytes is stored LZ4 compressed
+ * when that is smaller.  frame types share one numbering, so a reader skips any type it does
+ * not know, whichever format it is in.
+ */
+final class Frames {
+
+    static final int HEADER_SIZE = 16;
+
+    static final byte TASKS = 1, DICT = 2, LINKS = 3;
+    static final byte CODEC_NONE = 0, CODEC_LZ4 = 1;
+
+    private Frames() {
+
+    }
+
+    /** encodes frames; not thread-safe, so one per writing thread */
+    static final class Writer {
+
+        private final boolean compress;
+
+        private byte[] compressed = new byte[0];
+        private final LZ4.HashTable ht = new LZ4.HashTable();
+
+        /** the encoded frame */
+        private byte codec;
+        private byte[] stored;
+        private int rawLength, storedLength;
+
+        long bytesRaw, bytesStored;
+
+        Writer(boolean compress) {
+            this.compress = compress;
+        }
+
+        /** encodes a payload, which is not modified until written */
+        void encode(DynBytes payload) {
+            int raw = payload.length();
+            byte[] b = payload.arrayDirect();
+
+            codec = CODEC_NONE;
+            stored = b;
+            rawLength = storedLength = raw;
+            if (compress) {
+                int max = LZ4.maxCompressedLength(raw);
+                if (compressed.length < max)
+                    compressed = new byte[max];
+                int c = LZ4.compress(b, 0, raw, compressed, 0, ht);
+                if (c < raw) {
+                    codec = CODEC_LZ4;
+                    stored = compressed;
+                    storedLength = c;
+                }
+            }
+        }
+
+        /** writes the encoded payload as a frame */
+        void write(DataOutput out, byte type, int count) throws IOException {
+            out.writeByte(type);
+            out.writeByte(codec);
+            out.writeShort(0);
+            out.writeInt(count);
+            out.writeInt(rawLength);
+            out.writeInt(storedLength);
+            out.write(stored, 0, storedLength);
+
+            bytesRaw += rawLength;
+            bytesStored += storedLength;
+        }
+    }
+
+    /** a frame's header, as read */
+    static final class Header {
+
+        byte type, codec;
+        int count, rawLength, storedLength;
+
+        /** reads the header following the frame's type, which a stream reader reads to detect its end */
+        void read(byte type, DataInput in) throws IOException {
+            this.type = type;
+            codec = in.readByte();
+            in.readShort();
+            count = in.readInt();
+            rawLength = in.readInt();
+            storedLength = in.readInt();
+        }
+
+        void read(ByteBuffer b, int p) {
+            type = b.get(p);
+            codec = b.get(p + 1);
+            count = b.getInt(p + 4);
+            rawLength = b.getInt(p + 8);
+            storedLength = b.getInt(p + 12);
+        }
+
+        /**
+         * the frame's payload, from its stored bytes
+         * @param raw buffer to decompress into, of at least rawBuffer(rawLength) bytes; a new one if null
+         */
+        BytesInput payload(ByteBuffer stored, byte[] raw) throws IOException {
+            switch (codec) {
+                case CODEC_NONE:
+                    return new BytesInput(stored.slice());
+                case CODEC_LZ4:
+                    if (raw == null)
+                        raw = new byte[rawBuffer(rawLength)];
+                    LZ4.decompress(stored, rawLength, raw);
+                    return new BytesInput(ByteBuffer.wrap(raw, 0, rawLength));
+                default:
+                    throw new IOException("unknown codec " + codec);
+            }
+        }
+    }
+
+    /** size of a buffer to decompress a payload into, which LZ4 may overrun by up to 8 bytes */
+    static int rawBuffer(int rawLength) {
+        return rawLength + 8;
+    }
+}
@@ -0,0 +1,300 @@
+package nars.io;
+
+import com.google.common.io.ByteArrayDataOutput;
+import jcog.data.byt.DynBytes;
+import jcog.data.list.FasterList;
+import jcog.io.BytesInput;
+import jcog.pri.op.PriMerge;
+import nars.IO;
+import nars.NAR;
+import nars.Task;
+import nars.concept.TaskConcept;
+import nars.control.op.Remember;
+import nars.link.TaskLink;
+import nars.term.Term;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static nars.Op.*;
+
+/**
+ * binary snapshot of a NAR's memory: the tasks of its concepts' belief, goal and question tables,
+ * and its active tasklinks.  for checkpointing a running NAR and restoring it into another.
+ * <p>
+ * layout: a header followed by Frames, as TaskLog
+ * <pre>
+ *   header: [int MAGIC][short VERSION][short 0][long time]
+ * </pre>
+ * TASKS frames hold count tasks in IO.writeTask form, grouped by concept.  LINKS frames hold count
+ * tasklinks, each as its source and target terms followed by its priority for each punctuation.
+ * <p>
+ * frames are independent of each other (atoms are written inline) so they are written and read in
+ * parallel: the concepts are partitioned into segments which are encoded concurrently, while the
+ * NAR continues running, and the frames are decoded and inserted concurrently.  a snapshot is not
+ * atomic; tasks added or removed while it is written may or may not be included.
+ */
+public class Snapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(Snapshot.class);
+
+    static final int MAGIC = ('N' << 24) | ('A' << 16) | ('R' << 8) | 'S';
+    static final short VERSION = 1;
+
+    /** uncompressed size of a frame */
+    static final int FRAME_SIZE = 64 * 1024;
+
+    /** segments of the concepts per thread, for balance */
+    private static final int SEGMENTS_PER_THREAD = 4;
+
+    /** tasklink punctuations, in the order of their priorities */
+    private static final byte[] PUNC = {BELIEF, QUESTION, GOAL, QUEST};
+
+    private Snapshot() {
+
+    }
+
+    /**
+     * writes a snapshot of the NAR's memory
+     * @return the number of tasks written
+     */
+    public static long write(NAR n, OutputStream o) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(o, IO.STREAM_BUFFER_SIZE));
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(0);
+        out.writeLong(n.time());
+
+        List<TaskConcept> concepts = n.concepts.stream()
+                .filter(c -> c instanceof TaskConcept)
+                .map(c -> (TaskConcept) c)
+                .collect(Collectors.toList());
+
+        int size = concepts.size();
+        int segments = Math.max(1, Math.min(size, ForkJoinPool.getCommonPoolParallelism() * SEGMENTS_PER_THREAD));
+
+        AtomicLong tasks = new AtomicLong();
+        try {
+            IntStream.range(0, segments).parallel().forEach(s -> {
+                Segment w = new Segment(out, Frames.TASKS);
+                for (int i = size * s / segments, to = size * (s + 1) / segments; i < to; i++) {
+                    concepts.get(i).forEachTask(t -> {
+                        if (!t.isDeleted())
+                            w.task(t);
+                    });
+                }
+                w.flush();
+                tasks.addAndGet(w.total);
+            });
+
+            Segment l = new Segment(out, Frames.LINKS);
+            n.concepts.active().forEach(l::link);
+            l.flush();
+
+            out.flush();
+
+            logger.info("{} concepts, {} tasks, {} tasklinks, {} bytes", size, tasks, l.total, out.size());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        return tasks.get();
+    }
+
+    /** frames written by one thread */
+    private static final class Segment {
+
+        private final DataOutputStream out;
+        private final byte type;
+
+        private final DynBytes frame = new DynBytes(FRAME_SIZE + 1024);
+        private final Frames.Writer frames = new Frames.Writer(true);
+        private int count;
+        long total;
+
+        Segment(DataOutputStream out, byte type) {
+            this.out = out;
+            this.type = type;
+        }
+
+        void task(Task t) {
+            try {
+                IO.writeTask(frame, t, null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            added();
+        }
+
+        void link(TaskLink x) {
+            x.source().appendTo((ByteArrayDataOutput) frame);
+            x.target().appendTo((ByteArrayDataOutput) frame);
+            for (byte p : PUNC)
+                frame.writeFloat(x.punc(p));
+            added();
+        }
+
+        private void added() {
+            count++;
+            total++;
+            if (frame.length() >= FRAME_SIZE)
+                flush();
+        }
+
+        void flush() {
+            if (count == 0)
+                return;
+
+            //compressed by this thread, then written whole
+            frames.encode(frame);
+            try {
+                synchronized (out) {
+                    frames.write(out, type, count);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            frame.clear();
+            count = 0;
+        }
+    }
+
+    /**
+     * restores a snapshot into the NAR's memory.  the tasks are inserted into their concepts' tables
+     * without activation; the tasklinks are restored as they were.  the NAR's clock resumes from the
+     * snapshot's time (unless realtime) and its stamps from after the last in the snapshot.
+     * a truncated last frame ends the restore.
+     * @return the number of tasks read
+     */
+    public static long read(NAR n, InputStream i) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(i, IO.STREAM_BUFFER_SIZE));
+        if (in.readInt() != MAGIC)
+            throw new IOException("not a snapshot: invalid header");
+        short version = in.readShort();
+        if (version > VERSION)
+            throw new IOException("unsupported snapshot version: " + version);
+        in.readShort();
+        long time = in.readLong();
+
+        AtomicLong tasks = new AtomicLong(), links = new AtomicLong(), lastStamp = new AtomicLong();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+
+        //frames being decoded, at most a few per thread
+        Semaphore decoding = new Semaphore(ForkJoinPool.getCommonPoolParallelism() * 2);
+        FasterList<ForkJoinTask<?>> pending = new FasterList<>();
+
+        int type;
+        while ((type = in.read()) >= 0 && error.get() == null) {
+            Frames.Header h = new Frames.Header();
+            byte[] stored;
+            try {
+                h.read((byte) type, in);
+                stored = new byte[h.storedLength];
+                in.readFully(stored);
+            } catch (EOFException e) {
+                logger.warn("{} truncated", i);
+                break;
+            }
+
+            decoding.acquireUninterruptibly();
+            pending.add(ForkJoinPool.commonPool().submit(() -> {
+                try {
+                    BytesInput f = h.payload(ByteBuffer.wrap(stored), null);
+                    switch (h.type) {
+                        case Frames.TASKS:
+                            tasks.addAndGet(tasks(n, f, h.count, lastStamp));
+                            break;
+                        case Frames.LINKS:
+                            links.addAndGet(links(n, f, h.count));
+                            break;
+                        default:
+                            //unknown frame types, from a later minor version, are skipped
+                            break;
+                    }
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                } finally {
+                    decoding.release();
+                }
+            }));
+        }
+
+        pending.forEach(ForkJoinTask::join);
+
+        Throwable e = error.get();
+        if (e != null) {
+            if (e instanceof IOException)
+                throw (IOException) e;
+            throw new IOException(e);
+        }
+
+        n.time.resume(time, lastStamp.get());
+
+        logger.info("{} tasks, {} tasklinks", tasks, links);
+
+        return tasks.get();
+    }
+
+    /** inserts the tasks of a frame, batched by concept */
+    private static int tasks(NAR n, DataInput in, int count, AtomicLong lastStamp) throws IOException {
+        FasterList<Remember> batch = new FasterList<>(8);
+        TaskConcept c = null;
+        int added = 0;
+        for (int i = 0; i < count; i++) {
+            Task t = IO.readTask(in);
+
+            long[] stamp = t.stamp();
+            if (stamp.length > 0)
+                lastStamp.accumulateAndGet(stamp[stamp.length - 1], Math::max);
+
+            Remember r = Remember.the(t, n);
+            if (r == null)
+                continue;
+
+            if (r.concept != c) {
+                if (c != null)
+                    add(c, batch, n);
+                c = r.concept;
+            }
+            batch.add(r);
+            added++;
+        }
+        if (c != null)
+            add(c, batch, n);
+        return added;
+    }
+
+    private static void add(TaskConcept c, FasterList<Remember> batch, NAR n) {
+        c.add(batch, n);
+        batch.clear();
+    }
+
+    private static int links(NAR n, DataInput in, int count) throws IOException {
+        int added = 0;
+        for (int i = 0; i < count; i++) {
+            Term source = IO.readTerm(in), target = IO.readTerm(in);
+            TaskLink.GeneralTaskLink x = new TaskLink.GeneralTaskLink(source, target);
+            for (byte p : PUNC) {
+                float pri = in.readFloat();
+                if (pri > 0)
+                    x.pri(p, pri, PriMerge.replace);
+            }
+            if (x.priElseZero() > 0) {
+                TaskLink.link(x, n);
+                added++;
+            }
+        }
+        return added;
+    }
+}
@@ -0,0 +1,254 @@
+package nars.io;
+
+import jcog.data.byt.DynBytes;
+import jcog.data.list.FasterList;
+import jcog.io.BytesInput;
+import nars.IO;
+import nars.Task;
+import nars.term.Term;
+import nars.term.atom.Atom;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * framed, versioned binary log of tasks, for recording a NAR's input and replaying it at disk speed.
+ * <p>
+ * layout: a header followed by Frames
+ * <pre>
+ *   header: [int MAGIC][short VERSION][short flags]
+ * </pre>
+ * TASKS frames hold count tasks in IO.writeTask form.  when the dictionary is enabled, atoms are
+ * written as their index in it, and the atoms first used by a frame are defined by a DICT frame
+ * (count atoms in IO.termToBytes form) preceding it.
+ * <p>
+ * the reader maps the file and decodes uncompressed frames directly from the mapped buffer.
+ * a truncated last frame (ex: from a crash while writing) ends the replay.
+ */
+public class TaskLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskLog.class);
+
+    static final int MAGIC = ('N' << 24) | ('A' << 16) | ('R' << 8) | 'L';
+    static final short VERSION = 1;
+
+    static final int HEADER_SIZE = 8;
+
+    /** header flags */
+    static final short FLAG_DICTIONARY = 1;
+
+    /** maximum atoms in a log's dictionary; further atoms are written inline */
+    static final int DICTIONARY_CAPACITY = 1 << 20;
+
+    /** default uncompressed size of a frame */
+    public static final int DEFAULT_FRAME_SIZE = 64 * 1024;
+
+    /** size of the mapped windows of the reader */
+    private static final long MAP_WINDOW = 1L << 28;
+
+    private TaskLog() {
+
+    }
+
+    /**
+     * appends tasks to a log file.  tasks are buffered into frames of the given size;
+     * close() writes the final frame.  accept(Task) may be called from any thread,
+     * so a writer can be attached to a NAR with onTask
+     */
+    public static class Writer implements Consumer<Task>, Closeable {
+
+        private final OutputStream out;
+        private final DataOutputStream data;
+        private final int frameSize;
+        private final Frames.Writer frames;
+
+        /** atom -> dictionary index */
+        private final ObjectIntHashMap<Atom> dict;
+        private final ToIntFunction<Atom> atoms;
+        /** atoms added to the dictionary by the current frame */
+        private final DynBytes dictFrame;
+        private int dictFrameCount;
+
+        private final DynBytes frame;
+        private int frameCount;
+
+        private long tasks;
+
+        public Writer(File f) throws IOException {
+            this(new FileOutputStream(f), DEFAULT_FRAME_SIZE, true, true);
+        }
+
+        public Writer(OutputStream out, int frameSize, boolean compress, boolean dictionary) throws IOException {
+            this.out = new BufferedOutputStream(out, IO.STREAM_BUFFER_SIZE);
+            this.data = new DataOutputStream(this.out);
+            this.frameSize = frameSize;
+            this.frames = new Frames.Writer(compress);
+            this.frame = new DynBytes(frameSize + 1024);
+            if (dictionary) {
+                this.dict = new ObjectIntHashMap<>(1024);
+                this.dictFrame = new DynBytes(1024);
+                this.atoms = this::atom;
+            } else {
+                this.dict = null;
+                this.dictFrame = null;
+                this.atoms = null;
+            }
+
+            data.writeInt(MAGIC);
+            data.writeShort(VERSION);
+            data.writeShort(dictionary ? FLAG_DICTIONARY : 0);
+        }
+
+        private int atom(Atom a) {
+            int i = dict.getIfAbsent(a, -1);
+            if (i < 0) {
+                int n = dict.size();
+                if (n >= DICTIONARY_CAPACITY)
+                    return -1;
+                dict.put(a, i = n);
+                dictFrame.write(a.bytes());
+                dictFrameCount++;
+            }
+            return i;
+        }
+
+        @Override
+        public synchronized void accept(Task t) {
+            try {
+                IO.writeTask(frame, t, atoms);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            frameCount++;
+            tasks++;
+            if (frame.length() >= frameSize)
+                flush();
+        }
+
+        /** writes the buffered tasks as a frame */
+        public synchronized void flush() {
+            if (frameCount == 0)
+                return;
+            try {
+                if (dictFrameCount > 0) {
+                    writeFrame(Frames.DICT, dictFrameCount, dictFrame);
+                    dictFrame.clear();
+                    dictFrameCount = 0;
+                }
+                writeFrame(Frames.TASKS, frameCount, frame);
+                frame.clear();
+                frameCount = 0;
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeFrame(byte type, int count, DynBytes payload) throws IOException {
+            frames.encode(payload);
+            frames.write(data, type, count);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            flush();
+            out.close();
+            logger.info("{} tasks, {} bytes ({} uncompressed)", tasks, frames.bytesStored, frames.bytesRaw);
+        }
+    }
+
+    /**
+     * replays the tasks of a log file, in the order they were written
+     * @return the number of tasks read
+     */
+    public static long read(File f, Consumer<Task> each) throws IOException {
+        try (FileChannel c = FileChannel.open(f.toPath(), StandardOpenOption.READ)) {
+            return read(c, each);
+        }
+    }
+
+    private static long read(FileChannel c, Consumer<Task> each) throws IOException {
+        long size = c.size();
+        if (size < HEADER_SIZE)
+            throw new IOException("not a task log: too short");
+
+        MappedByteBuffer w = c.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, MAP_WINDOW));
+        if (w.getInt(0) != MAGIC)
+            throw new IOException("not a task log: invalid header");
+        short version = w.getShort(4);
+        if (version > VERSION)
+            throw new IOException("unsupported task log version: " + version);
+        boolean dictionary = (w.getShort(6) & FLAG_DICTIONARY) != 0;
+
+        FasterList<Term> dict = dictionary ? new FasterList<>(1024) : null;
+        IntFunction<Term> atom = dictionary ? dict::get : null;
+
+        Frames.Header h = new Frames.Header();
+        byte[] raw = new byte[0];
+        long count = 0;
+
+        long windowStart = 0;
+        long pos = HEADER_SIZE;
+        while (pos + Frames.HEADER_SIZE <= size) {
+            int p = (int) (pos - windowStart);
+            if (p + Frames.HEADER_SIZE > w.capacity()) {
+                w = c.map(FileChannel.MapMode.READ_ONLY, windowStart = pos, Math.min(size - pos, MAP_WINDOW));
+                p = 0;
+            }
+
+            h.read(w, p);
+            int n = h.count;
+
+            long frameEnd = pos + Frames.HEADER_SIZE + h.storedLength;
+            if (frameEnd > size) {
+                logger.warn("{} truncated at {}", c, pos);
+                break;
+            }
+
+            if (p + Frames.HEADER_SIZE + h.storedLength > w.capacity()) {
+                w = c.map(FileChannel.MapMode.READ_ONLY, windowStart = pos,
+                        Math.min(size - pos, Math.max(MAP_WINDOW, Frames.HEADER_SIZE + h.storedLength)));
+                p = 0;
+            }
+
+            ByteBuffer payload = w.duplicate();
+            payload.position(p + Frames.HEADER_SIZE).limit(p + Frames.HEADER_SIZE + h.storedLength);
+
+            if (h.codec == Frames.CODEC_LZ4 && raw.length < Frames.rawBuffer(h.rawLength))
+                raw = new byte[Frames.rawBuffer(h.rawLength)];
+            BytesInput in = h.payload(payload, raw);
+
+            switch (h.type) {
+                case Frames.DICT:
+                    if (dict == null)
+                        throw new IOException("dictionary frame in a log without a dictionary");
+                    for (int i = 0; i < n; i++)
+                        dict.add(IO.readTerm(in));
+                    break;
+                case Frames.TASKS:
+                    for (int i = 0; i < n; i++) {
+                        each.accept(IO.readTask(in, atom));
+                        count++;
+                    }
+                    break;
+                default:
+                    //unknown frame types, from a later minor version, are skipped
+                    break;
+            }
+
+            pos = frameEnd;
+        }
+
+        return count;
+    }
+
+}
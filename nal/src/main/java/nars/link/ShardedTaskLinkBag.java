@@ -0,0 +1,220 @@
+package nars.link;
+
+import com.google.common.collect.Iterators;
+import jcog.data.NumberX;
+import jcog.decide.Roulette;
+import jcog.pri.ScalarValue;
+import jcog.pri.bag.Bag;
+import jcog.pri.op.PriMerge;
+import nars.term.Term;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static jcog.pri.bag.Sampler.SampleReaction.*;
+
+/**
+ * tasklink bag striped across independently locked TaskLinkBag shards, by the link's hash,
+ * so that concurrent puts and commits of different links rarely contend.
+ * <p>
+ * sampling selects a shard in proportion to its mass, then a link within it, so that
+ * links are sampled in proportion to priority across the bag, as by a single bag.
+ * <p>
+ * forgetting is not globally budgeted: commit applies the caller's update to each shard
+ * alike, in parallel on the common ForkJoinPool with the calling thread if that pool has more
+ * than one thread.  an update made by Forgetting.forget from this bag's summed size, pressure
+ * and mass forgets at one rate everywhere, so a shard under more pressure than the others
+ * does not forget faster.  each shard also has an equal share of the capacity, so the weakest
+ * link of the bag is not necessarily the one evicted.
+ */
+public class ShardedTaskLinkBag implements Bag<TaskLink, TaskLink>, TaskLinkIndex {
+
+    private final TaskLinkBag[] shards;
+    private final int mask;
+    private volatile int capacity;
+
+    /**
+     * @param shards number of shards, rounded up to a power of 2
+     */
+    public ShardedTaskLinkBag(int shards, int capacity, PriMerge merge) {
+        int n = shards <= 1 ? 1 : Integer.highestOneBit(shards - 1) << 1;
+        this.mask = n - 1;
+        this.shards = new TaskLinkBag[n];
+        int c = shardCapacity(capacity, n);
+        for (int i = 0; i < n; i++)
+            this.shards[i] = new TaskLinkBag(c, merge);
+        this.capacity = capacity;
+    }
+
+    private static int shardCapacity(int capacity, int shards) {
+        return (capacity + shards - 1) / shards;
+    }
+
+    private TaskLinkBag shard(Object x) {
+        int h = x.hashCode();
+        return shards[(h ^ (h >>> 16)) & mask];
+    }
+
+    public final int shards() {
+        return shards.length;
+    }
+
+    @Override
+    public final TaskLink key(TaskLink value) {
+        return value;
+    }
+
+    @Override
+    public TaskLink put(TaskLink x, NumberX overflow) {
+        return shard(x).put(x, overflow);
+    }
+
+    @Override
+    public @Nullable TaskLink remove(TaskLink x) {
+        return shard(x).remove(x);
+    }
+
+    @Override
+    public @Nullable TaskLink get(Object key) {
+        return shard(key).get(key);
+    }
+
+    @Override
+    public float pri(TaskLink x) {
+        return shard(x).pri(x);
+    }
+
+    @Override
+    public void sample(Random rng, Function<? super TaskLink, SampleReaction> each) {
+        TaskLinkBag[] s = this.shards;
+        int n = s.length;
+        boolean[] stop = new boolean[1];
+        Function<TaskLink, SampleReaction> one = x -> {
+            SampleReaction r = each.apply(x);
+            stop[0] = r.stop;
+            return r.remove ? RemoveAndStop : Stop;
+        };
+
+        //one link at a time, from a shard chosen by mass
+        do {
+            float sum = 0;
+            for (TaskLinkBag b : s)
+                sum += weight(b);
+            if (sum <= 0)
+                return; //empty
+
+            int i = n == 1 ? 0 : Roulette.selectRoulette(n, j -> weight(s[j]), sum, rng);
+            s[i].sample(rng, one);
+        } while (!stop[0]);
+    }
+
+    /** sampling weight of a shard: its mass, or a minimum for a non-empty shard of negligible mass */
+    private static float weight(TaskLinkBag b) {
+        int size = b.size();
+        return size == 0 ? 0 : Math.max(b.mass(), ScalarValue.EPSILON * size);
+    }
+
+    @Override
+    public Bag<TaskLink, TaskLink> commit(Consumer<TaskLink> update) {
+        if (ForkJoinPool.getCommonPoolParallelism() > 1)
+            Arrays.stream(shards).parallel().forEach(b -> b.commit(update));
+        else {
+            for (TaskLinkBag b : shards)
+                b.commit(update);
+        }
+        return this;
+    }
+
+    @Override
+    public void clear() {
+        for (TaskLinkBag b : shards)
+            b.clear();
+    }
+
+    @Override
+    public int size() {
+        int n = 0;
+        for (TaskLinkBag b : shards)
+            n += b.size();
+        return n;
+    }
+
+    @Override
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public void setCapacity(int c) {
+        int sc = shardCapacity(c, shards.length);
+        for (TaskLinkBag b : shards)
+            b.setCapacity(sc);
+        this.capacity = c;
+    }
+
+    @Override
+    public float mass() {
+        float m = 0;
+        for (TaskLinkBag b : shards)
+            m += b.mass();
+        return m;
+    }
+
+    @Override
+    public float pressure() {
+        float p = 0;
+        for (TaskLinkBag b : shards)
+            p += b.pressure();
+        return p;
+    }
+
+    @Override
+    public void pressurize(float f) {
+        f /= shards.length;
+        for (TaskLinkBag b : shards)
+            b.pressurize(f);
+    }
+
+    @Override
+    public void depressurize(float pri) {
+        pri /= shards.length;
+        for (TaskLinkBag b : shards)
+            b.depressurize(pri);
+    }
+
+    @Override
+    public float depressurizePct(float rate) {
+        float p = 0;
+        for (TaskLinkBag b : shards)
+            p += b.depressurizePct(rate);
+        return p;
+    }
+
+    @Override
+    public Iterator<TaskLink> iterator() {
+        return Iterators.concat(Iterators.transform(Iterators.forArray(shards), TaskLinkBag::iterator));
+    }
+
+    @Override
+    public void forEach(Consumer<? super TaskLink> each) {
+        for (TaskLinkBag b : shards)
+            b.forEach(each);
+    }
+
+    @Override
+    public void forEachSource(Term source, Consumer<TaskLink> each) {
+        for (TaskLinkBag b : shards)
+            b.forEachSource(source, each);
+    }
+
+    @Override
+    public void forEachTarget(Term target, Consumer<TaskLink> each) {
+        for (TaskLinkBag b : shards)
+            b.forEachTarget(target, each);
+    }
+}
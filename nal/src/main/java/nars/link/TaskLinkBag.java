@@ -0,0 +1,95 @@
+package nars.link;
+
+import jcog.pri.bag.impl.ArrayBag;
+import jcog.pri.op.PriMerge;
+import nars.term.Term;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * tasklink bag which maintains an index of its links by their source and target terms,
+ * so that the links of a term can be found without scanning the bag.
+ * <p>
+ * the index is updated by the bag's add and remove events (which include evictions).
+ * because add events are delivered after the bag's lock is released, a link removed
+ * concurrently may remain indexed; such entries are skipped and purged when visited.
+ */
+public class TaskLinkBag extends ArrayBag<TaskLink, TaskLink> implements TaskLinkIndex {
+
+    private final PriMerge merge;
+
+    private final Map<Term, Set<TaskLink>> bySource = new ConcurrentHashMap<>();
+    private final Map<Term, Set<TaskLink>> byTarget = new ConcurrentHashMap<>();
+
+    public TaskLinkBag(int capacity, PriMerge merge) {
+        super(capacity, merge, new HashMap<>(capacity * 2, 0.99f));
+        this.merge = merge;
+    }
+
+    @Override
+    public final TaskLink key(TaskLink value) {
+        return value;
+    }
+
+    @Override
+    protected float merge(TaskLink existing, TaskLink incoming) {
+        return existing.merge(incoming, merge);
+    }
+
+    @Override
+    public void onAdd(TaskLink x) {
+        index(bySource, x.source(), x);
+        index(byTarget, x.target(), x);
+    }
+
+    @Override
+    public void onRemove(TaskLink x) {
+        unindex(bySource, x.source(), x);
+        unindex(byTarget, x.target(), x);
+    }
+
+    private static void index(Map<Term, Set<TaskLink>> index, Term t, TaskLink x) {
+        index.compute(t, (k, s) -> {
+            if (s == null)
+                s = ConcurrentHashMap.newKeySet(2);
+            s.add(x);
+            return s;
+        });
+    }
+
+    private static void unindex(Map<Term, Set<TaskLink>> index, Term t, TaskLink x) {
+        index.computeIfPresent(t, (k, s) -> s.remove(x) && s.isEmpty() ? null : s);
+    }
+
+    @Override
+    public final void forEachSource(Term source, Consumer<TaskLink> each) {
+        forEach(bySource, source, each);
+    }
+
+    @Override
+    public final void forEachTarget(Term target, Consumer<TaskLink> each) {
+        forEach(byTarget, target, each);
+    }
+
+    private void forEach(Map<Term, Set<TaskLink>> index, Term t, Consumer<TaskLink> each) {
+        Set<TaskLink> s = index.get(t);
+        if (s == null)
+            return;
+        for (TaskLink x : s) {
+            TaskLink y = get(x);
+            if (y != null)
+                each.accept(y);
+            else
+                unindex(index, t, x); //stale
+        }
+    }
+
+    /** number of indexed source terms */
+    public final int sources() {
+        return bySource.size();
+    }
+}
@@ -0,0 +1,26 @@
+package nars.link;
+
+import jcog.pri.bag.Bag;
+import jcog.pri.bag.util.ProxyBag;
+import nars.term.Term;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.Consumer;
+
+/** a tasklink bag which can find its links by source or target term */
+public interface TaskLinkIndex {
+
+    /** visits the links whose source is the given term */
+    void forEachSource(Term source, Consumer<TaskLink> each);
+
+    /** visits the links whose target is the given term */
+    void forEachTarget(Term target, Consumer<TaskLink> each);
+
+    /** the index of a bag, or of one it proxies (ex: BufferedBag), if any */
+    @Nullable
+    static TaskLinkIndex of(Bag<?, ?> b) {
+        while (b instanceof ProxyBag)
+            b = ((ProxyBag) b).bag;
+        return b instanceof TaskLinkIndex ? (TaskLinkIndex) b : null;
+    }
+}
@@ -1,5 +1,6 @@
 package nars.op.mental;
 
+import jcog.data.list.FasterList;
 import nars.NAR;
 import nars.Task;
 import nars.concept.Concept;
@@ -48,6 +49,12 @@ public final class AliasConcept extends TaskConcept {
 
     }
 
+    @Override
+    public void add(FasterList<Remember> r, NAR n) {
+        for (Remember x : r)
+            add(x, n);
+    }
+
     @Override
     public BeliefTable beliefs() {
         return abbr.beliefs();
@@ -9,6 +9,7 @@ import nars.control.op.Remember;
 import nars.task.util.Answer;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -38,6 +39,11 @@ public class BeliefTables implements BeliefTable {
 
     public final FasterList<BeliefTable> tables;
 
+    private static final AtomicIntegerFieldUpdater<BeliefTables> VERSION =
+            AtomicIntegerFieldUpdater.newUpdater(BeliefTables.class, "version");
+
+    private volatile int version = 0;
+
     public BeliefTables(BeliefTable... tables) {
         this(new FasterList<>(tables));
     }
@@ -149,6 +155,7 @@ public class BeliefTables implements BeliefTable {
             t.add(rr, n);
             return !rr.done(); //if one of the tables cancelled it, stop here
         }, r);
+        changed();
 
 //        if (Param.ETERNALIZE_FORGOTTEN_TEMPORALS) {
 //            if (eternal != EternalTable.EMPTY && !r.forgotten.isEmpty() &&
@@ -167,6 +174,32 @@ public class BeliefTables implements BeliefTable {
 
     }
 
+    @Override
+    public void add(Remember[] r, NAR n) {
+        for (BeliefTable t : tables) {
+            t.add(r, n);
+
+            //those cancelled by a table stop there
+            int remain = 0;
+            for (Remember x : r) {
+                if (!x.done())
+                    remain++;
+            }
+            if (remain == 0)
+                break;
+            if (remain < r.length) {
+                Remember[] next = new Remember[remain];
+                int k = 0;
+                for (Remember x : r) {
+                    if (!x.done())
+                        next[k++] = x;
+                }
+                r = next;
+            }
+        }
+        changed();
+    }
+
 
 
     @Override
@@ -177,12 +210,30 @@ public class BeliefTables implements BeliefTable {
 
     @Override
     public boolean removeTask(Task x, boolean delete) {
-        return tables.count(t -> t.removeTask(x, delete)) > 0;
+        if (tables.count(t -> t.removeTask(x, delete)) > 0) {
+            changed();
+            return true;
+        }
+        return false;
     }
 
     @Override
     public void clear() {
         tables.forEach(TaskTable::clear);
+        changed();
+    }
+
+    /**
+     * changes after each change of the tables' tasks (addition, removal, clear),
+     * so that results computed from them can be validated
+     */
+    public final int version() {
+        return version;
+    }
+
+    /** also called after its tables are changed from outside of it, ex: by background compaction */
+    public final void changed() {
+        VERSION.incrementAndGet(this);
     }
 
     public final void delete() {
@@ -26,6 +26,15 @@ public interface TaskTable {
      */
     void add(Remember r, NAR n);
 
+    /**
+     * attempt to insert several tasks of the same concept and punctuation.
+     * implementations may amortize their synchronization over the batch
+     */
+    default void add(Remember[] r, NAR n) {
+        for (Remember x : r)
+            add(x, n);
+    }
+
 
     /**
      * number of items in this collection
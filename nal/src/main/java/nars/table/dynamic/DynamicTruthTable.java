@@ -1,10 +1,17 @@
 package nars.table.dynamic;
 
+import jcog.Util;
+import jcog.data.map.MRUMap;
+import nars.NAR;
+import nars.Param;
 import nars.Task;
 import nars.task.util.Answer;
 import nars.term.Term;
 import nars.truth.dynamic.AbstractDynamicTruth;
 import nars.truth.dynamic.DynTaskify;
+import org.jetbrains.annotations.Nullable;
+
+import static nars.time.Tense.ETERNAL;
 
 
 /**
@@ -15,6 +22,9 @@ public final class DynamicTruthTable extends DynamicTaskTable {
 
     private final AbstractDynamicTruth model;
 
+    /** recent results, by query; allocated on first use */
+    @Nullable private volatile MRUMap<Query, DynTaskify.Result> cache = null;
+
     public DynamicTruthTable(Term c, AbstractDynamicTruth model, boolean beliefOrGoal) {
         super(c, beliefOrGoal);
         this.model = model;
@@ -27,11 +37,85 @@ public final class DynamicTruthTable extends DynamicTaskTable {
         if (a.template == null)
             a.template(term);
 
-        Task tt = DynTaskify.task(model, beliefOrGoal, a);
+        Task tt = Param.DYNAMIC_TRUTH_CACHE_CAPACITY > 0 && a.filter == null ?
+                cached(a) :
+                DynTaskify.task(model, beliefOrGoal, a);
         if (tt != null)
             a.tryAccept(tt);
     }
 
+    /**
+     * the task of a previous result for the same query, if the tables of its components
+     * have not changed since, otherwise of a new result
+     */
+    @Nullable
+    private Task cached(Answer a) {
+        NAR nar = a.nar;
+        long start = a.time.start;
+        //an eternal query prefers components nearest the present time
+        Query q = new Query(a.template, start, a.time.end, nar.dur(), start == ETERNAL ? nar.time() : ETERNAL);
+
+        MRUMap<Query, DynTaskify.Result> cache = cache();
+        DynTaskify.Result r;
+        synchronized (cache) {
+            r = cache.get(q);
+        }
+
+        if (r == null || !r.valid()) {
+            r = DynTaskify.result(model, beliefOrGoal, a);
+            synchronized (cache) {
+                if (r != null && r.versioned())
+                    cache.put(q, r);
+                else
+                    cache.remove(q);
+            }
+            if (r == null)
+                return null;
+        }
+
+        return r.task(nar);
+    }
+
+    private MRUMap<Query, DynTaskify.Result> cache() {
+        MRUMap<Query, DynTaskify.Result> c = cache;
+        if (c == null) {
+            synchronized (this) {
+                if ((c = cache) == null)
+                    cache = c = new MRUMap<>(Param.DYNAMIC_TRUTH_CACHE_CAPACITY);
+            }
+        }
+        return c;
+    }
+
+    /** key of a cached result: the template, time range, and the durations by which it was evaluated */
+    private static final class Query {
+        final Term template;
+        final long start, end, now;
+        final int dur;
+        final int hash;
+
+        Query(Term template, long start, long end, int dur, long now) {
+            this.template = template;
+            this.start = start; this.end = end;
+            this.dur = dur; this.now = now;
+            this.hash = Util.hashCombine(Util.hashCombine(template.hashCode(), Long.hashCode(start), Long.hashCode(end)), dur, Long.hashCode(now));
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Query)) return false;
+            Query k = (Query) o;
+            return hash == k.hash && start == k.start && end == k.end && dur == k.dur && now == k.now &&
+                    template.equals(k.template);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
 
 
 
@@ -75,6 +75,7 @@ public class SensorBeliefTables extends BeliefTables {
                 n);
 
         series.clean(tables);
+        changed();
 
         if (x!=null) {
             SeriesBeliefTable.SeriesRemember y = x.input(c);
@@ -0,0 +1,121 @@
+package nars.table.temporal;
+
+import jcog.math.FloatRange;
+import jcog.service.Service;
+import nars.NAR;
+import nars.concept.TaskConcept;
+import nars.control.op.Remember;
+import nars.exe.Causable;
+import nars.table.BeliefTable;
+import nars.table.BeliefTables;
+import nars.term.atom.Atomic;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+/**
+ * compacts temporal belief tables in the background: evicts, and merges by revision,
+ * their tasks as an insertion to a full RTreeBeliefTable otherwise does.
+ * <p>
+ * while this service runs, an insertion to a full table only appends its task, up to an
+ * overflow above the table's capacity, and queues the table for compaction.  beyond the
+ * overflow the insertion compacts the table itself, as without this service.
+ * <p>
+ * its work is budgeted by the executor as any other Causable; its value is the backlog of queued tables.
+ * one per NAR.
+ */
+public class BeliefTableCompaction extends Causable {
+
+    static final Atomic ID = Atomic.the("beliefTableCompaction");
+
+    /** overflow allowed above a table's capacity, as a fraction of it (at least 1 task) */
+    public final FloatRange overflow = new FloatRange(0.5f, 0, 4f);
+
+    private final ConcurrentLinkedQueue<Queued> queue = new ConcurrentLinkedQueue<>();
+
+    /** size of the queue, which is not constant-time to count */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    private static final class Queued {
+        final RTreeBeliefTable table;
+        final TaskConcept concept;
+        final boolean belief;
+
+        Queued(RTreeBeliefTable table, TaskConcept concept, boolean belief) {
+            this.table = table;
+            this.concept = concept;
+            this.belief = belief;
+        }
+    }
+
+    public BeliefTableCompaction(NAR n) {
+        super(ID);
+        n.on(this);
+    }
+
+    /** the NAR's running compaction service, if any */
+    @Nullable
+    static BeliefTableCompaction the(NAR n) {
+        Service<NAR> s = n.services.get(ID);
+        return s instanceof BeliefTableCompaction && s.isOn() ? (BeliefTableCompaction) s : null;
+    }
+
+    /** the size a table may reach before its insertions compact it themselves */
+    int limit(int capacity) {
+        return capacity + Math.max(1, Math.round(capacity * overflow.floatValue()));
+    }
+
+    void queue(RTreeBeliefTable table, TaskConcept concept, boolean belief) {
+        queue.add(new Queued(table, concept, belief));
+        queued.incrementAndGet();
+    }
+
+    /** number of tables queued for compaction */
+    public int size() {
+        return queued.get();
+    }
+
+    @Override
+    protected void next(NAR n, BooleanSupplier kontinue) {
+        do {
+            Queued q = queue.poll();
+            if (q == null)
+                return;
+            queued.decrementAndGet();
+
+            //dequeue first so that insertions during the compaction queue it again
+            q.table.dequeued();
+
+            Remember r = new Remember(null, q.concept);
+            if (q.table.compact(q.belief, r, n)) {
+                BeliefTable t = q.belief ? q.concept.beliefs() : q.concept.goals();
+                if (t instanceof BeliefTables)
+                    ((BeliefTables) t).changed();
+            }
+            r.commit(n);
+
+        } while (kontinue.getAsBoolean());
+    }
+
+    @Override
+    public float value() {
+        int s = queued.get();
+        return s / (1f + s);
+    }
+
+    @Override
+    public void clear() {
+        Queued q;
+        while ((q = queue.poll()) != null) {
+            queued.decrementAndGet();
+            q.table.dequeued();
+        }
+    }
+
+    @Override
+    protected void stopping(NAR nar) {
+        clear();
+    }
+}
@@ -0,0 +1,498 @@
+package nars.table.temporal;
+
+import jcog.WTF;
+import jcog.data.list.FasterList;
+import jcog.util.LambdaStampedLock;
+import nars.NAR;
+import nars.Param;
+import nars.Task;
+import nars.control.op.Remember;
+import nars.task.NALTask;
+import nars.task.TaskProxy;
+import nars.task.UnevaluatedTask;
+import nars.task.signal.SignalTask;
+import nars.task.util.Answer;
+import nars.term.Term;
+import nars.truth.PreciseTruth;
+import nars.truth.Truth;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+import static nars.Op.BELIEF;
+import static nars.time.Tense.ETERNAL;
+import static nars.truth.func.TruthFunctions.c2wSafe;
+
+/**
+ * temporal belief table storing its tasks as parallel primitive arrays (columns)
+ * sorted by start time.  Task instances are only constructed for output, so a scan
+ * touches a few contiguous arrays rather than a graph of Task and Truth objects.
+ * <p>
+ * intended for concepts with many temporally disjoint beliefs, ex: sensors.
+ * match(Answer) visits rows nearest-first in O(log n + k) by binary searching the
+ * target time and expanding outward.
+ * <p>
+ * differences from RTreeBeliefTable: when over capacity the weakest row is evicted
+ * (no revision merging), and an output task is a copy, so changes to it (ex: priority)
+ * do not affect the stored row.  only Remember.merge writes priority, cause and creation
+ * back to the row.
+ */
+public class ColumnarBeliefTable extends LambdaStampedLock implements TemporalBeliefTable {
+
+    private static final int INITIAL_ROWS = 8;
+
+    private int capacity;
+
+    /** number of rows */
+    private volatile int size;
+
+    /** punctuation of the stored tasks */
+    private byte punc;
+
+    /**
+     * upper bound of (end - start) of all rows, used to bound the search for
+     * intervals which begin before a target time
+     */
+    private long maxSpan;
+
+    private long[] start = new long[0], end = new long[0], creation = new long[0];
+    private float[] freq = new float[0], conf = new float[0], pri = new float[0];
+    private long[][] stamp = new long[0][];
+    private short[][] cause = new short[0][];
+    private Term[] term = new Term[0];
+
+    @Override
+    public void setTaskCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** constructs the task of a row */
+    private Task task(int i) {
+        NALTask t = new UnevaluatedTask(term[i], punc, PreciseTruth.byConf(freq[i], conf[i]),
+                creation[i], start[i], end[i], stamp[i]);
+        t.cause(cause[i]);
+        t.pri(pri[i]);
+        return t;
+    }
+
+    private void set(int i, Task x) {
+        start[i] = x.start();
+        end[i] = x.end();
+        creation[i] = x.creation();
+        freq[i] = x.freq();
+        conf[i] = x.conf();
+        pri[i] = x.priElseZero();
+        stamp[i] = x.stamp();
+        cause[i] = x.cause();
+        term[i] = x.term();
+        maxSpan = Math.max(maxSpan, end[i] - start[i]);
+    }
+
+    /** index of the first row starting after t */
+    private int after(long t) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (start[mid] <= t)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /** index of the first row starting at or after t */
+    private int from(long t) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (start[mid] < t)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+        return lo;
+    }
+
+    /** index of the row equal to the task (see Task.equal), or -1 */
+    private int indexOf(Task x) {
+        long s = x.start(), e = x.end();
+        long[] xStamp = x.stamp();
+        int xTruth = x.truth().hashCode();
+        for (int i = from(s), n = size; i < n && start[i] == s; i++) {
+            if (end[i] == e && Arrays.equals(stamp[i], xStamp) &&
+                    Truth.truthToInt(freq[i], conf[i], Truth.hashDiscretenessEpsilon) == xTruth &&
+                    term[i].equals(x.term()))
+                return i;
+        }
+        return -1;
+    }
+
+    private void ensureRows(int rows) {
+        int c = start.length;
+        if (rows <= c)
+            return;
+        int next = Math.max(rows, Math.max(INITIAL_ROWS, c + (c >> 1)));
+        start = Arrays.copyOf(start, next);
+        end = Arrays.copyOf(end, next);
+        creation = Arrays.copyOf(creation, next);
+        freq = Arrays.copyOf(freq, next);
+        conf = Arrays.copyOf(conf, next);
+        pri = Arrays.copyOf(pri, next);
+        stamp = Arrays.copyOf(stamp, next);
+        cause = Arrays.copyOf(cause, next);
+        term = Arrays.copyOf(term, next);
+    }
+
+    /** inserts the task in start-time order.  sequential input (ex: sensors) appends */
+    private int insert(Task x) {
+        int n = size;
+        ensureRows(n + 1);
+        int i = after(x.start());
+        if (i < n) {
+            int m = n - i;
+            System.arraycopy(start, i, start, i + 1, m);
+            System.arraycopy(end, i, end, i + 1, m);
+            System.arraycopy(creation, i, creation, i + 1, m);
+            System.arraycopy(freq, i, freq, i + 1, m);
+            System.arraycopy(conf, i, conf, i + 1, m);
+            System.arraycopy(pri, i, pri, i + 1, m);
+            System.arraycopy(stamp, i, stamp, i + 1, m);
+            System.arraycopy(cause, i, cause, i + 1, m);
+            System.arraycopy(term, i, term, i + 1, m);
+        }
+        set(i, x);
+        size = n + 1;
+        return i;
+    }
+
+    private void removeRow(int i) {
+        int n = size - 1, m = n - i;
+        if (m > 0) {
+            System.arraycopy(start, i + 1, start, i, m);
+            System.arraycopy(end, i + 1, end, i, m);
+            System.arraycopy(creation, i + 1, creation, i, m);
+            System.arraycopy(freq, i + 1, freq, i, m);
+            System.arraycopy(conf, i + 1, conf, i, m);
+            System.arraycopy(pri, i + 1, pri, i, m);
+            System.arraycopy(stamp, i + 1, stamp, i, m);
+            System.arraycopy(cause, i + 1, cause, i, m);
+            System.arraycopy(term, i + 1, term, i, m);
+        }
+        stamp[n] = null;
+        cause[n] = null;
+        term[n] = null;
+        size = n;
+        if (n == 0)
+            maxSpan = 0;
+    }
+
+    /** same ranking as RTreeBeliefTable's eviction: evidence at now, integrated over the range, discounted if past */
+    private int weakest(long now, int dur) {
+        float pastDiscount = 1f - ((punc == BELIEF ?
+                RTreeBeliefTable.PRESENT_AND_FUTURE_BOOST_BELIEF : RTreeBeliefTable.PRESENT_AND_FUTURE_BOOST_GOAL) - 1f);
+        long futureThresh = now - dur * 2;
+
+        int weakest = -1;
+        float weakestStrength = Float.POSITIVE_INFINITY;
+        for (int i = 0, n = size; i < n; i++) {
+            long s = start[i], e = end[i];
+            long dist = s <= now && e >= now ? 0 : Math.min(Math.abs(s - now), Math.abs(e - now));
+            float evi = c2wSafe(conf[i]);
+            if (dist > 0)
+                evi = dur == 0 ? 0 : Param.evi(evi, dist, dur);
+            float strength = (e < futureThresh ? pastDiscount : 1f) * evi * (e - s + 1);
+            if (strength < weakestStrength) {
+                weakest = i;
+                weakestStrength = strength;
+            }
+        }
+        return weakest;
+    }
+
+    @Override
+    public void add(Remember r, NAR n) {
+
+        if (r.input.isEternal() || capacity == 0)
+            return;
+
+        Task input;
+        if (r.input instanceof TaskProxy) {
+            input = ((TaskProxy) r.input).the();
+            if (input == null)
+                throw new WTF();
+        } else {
+            input = r.input;
+        }
+
+        long now = n.time();
+        int dur = n.dur();
+
+        Task[] existing = {null};
+        boolean[] rejected = {false};
+        FasterList<Task> evicted = new FasterList<>(0);
+
+        write(() -> {
+            int e = indexOf(input);
+            if (e >= 0) {
+                existing[0] = task(e);
+                return;
+            }
+
+            if (size == 0)
+                punc = input.punc();
+
+            int x = insert(input);
+            while (size > capacity) {
+                int w = weakest(now, dur);
+                if (w == x) {
+                    rejected[0] = true;
+                } else {
+                    evicted.add(task(w));
+                    if (w < x) x--;
+                }
+                removeRow(w);
+                if (rejected[0])
+                    break;
+            }
+        });
+
+        if (existing[0] != null) {
+            Task prev = existing[0];
+            r.merge(prev, n);
+            write(() -> {
+                int e = indexOf(prev);
+                if (e >= 0) {
+                    pri[e] = prev.priElseZero();
+                    creation[e] = prev.creation();
+                    cause[e] = prev.cause();
+                }
+            });
+            return;
+        }
+
+        for (Task t : evicted)
+            r.forget(t);
+
+        if (rejected[0] || input.isDeleted()) {
+            r.forget(input);
+            onReject(input, n);
+        } else {
+            r.remember(input);
+            onRemember(input, n);
+        }
+    }
+
+    protected void onReject(Task input, NAR n) {
+        /* optional: implement in subclasses */
+    }
+
+    protected void onRemember(Task input, NAR n) {
+        /* optional: implement in subclasses */
+    }
+
+    @Override
+    public void update(SignalTask x, Runnable change) {
+        write(() -> {
+            int i = indexOf(x);
+
+            change.run();
+
+            if (i < 0)
+                return;
+
+            if (x.isDeleted()) {
+                removeRow(i);
+            } else if (x.start() == start[i]) {
+                set(i, x);
+            } else {
+                removeRow(i);
+                insert(x);
+            }
+        });
+    }
+
+    /**
+     * visits the rows nearest to the answer's time first: rows starting after the target
+     * are ordered by start; rows starting before it are bounded by maxSpan and held in a small
+     * pending set until no unvisited row can be nearer.
+     */
+    @Override
+    public void match(Answer a) {
+        if (size == 0)
+            return;
+
+        read(() -> {
+            int n = size;
+            if (n == 0)
+                return;
+
+            long ts = a.time.start, te;
+            if (ts == ETERNAL) {
+                ts = te = a.nar.time();
+            } else {
+                te = a.time.end;
+            }
+
+            //rows whose distance is known but which may not be visited yet
+            long[] pd = new long[8];
+            int[] pr = new int[8];
+            int pending = 0;
+
+            int right = after(te), left = right - 1;
+            while (true) {
+                long leftBound = left >= 0 ? Math.max(0, ts - start[left] - maxSpan) : Long.MAX_VALUE;
+                long rightDist = right < n ? start[right] - te : Long.MAX_VALUE;
+
+                int p = -1;
+                long pDist = Long.MAX_VALUE;
+                for (int j = 0; j < pending; j++) {
+                    if (pd[j] < pDist) {
+                        p = j;
+                        pDist = pd[j];
+                    }
+                }
+
+                int next;
+                if (p >= 0 && pDist <= leftBound && pDist <= rightDist) {
+                    next = pr[p];
+                    pending--;
+                    pd[p] = pd[pending];
+                    pr[p] = pr[pending];
+                } else if (right < n && rightDist <= leftBound) {
+                    next = right++;
+                } else if (left >= 0) {
+                    if (pending == pd.length) {
+                        pd = Arrays.copyOf(pd, pending * 2);
+                        pr = Arrays.copyOf(pr, pending * 2);
+                    }
+                    pd[pending] = Math.max(0, ts - end[left]);
+                    pr[pending++] = left--;
+                    continue;
+                } else {
+                    break;
+                }
+
+                if (a.time.accept(start[next], end[next]) && !a.tryAccept(task(next)))
+                    break;
+            }
+        });
+    }
+
+    /** tasks of the rows intersecting the range, copied while locked */
+    private Task[] tasks(long minT, long maxT) {
+        return read(() -> {
+            int n = size;
+            if (n == 0)
+                return Task.EmptyArray;
+            int from = minT == Long.MIN_VALUE ? 0 : from(minT - maxSpan);
+            int to = maxT == Long.MAX_VALUE ? n : after(maxT);
+            FasterList<Task> l = new FasterList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                if (end[i] >= minT)
+                    l.add(task(i));
+            }
+            return l.toArrayRecycled(Task[]::new);
+        });
+    }
+
+    @Override
+    public Task[] toArray() {
+        return tasks(Long.MIN_VALUE, Long.MAX_VALUE);
+    }
+
+    @Override
+    public Stream<? extends Task> streamTasks() {
+        return Stream.of(toArray());
+    }
+
+    @Override
+    public void whileEach(Predicate<? super Task> each) {
+        for (Task t : toArray()) {
+            if (!each.test(t))
+                break;
+        }
+    }
+
+    @Override
+    public void whileEach(long minT, long maxT, Predicate<? super Task> each) {
+        for (Task t : tasks(minT, maxT)) {
+            if (!each.test(t))
+                break;
+        }
+    }
+
+    @Override
+    public void forEachTask(long minT, long maxT, Consumer<? super Task> x) {
+        for (Task t : tasks(minT, maxT))
+            x.accept(t);
+    }
+
+    @Override
+    public void forEachTask(Consumer<? super Task> x) {
+        for (Task t : toArray())
+            x.accept(t);
+    }
+
+    @Override
+    public boolean removeTask(Task x, boolean delete) {
+        if (x.isEternal())
+            return false;
+
+        boolean removed = write(() -> {
+            int i = indexOf(x);
+            if (i < 0)
+                return false;
+            removeRow(i);
+            return true;
+        });
+        if (removed && delete)
+            x.delete();
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        write(() -> {
+            Arrays.fill(stamp, null);
+            Arrays.fill(cause, null);
+            Arrays.fill(term, null);
+            size = 0;
+            maxSpan = 0;
+        });
+    }
+
+    @Override
+    public long tableDur() {
+        return read(() -> {
+            int n = size;
+            if (n == 0)
+                return 0L;
+            long e = Long.MIN_VALUE;
+            for (int i = 0; i < n; i++)
+                e = Math.max(e, end[i]);
+            return e - start[0];
+        });
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + '[' + size + '/' + capacity + ']';
+    }
+}
@@ -0,0 +1,188 @@
+package nars.table.temporal;
+
+import jcog.tree.rtree.Space;
+import nars.Task;
+import nars.task.util.Answer;
+import nars.task.util.TaskRegion;
+import org.eclipse.collections.api.block.function.primitive.FloatFunction;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * RTreeBeliefTable whose readers do not take the tree's lock.
+ * <p>
+ * writers insert, merge and evict in the tree as before, and before releasing the write lock
+ * publish an immutable array of the table's tasks.  match(Answer) and the iteration methods
+ * read the latest published array, so many derivers can answer from a hot concept (ex: a sensor)
+ * while its writer proceeds.  a reader may see the table as it was before a concurrent write.
+ * <p>
+ * the array is copied on each write, which is proportional to the table's capacity.
+ */
+public class CopyOnWriteRTreeBeliefTable extends RTreeBeliefTable {
+
+    private static final TaskRegion[] Empty = new TaskRegion[0];
+
+    private volatile TaskRegion[] snapshot = Empty;
+
+    /** called while holding the write lock */
+    private void publish(Space<TaskRegion> tree) {
+        int s = tree.size();
+        if (s == 0) {
+            snapshot = Empty;
+        } else {
+            TaskRegion[] next = new TaskRegion[s];
+            int[] n = {0};
+            tree.forEach(x -> {
+                if (n[0] < s) next[n[0]++] = x;
+            });
+            snapshot = n[0] == s ? next : Arrays.copyOf(next, n[0]);
+        }
+    }
+
+    @Override
+    public void write(Consumer<Space<TaskRegion>> x) {
+        super.write((Consumer<Space<TaskRegion>>) t -> {
+            x.accept(t);
+            publish(t);
+        });
+    }
+
+    @Override
+    public boolean write(Predicate<Space<TaskRegion>> x) {
+        return super.write((Predicate<Space<TaskRegion>>) t -> {
+            boolean y = x.test(t);
+            publish(t);
+            return y;
+        });
+    }
+
+    @Override
+    public boolean add(TaskRegion t) {
+        return write((Predicate<Space<TaskRegion>>) tree -> tree.add(t));
+    }
+
+    @Override
+    public boolean remove(TaskRegion t) {
+        return write((Predicate<Space<TaskRegion>>) tree -> tree.remove(t));
+    }
+
+    @Override
+    public boolean replace(TaskRegion told, TaskRegion tnew) {
+        write((Predicate<Space<TaskRegion>>) tree -> tree.replace(told, tnew));
+        return false;
+    }
+
+    @Override
+    public void clear() {
+        write((Consumer<Space<TaskRegion>>) Space::clear);
+    }
+
+    /**
+     * visits the published tasks from nearest to furthest in time until the answer is satisfied.
+     * the next nearest is selected on demand since answers usually stop after a few tasks.
+     */
+    @Override
+    public void match(Answer a) {
+        TaskRegion[] s = snapshot;
+        int n = s.length;
+        if (n == 0)
+            return;
+
+        if (n == 1) {
+            a.tryAccept((Task) s[0]);
+            return;
+        }
+
+        FloatFunction<TaskRegion> timeDist = a.temporalDistanceFn();
+        float[] rank = new float[n];
+        for (int i = 0; i < n; i++)
+            rank[i] = timeDist.floatValueOf(s[i]);
+
+        for (int remain = n; remain > 0; remain--) {
+            int best = -1;
+            float bestRank = Float.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                float r = rank[i];
+                if (r == r && (best == -1 || r > bestRank)) {
+                    best = i;
+                    bestRank = r;
+                }
+            }
+            if (best == -1)
+                break;
+
+            rank[best] = Float.NaN;
+            if (!a.tryAccept((Task) s[best]))
+                break;
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return snapshot.length == 0;
+    }
+
+    @Override
+    public Stream<? extends Task> streamTasks() {
+        return Stream.of(snapshot).map(TaskRegion::task).filter(Objects::nonNull);
+    }
+
+    @Override
+    public Task[] toArray() {
+        TaskRegion[] s = snapshot;
+        if (s.length == 0)
+            return Task.EmptyArray;
+        Task[] t = new Task[s.length];
+        int n = 0;
+        for (TaskRegion x : s) {
+            Task y = x.task();
+            if (y != null && !y.isDeleted())
+                t[n++] = y;
+        }
+        return n == t.length ? t : Arrays.copyOf(t, n);
+    }
+
+    @Override
+    public void whileEach(Predicate<? super Task> each) {
+        Predicate<TaskRegion> e = TaskRegion.asTask(each);
+        for (TaskRegion x : snapshot) {
+            if (!e.test(x))
+                break;
+        }
+    }
+
+    @Override
+    public void whileEach(long minT, long maxT, Predicate<? super Task> each) {
+        Predicate<TaskRegion> e = TaskRegion.asTask(each);
+        for (TaskRegion x : snapshot) {
+            if (x.intersects(minT, maxT) && !e.test(x))
+                break;
+        }
+    }
+
+    @Override
+    public void forEachTask(long minT, long maxT, Consumer<? super Task> each) {
+        Consumer<TaskRegion> e = TaskRegion.asTask(each);
+        for (TaskRegion x : snapshot) {
+            if (x.intersects(minT, maxT))
+                e.accept(x);
+        }
+    }
+
+    @Override
+    public void forEachTask(Consumer<? super Task> each) {
+        for (TaskRegion x : snapshot)
+            each.accept((Task) x);
+    }
+
+    @Override
+    public void forEach(Consumer<? super TaskRegion> each) {
+        for (TaskRegion x : snapshot)
+            each.accept(x);
+    }
+
+}
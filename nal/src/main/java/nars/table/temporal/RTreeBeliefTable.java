@@ -10,6 +10,7 @@ import jcog.tree.rtree.*;
 import jcog.tree.rtree.split.AxialSplitLeaf;
 import nars.NAR;
 import nars.Task;
+import nars.concept.TaskConcept;
 import nars.control.op.Remember;
 import nars.task.Revision;
 import nars.task.TaskProxy;
@@ -21,14 +22,15 @@ import org.eclipse.collections.api.block.function.primitive.FloatFunction;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 public class RTreeBeliefTable extends ConcurrentRTree<TaskRegion> implements TemporalBeliefTable {
 
-    private static final float PRESENT_AND_FUTURE_BOOST_BELIEF = 1.5f;
-    private static final float PRESENT_AND_FUTURE_BOOST_GOAL = 2f;
+    static final float PRESENT_AND_FUTURE_BOOST_BELIEF = 1.5f;
+    static final float PRESENT_AND_FUTURE_BOOST_GOAL = 2f;
 
 
     private static final int MIN_TASKS_PER_LEAF = 2;
@@ -40,6 +42,12 @@ public class RTreeBeliefTable extends ConcurrentRTree<TaskRegion> implements Tem
 
     protected int capacity;
 
+    private static final AtomicIntegerFieldUpdater<RTreeBeliefTable> QUEUED =
+            AtomicIntegerFieldUpdater.newUpdater(RTreeBeliefTable.class, "queued");
+
+    /** 1 while queued for compaction by BeliefTableCompaction */
+    private volatile int queued = 0;
+
 
     public RTreeBeliefTable() {
         super(new RTree<>(RTreeBeliefModel.the));
@@ -237,15 +245,7 @@ public class RTreeBeliefTable extends ConcurrentRTree<TaskRegion> implements Tem
         /** buffer removal handling until outside of the locked section */
 
 
-        Task input;
-        if (r.input instanceof TaskProxy) {
-            //dont store TaskProxy's
-            input = ((TaskProxy) r.input).the();
-            if (input == null)
-                throw new WTF();
-        } else {
-            input = r.input;
-        }
+        Task input = stored(r.input);
 
 //        if (r.input instanceof SpecialTruthAndOccurrenceTask) {
 //            //dont do this for SpecialTermTask coming from Image belief table
@@ -258,17 +258,132 @@ public class RTreeBeliefTable extends ConcurrentRTree<TaskRegion> implements Tem
 //        }
 
 
+        BeliefTableCompaction compaction = BeliefTableCompaction.the(n);
+        int limit = compaction != null ? compaction.limit(capacity) : capacity;
+        TaskConcept concept = r.concept;
+        boolean belief = input.isBelief();
+
         /** inserted but not necessarily kept */
         write(treeRW -> {
             if (treeRW.add(input)) {
-                ensureCapacity(treeRW, input, r, n);
+                ensureCapacity(treeRW, input, belief, limit, r, n);
             }
         });
 
         Task existing = RTreeBeliefModel.merged.get();
         if (existing != null && existing.equals(input)) {
-            r.merge(existing, n);
             RTreeBeliefModel.merged.remove();
+        }
+        added(r, input, existing, n);
+
+        if (compaction != null)
+            overflowed(compaction, concept, belief);
+
+
+    }
+
+    /**
+     * inserts the batch's temporal tasks within one write lock, then completes each
+     * as add(Remember, NAR) does
+     */
+    @Override
+    public void add(Remember[] r, NAR n) {
+        if (capacity == 0)
+            return;
+
+        int s = r.length;
+        Task[] input = new Task[s], existing = new Task[s];
+        int k = 0;
+        for (int i = 0; i < s; i++) {
+            Task x = r[i].input;
+            if (x != null && !x.isEternal()) {
+                input[i] = stored(x);
+                k++;
+            }
+        }
+        if (k == 0)
+            return;
+
+        BeliefTableCompaction compaction = BeliefTableCompaction.the(n);
+        int limit = compaction != null ? compaction.limit(capacity) : capacity;
+        TaskConcept concept = null;
+        boolean belief = true;
+        for (int i = 0; i < s; i++) {
+            if (input[i] != null) {
+                concept = r[i].concept;
+                belief = input[i].isBelief();
+                break;
+            }
+        }
+
+        write(treeRW -> {
+            for (int i = 0; i < s; i++) {
+                Task x = input[i];
+                if (x != null) {
+                    if (treeRW.add(x)) {
+                        ensureCapacity(treeRW, x, x.isBelief(), limit, r[i], n);
+                    }
+                    Task e = RTreeBeliefModel.merged.get();
+                    if (e != null) {
+                        existing[i] = e;
+                        RTreeBeliefModel.merged.remove();
+                    }
+                }
+            }
+        });
+
+        for (int i = 0; i < s; i++) {
+            if (input[i] != null)
+                added(r[i], input[i], existing[i], n);
+        }
+
+        if (compaction != null)
+            overflowed(compaction, concept, belief);
+    }
+
+    /** queues the table for compaction if its insertions have left it over capacity */
+    private void overflowed(BeliefTableCompaction compaction, @Nullable TaskConcept concept, boolean belief) {
+        if (concept != null && size() > capacity && QUEUED.compareAndSet(this, 0, 1))
+            compaction.queue(this, concept, belief);
+    }
+
+    /** called when the table is taken from the compaction queue */
+    final void dequeued() {
+        queued = 0;
+    }
+
+    /**
+     * evicts and merges tasks until the table is within its capacity, as an insertion to a full table does.
+     * returns whether any task was removed
+     *
+     * @param belief whether the table contains beliefs (or goals)
+     */
+    public boolean compact(boolean belief, Remember r, NAR n) {
+        if (size() <= capacity)
+            return false;
+
+        int before = size();
+        write(treeRW -> {
+            ensureCapacity(treeRW, null, belief, capacity, r, n);
+        });
+        return size() != before;
+    }
+
+    /** dont store TaskProxy's */
+    private static Task stored(Task x) {
+        if (x instanceof TaskProxy) {
+            Task y = ((TaskProxy) x).the();
+            if (y == null)
+                throw new WTF();
+            return y;
+        } else {
+            return x;
+        }
+    }
+
+    private void added(Remember r, Task input, @Nullable Task existing, NAR n) {
+        if (existing != null && existing.equals(input)) {
+            r.merge(existing, n);
         } else {
             if (!input.isDeleted()) {
                 r.remember(input);
@@ -278,8 +393,6 @@ public class RTreeBeliefTable extends ConcurrentRTree<TaskRegion> implements Tem
                 onReject(input, n);
             }
         }
-
-
     }
 
     protected void onReject(Task input, NAR n) {
@@ -291,24 +404,24 @@ public class RTreeBeliefTable extends ConcurrentRTree<TaskRegion> implements Tem
 
     }
 
-    private boolean ensureCapacity(Space<TaskRegion> treeRW, /*@Nullable*/ Task input, Remember remember, NAR
+    private static boolean ensureCapacity(Space<TaskRegion> treeRW, @Nullable Task input, boolean belief, int cap, Remember remember, NAR
             nar) {
 
         FloatRank<Task> taskStrength = null;
         FloatRank<TaskRegion> leafRegionWeakness = null;
-        int dur, e = 0, cap;
-        while (treeRW.size() > (cap = capacity)) {
+        int dur, e = 0;
+        while (treeRW.size() > cap) {
             if (taskStrength == null) {
                 long now = nar.time();
                 dur =
                         nar.dur();
                 //Math.max(1, Tense.occToDT(tableDur()/2));
                 taskStrength = taskStrengthWithFutureBoost(now, now - dur * 2,
-                        input.isBelief() ? PRESENT_AND_FUTURE_BOOST_BELIEF : PRESENT_AND_FUTURE_BOOST_GOAL,
+                        belief ? PRESENT_AND_FUTURE_BOOST_BELIEF : PRESENT_AND_FUTURE_BOOST_GOAL,
                         now,
                         dur
                 );
-                leafRegionWeakness = regionWeakness(now, input.isBeliefOrGoal() ? PRESENT_AND_FUTURE_BOOST_BELIEF : PRESENT_AND_FUTURE_BOOST_GOAL);
+                leafRegionWeakness = regionWeakness(now, PRESENT_AND_FUTURE_BOOST_BELIEF);
             }
             if (!compress(treeRW, e == 0 ? input : null /** only limit by inputRegion on first iter */,
                     taskStrength, leafRegionWeakness,
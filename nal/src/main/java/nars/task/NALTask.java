@@ -35,6 +35,7 @@ public class NALTask extends UnitPri implements Task {
     private final long start;
     private final long end;
     /*@Stable*/ private final long[] stamp;
+    private final long stampBloom;
     private /*volatile*/ short[] cause = ArrayUtils.EMPTY_SHORT_ARRAY;
 
     private volatile boolean cyclic;
@@ -77,6 +78,7 @@ public class NALTask extends UnitPri implements Task {
         this.end = end;
         this.creation = creation;
         this.stamp = stamp;
+        this.stampBloom = Stamp.bloom(stamp);
 
         this.hash = hashCalculate();
 
@@ -187,6 +189,11 @@ public class NALTask extends UnitPri implements Task {
         return stamp;
     }
 
+    @Override
+    public long stampBloom() {
+        return stampBloom;
+    }
+
     @Override
     public short[] cause() {
         return cause;
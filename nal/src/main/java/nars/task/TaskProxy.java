@@ -123,6 +123,11 @@ public class TaskProxy extends UnitPri implements Task {
         return task.stamp();
     }
 
+    @Override
+    public long stampBloom() {
+        return task.stampBloom();
+    }
+
     @Override
     public @Nullable Truth truth() {
         return task.truth();
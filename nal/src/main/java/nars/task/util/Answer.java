@@ -22,7 +22,6 @@ import org.eclipse.collections.api.block.function.primitive.FloatFunction;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Random;
-import java.util.function.LongPredicate;
 import java.util.function.Predicate;
 
 import static nars.Op.*;
@@ -168,15 +167,13 @@ public final class Answer implements AutoCloseable {
 
     /** TODO FloatRank not FloatFunction */
     public static FloatFunction<TaskRegion> mergeability(Task x) {
-        LongPredicate xStamp = Stamp.toContainment(x);
-
         long xStart = x.start();
         long xEnd = x.end();
 
         FloatFunction<TaskRegion> f = (TaskRegion t) -> {
 
             if (t==x || (!Param.ALLOW_REVISION_OVERLAP_IF_DISJOINT_TIME /* TODO: && !disjointTime(x,y) */
-                    && Stamp.overlapsAny(xStamp, ((Task) t).stamp())))
+                    && Stamp.overlapsAny(x, (Task) t)))
                 return Float.NaN;
 
             return
@@ -0,0 +1,212 @@
+package nars.term.control;
+
+import nars.derive.premise.PreDerivation;
+import nars.term.ProxyTerm;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * a PREDICATE tree (AND / FORK / SWITCH) compiled to generated JVM bytecode.
+ *
+ * the interpreted tree dispatches every node through the same few virtual call sites
+ * (ex: ANDn.test, FORK.test) which become megamorphic and prevent inlining.
+ * here the control structure is unrolled into straight-line branches so that each
+ * leaf predicate gets its own (monomorphic) call site.
+ *
+ * each FORK branch is emitted as a separate small method to remain under the JIT's
+ * huge method limit and within its inlining budget.
+ */
+public final class BytecodePred<X> extends AbstractPred<X> {
+
+    public final PREDICATE<X> source;
+
+    private final Predicate<X> compiled;
+
+    private BytecodePred(PREDICATE<X> source, Predicate<X> compiled) {
+        super(source instanceof ProxyTerm ? ((ProxyTerm) source).ref : source.term());
+        this.source = source;
+        this.compiled = compiled;
+    }
+
+    public static <X> PREDICATE<X> compile(PREDICATE<X> p) {
+        if (p instanceof BytecodePred)
+            return p;
+        return new BytecodePred<>(p, new Generator<>(p).generate());
+    }
+
+    @Override
+    public boolean test(X x) {
+        return compiled.test(x);
+    }
+
+    @Override
+    public float cost() {
+        return source.cost();
+    }
+
+    private static final class Generator<X> {
+
+        private static final AtomicInteger serial = new AtomicInteger();
+
+        private static final String PREDICATE_INTERNAL = Type.getInternalName(Predicate.class);
+        private static final String SWITCH_INTERNAL = Type.getInternalName(SWITCH.class);
+        private static final String PREDERIVATION_INTERNAL = Type.getInternalName(PreDerivation.class);
+        private static final String LEAVES_DESC = "[L" + PREDICATE_INTERNAL + ';';
+        private static final String TEST_DESC = "(Ljava/lang/Object;)Z";
+
+        private final PREDICATE<X> root;
+        private final String name;
+        private final ClassWriter cw;
+
+        /** leaf predicates, indexed by their position in the generated class's array field */
+        private final Map<PREDICATE<?>, Integer> leafIndex = new IdentityHashMap<>();
+        private int branches = 0;
+
+        Generator(PREDICATE<X> root) {
+            this.root = root;
+            this.name = Type.getInternalName(BytecodePred.class) + "$Gen" + serial.incrementAndGet();
+            this.cw = new ClassWriter(ClassWriter.COMPUTE_FRAMES | ClassWriter.COMPUTE_MAXS) {
+                @Override
+                protected String getCommonSuperClass(String a, String b) {
+                    //only Object and primitive values are live at branch merges
+                    return "java/lang/Object";
+                }
+            };
+        }
+
+        Predicate<X> generate() {
+            cw.visit(V1_8, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, name, null,
+                    "java/lang/Object", new String[]{PREDICATE_INTERNAL});
+
+            cw.visitField(ACC_PRIVATE | ACC_FINAL, "p", LEAVES_DESC, null, null).visitEnd();
+
+            MethodVisitor init = cw.visitMethod(ACC_PUBLIC, "<init>", "(" + LEAVES_DESC + ")V", null, null);
+            init.visitCode();
+            init.visitVarInsn(ALOAD, 0);
+            init.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+            init.visitVarInsn(ALOAD, 0);
+            init.visitVarInsn(ALOAD, 1);
+            init.visitFieldInsn(PUTFIELD, name, "p", LEAVES_DESC);
+            init.visitInsn(RETURN);
+            init.visitMaxs(0, 0);
+            init.visitEnd();
+
+            method(ACC_PUBLIC, "test", root);
+
+            cw.visitEnd();
+
+            Predicate<?>[] leaves = new Predicate<?>[leafIndex.size()];
+            leafIndex.forEach((p, i) -> leaves[i] = p);
+
+            try {
+                Class<?> c = new Loader(BytecodePred.class.getClassLoader())
+                        .define(name.replace('/', '.'), cw.toByteArray());
+                @SuppressWarnings("unchecked") Predicate<X> compiled =
+                        (Predicate<X>) c.getConstructor(Predicate[].class).newInstance((Object) leaves);
+                return compiled;
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /** emits a method which returns the boolean result of evaluating p */
+        private void method(int access, String methodName, PREDICATE<?> p) {
+            MethodVisitor m = cw.visitMethod(access, methodName, TEST_DESC, null, null);
+            m.visitCode();
+            Label fail = new Label();
+            emit(m, p, fail);
+            m.visitInsn(ICONST_1);
+            m.visitInsn(IRETURN);
+            m.visitLabel(fail);
+            m.visitInsn(ICONST_0);
+            m.visitInsn(IRETURN);
+            m.visitMaxs(0, 0);
+            m.visitEnd();
+        }
+
+        /** falls through if p is true, otherwise jumps to 'fail' */
+        private void emit(MethodVisitor m, PREDICATE<?> p, Label fail) {
+            if (p instanceof AND) {
+                AND<?> a = (AND<?>) p;
+                int n = a.subs();
+                for (int i = 0; i < n; i++)
+                    emit(m, (PREDICATE<?>) a.sub(i), fail);
+            } else if (p instanceof FORK) {
+                for (PREDICATE<?> b : ((FORK<?>) p).branch) {
+                    if (b instanceof AND || b instanceof FORK || b instanceof SWITCH) {
+                        String bm = "b" + (branches++);
+                        method(ACC_PRIVATE, bm, b);
+                        m.visitVarInsn(ALOAD, 0);
+                        m.visitVarInsn(ALOAD, 1);
+                        m.visitMethodInsn(INVOKESPECIAL, name, bm, TEST_DESC, false);
+                    } else {
+                        leaf(m, b);
+                    }
+                    m.visitInsn(POP); //FORK ignores the result of each branch
+                }
+            } else if (p instanceof SWITCH) {
+                SWITCH<?> s = (SWITCH<?>) p;
+                PREDICATE<?>[] cases = s.swtch;
+                Label end = new Label();
+                Label[] labels = new Label[cases.length];
+                for (int i = 0; i < cases.length; i++)
+                    labels[i] = cases[i] != null ? new Label() : end;
+
+                load(m, s);
+                m.visitTypeInsn(CHECKCAST, SWITCH_INTERNAL);
+                m.visitVarInsn(ALOAD, 1);
+                m.visitTypeInsn(CHECKCAST, PREDERIVATION_INTERNAL);
+                m.visitMethodInsn(INVOKEVIRTUAL, SWITCH_INTERNAL, "key", "(L" + PREDERIVATION_INTERNAL + ";)I", false);
+                m.visitTableSwitchInsn(0, cases.length - 1, end, labels);
+
+                for (int i = 0; i < cases.length; i++) {
+                    if (cases[i] == null) continue;
+                    m.visitLabel(labels[i]);
+                    emit(m, cases[i], fail);
+                    m.visitJumpInsn(GOTO, end);
+                }
+                m.visitLabel(end);
+            } else {
+                leaf(m, p);
+                m.visitJumpInsn(IFEQ, fail);
+            }
+        }
+
+        /** pushes the boolean result of a leaf predicate's test */
+        private void leaf(MethodVisitor m, PREDICATE<?> p) {
+            load(m, p);
+            m.visitVarInsn(ALOAD, 1);
+            m.visitMethodInsn(INVOKEINTERFACE, PREDICATE_INTERNAL, "test", TEST_DESC, true);
+        }
+
+        private void load(MethodVisitor m, PREDICATE<?> p) {
+            int i = leafIndex.computeIfAbsent(p, (pp) -> leafIndex.size());
+            m.visitVarInsn(ALOAD, 0);
+            m.visitFieldInsn(GETFIELD, name, "p", LEAVES_DESC);
+            if (i <= Short.MAX_VALUE)
+                m.visitIntInsn(i <= Byte.MAX_VALUE ? BIPUSH : SIPUSH, i);
+            else
+                m.visitLdcInsn(i);
+            m.visitInsn(AALOAD);
+        }
+    }
+
+    private static final class Loader extends ClassLoader {
+        Loader(ClassLoader parent) {
+            super(parent);
+        }
+
+        Class<?> define(String name, byte[] b) {
+            return defineClass(name, b, 0, b.length);
+        }
+    }
+}
@@ -68,7 +68,12 @@ public final class SWITCH<D extends PreDerivation> extends AbstractPred<D> {
 
     @Nullable
     public PREDICATE<D> branch(PreDerivation m) {
-        return swtch[(taskOrBelief ? m.taskTerm : m.beliefTerm).op().id];
+        return swtch[key(m)];
+    }
+
+    /** index of the case selected for the premise */
+    public int key(PreDerivation m) {
+        return (taskOrBelief ? m.taskTerm : m.beliefTerm).op().id;
     }
 
 
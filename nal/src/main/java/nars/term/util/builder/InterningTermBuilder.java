@@ -34,6 +34,9 @@ public class InterningTermBuilder extends HeapTermBuilder {
     protected static final int maxInternedVolumeDefault = 28;
     protected static final boolean deepDefault = true;
 
+    /** estimated mean serialized key size, for sizing the off-heap arenas */
+    private static final int offHeapKeyBytes = 64;
+
     /**
      * memory-saving
      */
@@ -45,6 +48,9 @@ public class InterningTermBuilder extends HeapTermBuilder {
     private final boolean deep;
     protected final int volInternedMax;
 
+    /** store the caches' keys off-heap (OffHeapByteMemoize) */
+    private final boolean offHeap;
+
     final Function<InternedSubterms, Subterms> subterms, anonSubterms;
     final Function<InternedCompoundByComponents, Term>[] terms;
 
@@ -56,9 +62,14 @@ public class InterningTermBuilder extends HeapTermBuilder {
     }
 
     public InterningTermBuilder(String id, boolean deep, int volInternedMax, int cacheSizePerOp) {
+        this(id, deep, volInternedMax, cacheSizePerOp, false);
+    }
+
+    public InterningTermBuilder(String id, boolean deep, int volInternedMax, int cacheSizePerOp, boolean offHeap) {
         this.id = id;
         this.deep = deep;
         this.volInternedMax = volInternedMax;
+        this.offHeap = offHeap;
         Op[] ops = values();
         terms = new Function[ops.length];
 
@@ -96,9 +107,10 @@ public class InterningTermBuilder extends HeapTermBuilder {
 
 
     protected <I extends Intermed, Y> Function<I, Y> newOpCache(String name, Function<I, Y> f, int capacity) {
-        return Memoizers.the.memoizeByte(
-                id + '_' + InterningTermBuilder.class.getSimpleName() + '_' + name,
-                capacity, f);
+        String n = id + '_' + InterningTermBuilder.class.getSimpleName() + '_' + name;
+        return offHeap ?
+                Memoizers.the.memoizeByteOffHeap(n, capacity, (int) Math.min((long) capacity * offHeapKeyBytes, 1 << 30), f) :
+                Memoizers.the.memoizeByte(n, capacity, f);
     }
 
     @Override
@@ -20,7 +20,11 @@ public class MemoizingTermBuilder extends InterningTermBuilder {
     }
 
     public MemoizingTermBuilder(String id, boolean deep, int volInternedMax, int cacheSizePerOp) {
-        super(id, deep, volInternedMax, cacheSizePerOp);
+        this(id, deep, volInternedMax, cacheSizePerOp, false);
+    }
+
+    public MemoizingTermBuilder(String id, boolean deep, int volInternedMax, int cacheSizePerOp, boolean offHeap) {
+        super(id, deep, volInternedMax, cacheSizePerOp, offHeap);
 
 
         root = newOpCache("root", j -> super.root((Compound) j.term), cacheSizePerOp);
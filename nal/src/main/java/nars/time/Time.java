@@ -57,6 +57,12 @@ public abstract class Time implements Clock, Serializable {
      */
     public abstract long nextStamp();
 
+    /**
+     * continues from a restored memory: from its time, if this clock is not realtime,
+     * and with stamps after the last it contains
+     */
+    public abstract void resume(long now, long lastStamp);
+
 
     /**
      * the default duration applied to input tasks that do not specify one
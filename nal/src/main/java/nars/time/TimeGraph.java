@@ -108,10 +108,33 @@ public class TimeGraph extends MapNodeGraph<Event, TimeSpan> {
 
     }
 
+    /** cleared event sets of byTerm, recycled by the next fill after a clear */
+    private final FasterList<ArrayHashSet<Event>> eventSets = new FasterList<>(0);
+
+    private static final int EVENT_SETS_RECYCLED_MAX = 64;
+
     @Override
     public void clear() {
         super.clear();
-        byTerm.clear();
+        if (!byTerm.isEmpty()) {
+            for (Collection<Event> e : byTerm.values()) {
+                if (eventSets.size() >= EVENT_SETS_RECYCLED_MAX)
+                    break;
+                if (e instanceof ArrayHashSet) {
+                    e.clear();
+                    eventSets.add((ArrayHashSet<Event>) e);
+                }
+            }
+            byTerm.clear();
+        }
+    }
+
+    private ArrayHashSet<Event> newEventSet(Event first) {
+        ArrayHashSet<Event> s = eventSets.poll();
+        if (s == null)
+            s = new ArrayHashSet<>(2);
+        s.add(first);
+        return s;
     }
 
     /**
@@ -301,22 +324,14 @@ public class TimeGraph extends MapNodeGraph<Event, TimeSpan> {
         Event event = x.id();
         Term eventTerm = event.id;
 
-        final boolean[] newTerm = {false}, newEvent = {false};
-        byTerm.compute(eventTerm, (k, v) -> {
-            if (v == null) {
-                newTerm[0] = newEvent[0] = true;
-                return new ArrayHashSet<Event>(2).with(event);
-            } else {
-                if (v.add(event)) {
-                    newEvent[0] = true;
-                }
-                return v;
-            }
-        });
-        if (!newEvent[0])
-            return;
-        if (newTerm[0])
+        Collection<Event> ee = byTerm.get(eventTerm);
+        if (ee.isEmpty() && !byTerm.containsKey(eventTerm)) {
+            byTerm.put(eventTerm, newEventSet(event));
             onNewTerm(eventTerm);
+        } else {
+            if (!ee.add(event))
+                return; //already present
+        }
 
 
 //        Collection<Event> ee = byTerm.get(eventTerm);
@@ -1219,6 +1234,9 @@ public class TimeGraph extends MapNodeGraph<Event, TimeSpan> {
         return bfsPush(List.of(root), tv);
     }
 
+    /** search queue, recycled by the next search */
+    private Queue<Pair<List<BooleanObjectPair<FromTo<Node<Event, nars.time.TimeSpan>, TimeSpan>>>, Node<Event, nars.time.TimeSpan>>> bfsQueue;
+
     private boolean bfsPush(Collection<Event> roots, Search<Event, TimeSpan> tv) {
 
 
@@ -1236,7 +1254,11 @@ public class TimeGraph extends MapNodeGraph<Event, TimeSpan> {
             }
         }
 
-        Queue<Pair<List<BooleanObjectPair<FromTo<Node<Event, nars.time.TimeSpan>, TimeSpan>>>, Node<Event, nars.time.TimeSpan>>> q = new ArrayDeque<>(roots.size() /* estimate TODO find good sizing heuristic */);
+        Queue<Pair<List<BooleanObjectPair<FromTo<Node<Event, nars.time.TimeSpan>, TimeSpan>>>, Node<Event, nars.time.TimeSpan>>> q = this.bfsQueue;
+        if (q == null)
+            q = new ArrayDeque<>(roots.size() /* estimate TODO find good sizing heuristic */);
+        else
+            this.bfsQueue = null; //taken; a nested search allocates its own
 
 //        Iterable<Node<Event,TimeSpan>> rr = Iterables.transform(roots, r -> {
 //            Node<Event, TimeSpan> n = node(r);
@@ -1258,7 +1280,12 @@ public class TimeGraph extends MapNodeGraph<Event, TimeSpan> {
 //        });
 //        boolean result = bfs(q, rr, tv);
 
-        boolean result = bfs(roots, q, tv);
+        boolean result;
+        try {
+            result = bfs(roots, q, tv);
+        } finally {
+            this.bfsQueue = q; //cleared by the search
+        }
 
         if (created != null && result /* tail call optimization  - dont bother removing if we're done anyway */) {
             int m = 0;
@@ -1514,25 +1541,21 @@ public class TimeGraph extends MapNodeGraph<Event, TimeSpan> {
 
             Iterable<FromTo<Node<Event, TimeSpan>, TimeSpan>> exist = n.edges(true, true);
 
-            return Iterables.concat(exist, () -> {
-                Collection<Event> ee = byTerm.get(n.id().id);
-                if (!ee.isEmpty()) {
-
-                    List<FromTo<Node<Event, TimeSpan>, TimeSpan>> dyn = null;
-
-                    for (Event x : ee) {
-                        Node<Event, TimeSpan> xx = node(x);
-                        if (xx != null && xx != n && !log.hasVisited(xx)) {
-                            if (dyn == null)
-                                dyn = new FasterList<>(1);
-                            dyn.add(new ImmutableDirectedEdge<>(n, TS_ZERO, xx));
-                        }
+            //the cross-time edges are collected eagerly: usually there are none, and then the existing edges are returned as-is
+            List<FromTo<Node<Event, TimeSpan>, TimeSpan>> dyn = null;
+            Collection<Event> ee = byTerm.get(n.id().id);
+            if (!ee.isEmpty()) {
+                for (Event x : ee) {
+                    Node<Event, TimeSpan> xx = node(x);
+                    if (xx != null && xx != n && !log.hasVisited(xx)) {
+                        if (dyn == null)
+                            dyn = new FasterList<>(1);
+                        dyn.add(new ImmutableDirectedEdge<>(n, TS_ZERO, xx));
                     }
-                    if (dyn != null)
-                        return dyn.iterator();
                 }
-                return Collections.emptyIterator();
-            });
+            }
+
+            return dyn == null ? exist : Iterables.concat(exist, dyn);
 
 
 //            Iterator<Event> x = ee.iterator();
@@ -76,4 +76,11 @@ public class CycleTime extends Time {
         return nextStamp.incrementAndGet();
     }
 
+    @Override
+    public void resume(long now, long lastStamp) {
+        if (now > t)
+            t = now;
+        nextStamp.accumulateAndGet(lastStamp, Math::max);
+    }
+
 }
@@ -56,6 +56,11 @@ public abstract class RealTime extends Time {
         return nextStamp.getAndIncrement();
     }
 
+    @Override
+    public void resume(long now, long lastStamp) {
+        nextStamp.accumulateAndGet(lastStamp + 1, Math::max);
+    }
+
 
     @Override
     public void reset() {
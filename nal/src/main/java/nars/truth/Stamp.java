@@ -343,7 +343,18 @@ public interface Stamp {
     }
 
     static boolean overlapsAny(/*@NotNull*/ Stamp a, /*@NotNull*/ Stamp b) {
-        return ((a == b) || overlapsAny(a.stamp(), b.stamp()));
+        return (a == b) || ((a.stampBloom() & b.stampBloom()) != 0 && overlapsAny(a.stamp(), b.stamp()));
+    }
+
+    /**
+     * 64-bit bloom filter of a stamp's evidence, one bit per component.
+     * stamps whose blooms are disjoint have no component in common.
+     */
+    static long bloom(long[] stamp) {
+        long b = 0;
+        for (long x : stamp)
+            b |= 1L << ((x * 0x9E3779B97F4A7C15L) >>> 58);
+        return b;
     }
 
     /**
@@ -355,27 +366,41 @@ public interface Stamp {
      */
     static boolean overlapsAny(/*@NotNull*/ long[] a, /*@NotNull*/ long[] b) {
 
-//        if (Param.DEBUG) {
-//
-//
-//        }
-        if (a.length == 0 || b.length == 0) {
-            return false;
-        }
+        int al = a.length, bl = b.length;
+        if (al == 0 || bl == 0 || a[al - 1] < b[0] || b[bl - 1] < a[0])
+            return false; //empty or disjoint ranges
 
-        /** TODO there may be additional ways to exit early from this loop */
+        for (int i = 0, j = 0; i < al && j < bl; ) {
+            long x = a[i], y = b[j];
+            if (x == y)
+                return true;
+            else if (x < y)
+                i++;
+            else
+                j++;
+        }
+        return false;
+    }
 
-        for (long x : a) {
+    /** number of common elements; assumes the arrays are sorted and contain no duplicates */
+    static int overlaps(long[] a, long[] b) {
+        int al = a.length, bl = b.length;
+        if (al == 0 || bl == 0 || a[al - 1] < b[0] || b[bl - 1] < a[0])
+            return 0;
 
-            for (long y : b) {
-                if (x == y) {
-                    return true;
-                } else if (y > x) {
-                    break;
-                }
-            }
+        int common = 0;
+        for (int i = 0, j = 0; i < al && j < bl; ) {
+            long x = a[i], y = b[j];
+            if (x == y) {
+                common++;
+                i++;
+                j++;
+            } else if (x < y)
+                i++;
+            else
+                j++;
         }
-        return false;
+        return common;
     }
 
     /**
@@ -400,14 +425,7 @@ public interface Stamp {
             return (a[0] == b[0]) ? 1 : 0;
         }
 
-        if (al > bl) {
-
-            long[] ab = a;
-            a = b;
-            b = ab;
-        }
-
-        int common = overlaps(LongSets.immutable.of(a), b);
+        int common = overlaps(a, b);
         if (common == 0)
             return 0f;
 
@@ -486,6 +504,11 @@ public interface Stamp {
     /*@NotNull*/
     long[] stamp();
 
+    /** bloom filter of stamp(), which implementations may cache */
+    default long stampBloom() {
+        return bloom(stamp());
+    }
+
 
     /**
      * returns pair: (stamp, % overlapping)
@@ -3,6 +3,7 @@ package nars.truth.dynamic;
 import jcog.Paper;
 import jcog.Util;
 import jcog.WTF;
+import jcog.data.list.FasterList;
 import jcog.data.set.MetalLongSet;
 import nars.NAR;
 import nars.Op;
@@ -11,11 +12,14 @@ import nars.Task;
 import nars.concept.Concept;
 import nars.concept.TaskConcept;
 import nars.table.BeliefTable;
+import nars.table.BeliefTables;
+import nars.table.dynamic.DynamicTruthTable;
 import nars.task.util.Answer;
 import nars.term.Term;
 import nars.term.atom.Bool;
 import nars.truth.Stamp;
 import nars.truth.Truth;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Random;
@@ -43,6 +47,10 @@ public class DynTaskify extends DynEvi {
     private final Term template;
     private MetalLongSet evi = null;
 
+    /** the tables of the components and their versions when matched; null if one can not be versioned */
+    @Nullable private FasterList<BeliefTables> tables = new FasterList<>(4);
+    private final IntArrayList versions = new IntArrayList(4);
+
     final boolean beliefOrGoal;
     final Predicate<Task> filter;
 
@@ -73,6 +81,13 @@ public class DynTaskify extends DynEvi {
 
     @Nullable
     public static Task task(AbstractDynamicTruth model, boolean beliefOrGoal, Answer a) {
+        Result r = result(model, beliefOrGoal, a);
+        return r != null ? r.task(a.nar) : null;
+    }
+
+    /** evaluates the components and truth of a dynamic task, without constructing it */
+    @Nullable
+    public static Result result(AbstractDynamicTruth model, boolean beliefOrGoal, Answer a) {
         Term template = a.template;
         DynTaskify d = eval(template, model, beliefOrGoal, a);
         if (d == null)
@@ -158,8 +173,47 @@ public class DynTaskify extends DynEvi {
         if (t == null)
             return null;
 
-        Task y = d.task(term, t, d::stamp, beliefOrGoal, s, e, nar);
-        return y;
+        return new Result(d, term, t, s, e);
+    }
+
+    /**
+     * the evaluation of a dynamic task, from which it can be constructed again
+     * (with a new stamp sample and creation time) while its components' tables are unchanged
+     */
+    public static final class Result {
+        private final DynTaskify d;
+        private final Term term;
+        private final Truth truth;
+        private final long start, end;
+
+        Result(DynTaskify d, Term term, Truth truth, long start, long end) {
+            this.d = d;
+            this.term = term;
+            this.truth = truth;
+            this.start = start;
+            this.end = end;
+        }
+
+        public Task task(NAR nar) {
+            return d.task(term, truth, d::stamp, d.beliefOrGoal, start, end, nar);
+        }
+
+        /** whether validity can be determined by the versions of the components' tables */
+        public boolean versioned() {
+            return d.tables != null;
+        }
+
+        /** whether none of the components' tables have changed since they were matched */
+        public boolean valid() {
+            FasterList<BeliefTables> t = d.tables;
+            if (t == null)
+                return false;
+            for (int i = 0, n = t.size(); i < n; i++) {
+                if (t.get(i).version() != d.versions.get(i))
+                    return false;
+            }
+            return true;
+        }
     }
 
     private boolean evalComponent(Term subTerm, long subStart, long subEnd) {
@@ -177,6 +231,7 @@ public class DynTaskify extends DynEvi {
             return false;
 
         BeliefTable table = (BeliefTable) subConcept.table(beliefOrGoal ? BELIEF : GOAL);
+        version(table);
         Task bt = //forceProjection ?
                 //table.answer(subStart, subEnd, subTerm, filter, nar);
                 table.match(subStart, subEnd, subTerm, filter, nar);
@@ -195,6 +250,18 @@ public class DynTaskify extends DynEvi {
 
 
 
+    /** records the table's version before it is matched, unless it is dynamic itself or not versioned */
+    private void version(BeliefTable table) {
+        if (tables == null)
+            return;
+        if (table instanceof BeliefTables && ((BeliefTables) table).tableFirst(DynamicTruthTable.class) == null) {
+            tables.add((BeliefTables) table);
+            versions.add(((BeliefTables) table).version());
+        } else {
+            tables = null;
+        }
+    }
+
     @Override
     public boolean add(Task newItem) {
 
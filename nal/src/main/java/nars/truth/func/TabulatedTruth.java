@@ -0,0 +1,153 @@
+package nars.truth.func;
+
+import jcog.Texts;
+import nars.NAR;
+import nars.truth.PreciseTruth;
+import nars.truth.Truth;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static nars.Op.BELIEF;
+import static nars.truth.func.TruthFunctions.c2wSafe;
+
+/**
+ * answers a two-premise truth function from a table of its results over the
+ * quantized (TRUTH_EPSILON) frequency/confidence grid.
+ * <p>
+ * the full grid of two truths (~10^8 points) is too large to precompute, so the table is
+ * direct-mapped and filled as grid points are encountered; a premise's truths
+ * repeat often since task truths are dithered to the NAR's truth resolution.
+ * inputs which are not on the grid, or are absent, are computed exactly.
+ * <p>
+ * a truth is on the grid if it is a PreciseTruth whose frequency and evidence
+ * are exactly those of its discretized value, so a lookup returns the same
+ * result the function would.  the table is also keyed by minConf and the NAR's
+ * default belief confidence, the other inputs the functions depend on.
+ */
+public final class TabulatedTruth extends TruthFunc.ProxyTruthFunc {
+
+    /** slots per function, a power of 2 */
+    public static final int CAPACITY = 1 << 14;
+
+    /** estimated heap bytes of a filled slot: the reference and the entry */
+    private static final int BYTES_PER_ENTRY = 4 + 40;
+
+    private static final Map<TruthFunc, TabulatedTruth> tables = new ConcurrentHashMap<>();
+
+    /** the tabulated form of a function, shared by its uses; single-premise functions are returned as-is */
+    public static TruthFunc the(@Nullable TruthFunc f) {
+        if (f == null || f.single() || f instanceof TabulatedTruth)
+            return f;
+        return tables.computeIfAbsent(f, TabulatedTruth::new);
+    }
+
+    private static final class Entry {
+        final long truths, params;
+        @Nullable final Truth y;
+
+        Entry(long truths, long params, @Nullable Truth y) {
+            this.truths = truths;
+            this.params = params;
+            this.y = y;
+        }
+    }
+
+    private final AtomicReferenceArray<Entry> table = new AtomicReferenceArray<>(CAPACITY);
+
+    private final AtomicLong hit = new AtomicLong(), miss = new AtomicLong(), exact = new AtomicLong();
+
+    private TabulatedTruth(TruthFunc o) {
+        super(o);
+    }
+
+    @Override
+    public @Nullable Truth apply(@Nullable Truth task, @Nullable Truth belief, NAR m, float minConf) {
+        int t, b;
+        if ((t = grid(task)) == -1 || (b = grid(belief)) == -1) {
+            exact.getAndIncrement();
+            return o.apply(task, belief, m, minConf);
+        }
+
+        long truths = ((long) t << 32) | (b & 0xffffffffL);
+        long params = ((long) Float.floatToIntBits(minConf) << 32) | (Float.floatToIntBits(m.confDefault(BELIEF)) & 0xffffffffL);
+        int i = slot(truths, params);
+
+        Entry e = table.get(i);
+        if (e != null && e.truths == truths && e.params == params) {
+            hit.getAndIncrement();
+            return e.y;
+        }
+
+        Truth y = o.apply(task, belief, m, minConf);
+        table.set(i, new Entry(truths, params, y));
+        miss.getAndIncrement();
+        return y;
+    }
+
+    /** the truth's grid point, or -1 if it is not exactly on it */
+    private static int grid(@Nullable Truth x) {
+        if (!(x instanceof PreciseTruth))
+            return -1;
+        int h = x.hashCode();
+        return (x.freq() == Truth.freq(h) && x.evi() == c2wSafe(Truth.conf(h))) ? h : -1;
+    }
+
+    private static int slot(long truths, long params) {
+        long h = (truths ^ (params * 31)) * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> (64 - Integer.numberOfTrailingZeros(CAPACITY)));
+    }
+
+    /** number of filled slots */
+    public int size() {
+        int n = 0;
+        for (int i = 0; i < CAPACITY; i++)
+            if (table.get(i) != null)
+                n++;
+        return n;
+    }
+
+    /** estimated heap bytes of the table */
+    public long bytes() {
+        return 16L + 4L * CAPACITY + (long) size() * (BYTES_PER_ENTRY - 4);
+    }
+
+    /** empties the slots and resets the counters */
+    public void clear() {
+        for (int i = 0; i < CAPACITY; i++)
+            table.set(i, null);
+        hit.set(0);
+        miss.set(0);
+        exact.set(0);
+    }
+
+    /**
+     * empties every table, releasing their entries.  the tables themselves stay registered,
+     * one per function, since compiled derivation rules keep referring to them.
+     */
+    public static void clearAll() {
+        tables.values().forEach(TabulatedTruth::clear);
+    }
+
+    /** hit rate and memory; resets the counters */
+    public String summary() {
+        long H = hit.getAndSet(0), M = miss.getAndSet(0), X = exact.getAndSet(0);
+        return o + " " + Texts.n2percent(H / Math.max(1f, H + M)) +
+                " H=" + H + " M=" + M + " exact=" + X +
+                " N=" + size() + " bytes=" + bytes();
+    }
+
+    /** prints the summary of each table */
+    public static void print(PrintStream out) {
+        tables.values().forEach(t -> out.println(t.summary()));
+    }
+
+    @Override
+    public String toString() {
+        return o.toString();
+    }
+}
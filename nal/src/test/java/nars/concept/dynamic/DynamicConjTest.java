@@ -45,6 +45,25 @@ class DynamicConjTest {
         assertEquals($.t(0f, 0.81f), n.beliefTruth("((--,b:x) && (--,a:y))", now));
     }
 
+    @Test
+    void testDynamicConjunctionCacheInvalidatedByComponentChange() throws Narsese.NarseseException {
+        NAR n = NARS.shell();
+        n.believe("a:x", 1f, 0.9f);
+        n.believe("a:y", 1f, 0.9f);
+        n.run(1);
+        long now = n.time();
+
+        Term xy = $("(a:x && a:y)");
+        assertEquals($.t(1f, 0.81f), n.beliefTruth(xy, now));
+        assertEquals($.t(1f, 0.81f), n.beliefTruth(xy, now)); //repeated
+
+        n.believe("a:y", 0f, 0.9f);
+        n.run(1);
+        Truth changed = n.beliefTruth(xy, now);
+        assertNotNull(changed);
+        assertTrue(changed.freq() < 1f, changed::toString);
+    }
+
     @Test
     void testDynamicConjunctionEternalOverride() throws Narsese.NarseseException {
         NAR n = NARS.shell()
@@ -1,14 +1,17 @@
 package nars.control;
 
+import jcog.Util;
 import jcog.service.Service;
 import nars.NAR;
 import nars.NARS;
 import org.junit.jupiter.api.Test;
 
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static java.util.stream.Collectors.toSet;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class NARServiceTest {
     @Test
@@ -34,4 +37,29 @@ class NARServiceTest {
         assertEquals(before, after);
         assertEquals(before.size()+1, during.size());
     }
+
+    @Test
+    void testBlockingServiceRunsOutsideWorkers() throws InterruptedException {
+        NAR n = NARS.shell();
+
+        CountDownLatch started = new CountDownLatch(1);
+        BlockingService b = BlockingService.on(n, (nn) -> {
+            started.countDown();
+            Util.sleepMS(1);
+        });
+
+        n.synch();
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(b.running());
+
+        n.run(1); //not blocked by the service
+
+        b.off();
+        n.synch();
+
+        for (int i = 0; i < 100 && b.running(); i++)
+            Util.sleepMS(10);
+        assertFalse(b.running());
+    }
 }
\ No newline at end of file
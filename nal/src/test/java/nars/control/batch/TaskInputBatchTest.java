@@ -0,0 +1,52 @@
+package nars.control.batch;
+
+import nars.$;
+import nars.NAR;
+import nars.NARS;
+import nars.Task;
+import nars.term.Term;
+import org.junit.jupiter.api.Test;
+
+import static nars.$.$$;
+import static nars.Op.BELIEF;
+import static nars.Op.QUESTION;
+import static nars.time.Tense.ETERNAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskInputBatchTest {
+
+    private static Task[] tasks(NAR n) {
+        Term x = $$("x"), y = $$("(y-->z)");
+        Task[] t = new Task[12];
+        for (int i = 0; i < 8; i++)
+            t[i] = $.task(x, BELIEF, (i % 2), 0.9f).time(i, i, i).apply(n);
+        t[8] = t[3]; //repeated
+        t[9] = $.task(y, BELIEF, 1f, 0.9f).apply(n);
+        t[10] = $.task(y, QUESTION, null).apply(n);
+        t[11] = $.task($$("(x && y)"), BELIEF, 1f, 0.9f).apply(n);
+        for (int i = 0; i < t.length; i++) {
+            if (i != 8)
+                t[i].pri(0.5f);
+        }
+        return t;
+    }
+
+    @Test
+    void testBatchEqualsIndividualInput() {
+        NAR a = NARS.shell();
+        a.inputBatch(tasks(a));
+
+        NAR b = NARS.shell();
+        for (Task t : tasks(b))
+            b.input(t);
+
+        for (NAR n : new NAR[]{a, b}) {
+            assertEquals(8, n.concept($$("x")).beliefs().size());
+            assertEquals(1, n.concept($$("(y-->z)")).beliefs().size());
+            assertEquals(1, n.concept($$("(y-->z)")).questions().size());
+            assertNotNull(n.belief($$("(x && y)"), ETERNAL));
+        }
+        assertEquals(b.tasks().count(), a.tasks().count());
+    }
+
+}
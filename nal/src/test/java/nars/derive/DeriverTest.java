@@ -1,18 +1,25 @@
 package nars.derive;
 
+import jcog.signal.meter.resource.ThreadAllocationTracker;
 import nars.$;
 import nars.NAR;
 import nars.NARS;
+import nars.Narsese;
+import nars.Param;
 import nars.derive.impl.BatchDeriver;
 import nars.derive.op.Occurrify;
 import nars.derive.premise.DeriverRules;
 import nars.derive.premise.PremiseDeriverCompiler;
 import nars.derive.premise.PremiseDeriverRuleSet;
+import nars.derive.premise.PremiseRuleProto;
+import nars.derive.premise.RuleProfile;
+import nars.term.control.BytecodePred;
 import nars.test.TestNAR;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 import java.util.List;
 
@@ -127,6 +134,95 @@ class DeriverTest {
 
     }
 
+    @Test
+    void testCompileBytecode() {
+        PremiseDeriverRuleSet src = new PremiseDeriverRuleSet(NARS.shell(),
+                "(A --> B), (B --> C), neqRCom(A,C) |- (A --> C), (Belief:Deduction, Goal:Desire)",
+                "(A --> B), C, task(\"?\") |- (A --> C), (Punctuation:Question)",
+                "(A ==> B), C, task(\"?\") |- (A ==> C), (Punctuation:Question)"
+        );
+        DeriverRules interpreted = PremiseDeriverCompiler.the(src, false);
+        DeriverRules compiled = PremiseDeriverCompiler.the(src, true);
+        assertTrue(compiled.what instanceof BytecodePred);
+        assertEquals(interpreted.what.toString(), compiled.what.toString());
+
+        //compiled once per rules
+        assertSame(compiled, PremiseDeriverCompiler.the(src, true));
+        assertSame(compiled, compiled.bytecode());
+    }
+
+    @Test
+    void testDeriveBytecode() {
+        NAR n = new NARS().get();
+        boolean b = Param.DERIVER_BYTECODE;
+        Param.DERIVER_BYTECODE = true;
+        try {
+            new BatchDeriver(new PremiseDeriverRuleSet(n,
+                    "(A --> B), (B --> C), neqRCom(A,C) |- (A --> C), (Belief:Deduction, Goal:Desire)"));
+        } finally {
+            Param.DERIVER_BYTECODE = b;
+        }
+        TestNAR t = new TestNAR(n);
+        tests.add(t);
+        t.believe("(a-->b)")
+         .believe("(b-->c)")
+         .mustBelieve(64, "(a-->c)", 1f, 0.81f);
+    }
+
+    @Test
+    void testDeriveAllocationMeter() throws Narsese.NarseseException {
+        boolean b = Param.DERIVE_ALLOCATION_METER;
+        Param.DERIVE_ALLOCATION_METER = true;
+        try {
+            NAR n = NARS.tmp();
+            n.believe("(a-->b)", "(b-->c)");
+            n.run(16);
+            assertTrue(n.emotion.deriveTask.get() > 0);
+            if (ThreadAllocationTracker.supported())
+                assertTrue(n.emotion.deriveAllocBytes.get() > 0);
+            assertTrue(n.stats().containsKey("derive alloc bytes per task"));
+        } finally {
+            Param.DERIVE_ALLOCATION_METER = b;
+        }
+    }
+
+    @Test
+    void testRuleProfile() throws Narsese.NarseseException {
+        NAR n = new NARS().get();
+        new BatchDeriver(new PremiseDeriverRuleSet(n,
+                "(A --> B), (B --> C), neqRCom(A,C) |- (A --> C), (Belief:Deduction, Goal:Desire)"));
+
+        boolean b = Param.DERIVE_PROFILE;
+        Param.DERIVE_PROFILE = true;
+        try {
+            n.believe("(a-->b)", "(b-->c)");
+            n.run(64);
+        } finally {
+            Param.DERIVE_PROFILE = b;
+        }
+
+        List<PremiseRuleProto.RuleCause> rules = RuleProfile.rules(n);
+        assertEquals(1, rules.size());
+        RuleProfile p = rules.get(0).profile;
+        assertTrue(p.invocations() > 0);
+        assertTrue(p.ttl() > 0);
+        assertTrue(p.nanos() > 0);
+        assertTrue(p.derived() > 0);
+        assertTrue(p.stored() > 0);
+        assertTrue(p.stored() <= p.derived());
+        assertTrue(p.yield() > 0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RuleProfile.print(n, new PrintStream(out));
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].startsWith(p.invocations() + "\t" + p.ttl() + "\t"));
+        assertTrue(lines[1].endsWith(rules.get(0).ruleString));
+
+        RuleProfile.reset(n);
+        assertTrue(RuleProfile.rules(n).isEmpty());
+    }
+
     @Test
     void testConclusionFold() {
 
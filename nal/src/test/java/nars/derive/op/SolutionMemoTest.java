@@ -0,0 +1,67 @@
+package nars.derive.op;
+
+import jcog.random.XoRoShiRo128PlusRandom;
+import nars.term.Term;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static nars.$.$$;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SolutionMemoTest {
+
+    private static final Term a = $$("(x &&+1 y)"), b = $$("(x &&+2 y)"), c = $$("(x &&-1 y)");
+
+    private static final int lookups = 40000;
+
+    private final Random rng = new XoRoShiRo128PlusRandom(1);
+
+    private int searches;
+
+    /** a randomized search, which finds either a or both of b and c */
+    private final Supplier<Term[]> search = () -> {
+        searches++;
+        return rng.nextBoolean() ? new Term[]{a} : new Term[]{b, c};
+    };
+
+    /** frequencies of a, b and c */
+    private float[] distribution(int reuse) {
+        SolutionMemo<String> memo = new SolutionMemo<>(16, reuse);
+        int[] n = new int[3];
+        for (int i = 0; i < lookups; i++) {
+            Term t = memo.get("k", search, rng);
+            n[t.equals(a) ? 0 : t.equals(b) ? 1 : 2]++;
+        }
+        return new float[]{n[0] / (float) lookups, n[1] / (float) lookups, n[2] / (float) lookups};
+    }
+
+    @Test
+    void testSameDistributionAsUncached() {
+        float[] uncached = distribution(1);
+        assertEquals(lookups, searches);
+        assertEquals(0.5f, uncached[0], 0.02f);
+        assertEquals(0.25f, uncached[1], 0.02f);
+        assertEquals(0.25f, uncached[2], 0.02f);
+
+        searches = 0;
+        float[] cached = distribution(16);
+        assertEquals(lookups / 16, searches);
+        for (int i = 0; i < 3; i++)
+            assertEquals(uncached[i], cached[i], 0.04f);
+    }
+
+    @Test
+    void testUnboundedReuseKeepsTheFirstSearch() {
+        float[] f = distribution(Integer.MAX_VALUE);
+        assertEquals(1, searches);
+        assertTrue(f[0] == 0 || f[0] == 1);
+    }
+
+    @Test
+    void testNoSolutions() {
+        SolutionMemo<String> memo = new SolutionMemo<>(16, 4);
+        assertNull(memo.get("k", () -> new Term[0], rng));
+    }
+}
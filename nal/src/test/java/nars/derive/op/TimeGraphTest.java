@@ -16,6 +16,7 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -24,7 +25,7 @@ import static nars.$.$;
 import static nars.$.$$;
 import static nars.Op.CONJ;
 import static nars.time.Tense.*;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 class TimeGraphTest {
 
@@ -362,6 +363,33 @@ class TimeGraphTest {
     }
 
 
+    @Test
+    void testClearAndRefill() {
+        Term x = $$("(x ==>+- z)");
+
+        TimeGraph fresh = newTimeGraph(1);
+        fresh.know($$("(y ==>+3 x)"), ETERNAL);
+        fresh.know($$("(y ==>+2 z)"), ETERNAL);
+        Set<String> expected = new TreeSet<>();
+        fresh.solve(x, e -> { expected.add(e.toString()); return true; });
+
+        //reused after holding a different graph
+        TimeGraph reused = newTimeGraph(1);
+        reused.know($$("((one &&+1 two) ==>+1 (three &&+1 four))"), ETERNAL);
+        reused.know($$("one"), 1);
+        reused.solve($$("(one &&+- two)"), e -> true);
+        reused.clear();
+        assertTrue(reused.byTerm.isEmpty());
+
+        reused.know($$("(y ==>+3 x)"), ETERNAL);
+        reused.know($$("(y ==>+2 z)"), ETERNAL);
+        Set<String> actual = new TreeSet<>();
+        reused.solve(x, e -> { actual.add(e.toString()); return true; });
+
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, actual);
+    }
+
     private final List<Runnable> afterEach = $.newArrayList();
 
     @AfterEach
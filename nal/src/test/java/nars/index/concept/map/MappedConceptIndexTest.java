@@ -0,0 +1,86 @@
+package nars.index.concept.map;
+
+import nars.NAR;
+import nars.NARS;
+import nars.Narsese;
+import nars.Task;
+import nars.index.concept.MappedConceptIndex;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static nars.$.$$;
+import static nars.time.Tense.ETERNAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedConceptIndexTest {
+
+    @Test
+    void testRestart() throws IOException, Narsese.NarseseException {
+        File dir = Files.createTempDirectory("concepts").toFile();
+
+        MappedConceptIndex a = new MappedConceptIndex(dir, 1000);
+        NAR n = new NARS().index(a).get();
+        n.believe("(x-->y)");
+        n.believe("(y-->z)");
+        n.run(1);
+        a.close();
+        assertTrue(a.sizePersisted() >= 2);
+
+        MappedConceptIndex b = new MappedConceptIndex(dir, 1000);
+        assertEquals(a.sizePersisted(), b.sizePersisted());
+        NAR m = new NARS().index(b).get();
+        Task t = m.belief($$("(x-->y)"), ETERNAL);
+        assertNotNull(t);
+        assertEquals(1f, t.freq(), 0.01f);
+    }
+
+    @Test
+    void testRecordSpaceReused() throws IOException, Narsese.NarseseException {
+        File dir = Files.createTempDirectory("concepts").toFile();
+
+        MappedConceptIndex a = new MappedConceptIndex(dir, 1000);
+        NAR n = new NARS().index(a).get();
+        n.believe("(x-->y)");
+        n.run(1);
+        a.flush();
+        long bytes = a.bytesPersisted();
+
+        //unchanged concepts are rewritten in place
+        a.flush();
+        a.flush();
+        assertEquals(bytes, a.bytesPersisted());
+
+        //a grown concept is appended, and its next record fits where it was
+        n.believe("(x-->y)", 0.25f, 0.9f);
+        n.believe("(x-->y)", 0.5f, 0.9f);
+        n.run(1);
+        a.flush();
+        long grown = a.bytesPersisted();
+        assertTrue(grown > bytes);
+        a.flush();
+        assertEquals(grown, a.bytesPersisted());
+        a.close();
+
+        assertFalse(new File(dir, "concepts.idx.tmp").exists());
+        MappedConceptIndex b = new MappedConceptIndex(dir, 1000);
+        NAR m = new NARS().index(b).get();
+        assertNotNull(m.belief($$("(x-->y)"), ETERNAL));
+    }
+
+    @Test
+    void testEvictAndRestore() throws IOException, Narsese.NarseseException {
+        File dir = Files.createTempDirectory("concepts").toFile();
+
+        MappedConceptIndex a = new MappedConceptIndex(dir, 2);
+        NAR n = new NARS().index(a).get();
+        n.believe("(x-->y)");
+        for (int i = 0; i < 8; i++)
+            n.believe("(a" + i + "-->b)");
+        n.run(1);
+
+        assertNotNull(n.belief($$("(x-->y)"), ETERNAL));
+    }
+}
@@ -0,0 +1,239 @@
+package nars.io;
+
+import nars.NAR;
+import nars.NARS;
+import nars.Narsese;
+import nars.NarseseReader;
+import nars.Task;
+import nars.term.Term;
+import nars.term.atom.Atomic;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * NarseseReader parses what NarseseParser does
+ */
+class NarseseReaderTest {
+
+    private static final String[] terms = {
+            "a", "1", "-1", "0.5", "true", "false", "null", "\"quoted\"", "\"esc\\\"aped\"",
+            "http://a.b/c?d=e.", "$x", "#y", "?z", "%p", "%x..+", "%x..*", "_", "/", "\\",
+            "{x}", "[x]", "{ a:x, b:{x,y} }", "[ a , b ]", "()", "( )", "(b)", "(a,b,c)", "(a , b ,\tc)",
+            "(a b c)", "(a-->b)", "((a,b) --> (c,d))", "(a --> (c,d))", "(a <-> b)", "(a ==> b)",
+            "(a && b)", "(a &| b)", "(a || b)", "(a =|> b)", "(a & b)", "(a | b)", "(a - b)", "(a ~ b)",
+            "(a * b)", "(a -{- b)", "(a -]- b)", "(a {-] b)",
+            "(&&,a,b)", "(&|, a, b, c)", "(||,a,(b&&c))", "(&&+-, a, b)", "(||+-, a, b)", "(-, a, b)", "(~,a,b)",
+            "(*,a,b,c)", "(--,a)", "(--, (negated))", "(--a, --(a), a, c)",
+            "--a", "-- (x && y)", "--1", "--a:b", "a:--b", "--a:--b", "namespace:named", "<a:b --> c:d>",
+            "<a --> b>", "< a --> b >", "<(*,a,b) --> (*,c,d)>", "<a ==> b>", "<a && b>",
+            "a(b,c)", "op()", "believe(a, b)", "--sentence(x)", "(goto(z) ==>+5 --x:y)",
+            "(x &&+2 y)", "(x &&-2 y)", "(x &&+- y)", "(x ==>+- y)", "(x &&+2 (&|,(a), (b), (c)))",
+            "(a &&+1day b)", "(a &&+1.5days b)", "(a &&-1week (b &&-3days c))",
+            "<{x,y} --> b>", "(a b", "(a,", "<a --> b", "a b", "",
+            "\"\"\"tri\"ple\"\"\"", "(\"\"\"a\"\"\" --> \"\"\"b\"\"\")", "\"\"\"\"\"\""
+    };
+
+    private static final String[] tasks = {
+            "<a --> b>.", "<a --> b>?", "<a --> b>!", "<a --> b>@", "<a --> b>;", "a",
+            "$0.9 <a ==> b>. %0.00;0.93", "$0.99 (a --> b)! %0.93;0.95%", "$.5$ a.", "$x.",
+            "(a && b). %1.0;0.9%", "(a && b). :|: %1.0;0.9%", "(a && b). | %1.0;0.9%", "(a && b). now",
+            "(a-->b). +1", "(a-->b). -1", "(a-->b). +1..+2", "(a-->b). -3..+2", "(a-->b). +5min",
+            "(y,())! %0.55%", "(y,())! %0.5;0.5%", "(a & b). %1.0|",
+            "a. b. c?", "a.\n%0;0.5%", "// comment\na.\n//another", "a. b. (", "a. b",
+            "\"\"\"x\"\"\". \"\"\"y\"\"\".", "a. \"\"\"x\ny\"\"\"! b."
+    };
+
+    @Test
+    void testTerms() {
+        for (String s : terms)
+            assertSameTerm(s);
+    }
+
+    @Test
+    void testTasks() {
+        for (String s : tasks)
+            assertSameTasks(s);
+    }
+
+    @Test
+    void testStreamed() throws Narsese.NarseseException {
+        String s = "// tasks\n$0.9 <a ==> b>. %0.00;0.93 (a && b). :|: %1.0;0.9%\n" +
+                "(a-->b). +1..+2\n(y,())! %0.55%\t(y,())! %0.5;0.5%\n" +
+                "a.\n%0;0.5%\n<a --> b>?\n//end";
+
+        NAR n = NARS.shell();
+        List<Task> x = new ArrayList<>();
+        //a reader which reads one char at a time
+        Narsese.tasks(new StringReader(s) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(1, len));
+            }
+        }, x::add, n);
+
+        List<Task> y = new ArrayList<>();
+        NarseseReader r = new NarseseReader(s);
+        Task t;
+        while ((t = r.next(n)) != null)
+            y.add(t);
+
+        assertEquals(7, x.size());
+        assertEqualTasks(x, y);
+    }
+
+    /** a triple-quoted atom extends to the last closing quotes in the input, as NarseseParser's */
+    @Test
+    void testTripleQuoted() throws Narsese.NarseseException {
+        String s = "\"\"\"a\"\"\"! \"\"\"b\"\"\".";
+        List<Task> x = Narsese.tasks(s, NARS.shell());
+        assertEquals(1, x.size());
+        assertEquals(Atomic.the("\"\"\"a\"\"\"! \"\"\"b\"\"\""), x.get(0).term());
+
+        List<Task> y = new ArrayList<>();
+        Narsese.tasks(new StringReader(s) {
+            @Override
+            public int read(char[] cbuf, int off, int len) throws IOException {
+                return super.read(cbuf, off, Math.min(1, len));
+            }
+        }, y::add, NARS.shell());
+        assertEquals(1, y.size());
+        assertEquals(x.get(0).term(), y.get(0).term());
+        assertEquals(x.get(0).punc(), y.get(0).punc());
+    }
+
+    /** NAR.inputNarsese inputs each task before reading the next */
+    @Test
+    void testInputIncremental() throws IOException, Narsese.NarseseException {
+        NAR n = NARS.shell();
+        List<Task> input = new ArrayList<>();
+        n.onTask(input::add);
+
+        byte[] s = "a.\nb.\nc.\n".getBytes();
+        int[] inputBefore = new int[s.length];
+        n.inputNarsese(new InputStream() {
+            int i;
+
+            @Override
+            public int read() {
+                if (i == s.length)
+                    return -1;
+                inputBefore[i] = input.size();
+                return s[i++];
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (len == 0)
+                    return 0;
+                int c = read();
+                if (c == -1)
+                    return -1;
+                b[off] = (byte) c;
+                return 1;
+            }
+        });
+
+        assertEquals(3, input.size());
+        assertEquals(0, inputBefore[3]); //'b' read after 'a.' and the newline which ends its task
+        assertEquals(1, inputBefore[6]); //'c'
+    }
+
+    /** the test .nal files, when present */
+    @Test
+    void testCorpus() throws IOException {
+        Path docs = Paths.get("../docs/nal");
+        assumeTrue(Files.isDirectory(docs));
+
+        Pattern output = Pattern.compile("outputMustContain\\('(.*)'\\)");
+        List<Path> files;
+        try (Stream<Path> f = Files.walk(docs)) {
+            files = f.filter(p -> p.toString().endsWith(".nal")).collect(Collectors.toList());
+        }
+
+        int lines = 0;
+        for (Path f : files) {
+            for (String line : Files.readAllLines(f)) {
+                line = line.trim();
+                if (line.isEmpty() || Character.isDigit(line.charAt(0)) || line.startsWith("*"))
+                    continue;
+                if (line.startsWith("'")) {
+                    Matcher m = output.matcher(line);
+                    if (!m.find())
+                        continue;
+                    line = m.group(1);
+                }
+                assertSameTasks(line);
+                lines++;
+            }
+        }
+        assertTrue(lines > 0);
+    }
+
+    private static void assertSameTerm(String s) {
+        Term x = null, y = null;
+        boolean xe = false, ye = false;
+        try {
+            x = Narsese.term(s);
+        } catch (Exception e) {
+            xe = true;
+        }
+        try {
+            y = NarseseReader.term(s);
+        } catch (Exception e) {
+            ye = true;
+        }
+        assertEquals(xe, ye, () -> "parse failure: " + s);
+        assertEquals(x, y, s);
+    }
+
+    private static void assertSameTasks(String s) {
+        NAR n = NARS.shell();
+
+        List<Task> x = null, y = null;
+        try {
+            x = Narsese.tasks(s, n);
+        } catch (Exception e) {
+            //fail
+        }
+        try {
+            y = new ArrayList<>();
+            Narsese.tasks(new StringReader(s), y::add, n);
+        } catch (Exception e) {
+            y = null;
+        }
+
+        if (x == null || y == null)
+            assertEquals(x == null, y == null, () -> "parse failure: " + s);
+        else
+            assertEqualTasks(x, y);
+    }
+
+    private static void assertEqualTasks(List<Task> x, List<Task> y) {
+        assertEquals(x.size(), y.size(), () -> x + " " + y);
+        for (int i = 0; i < x.size(); i++) {
+            Task a = x.get(i), b = y.get(i);
+            assertEquals(a.term(), b.term());
+            assertEquals(a.punc(), b.punc(), a::toString);
+            assertEquals(a.truth(), b.truth(), a::toString);
+            assertEquals(a.start(), b.start(), a::toString);
+            assertEquals(a.end(), b.end(), a::toString);
+            assertEquals(a.pri(), b.pri(), a::toString);
+        }
+    }
+
+}
@@ -0,0 +1,56 @@
+package nars.io;
+
+import nars.NAR;
+import nars.NARS;
+import nars.Narsese;
+import nars.Task;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotTest {
+
+    @Test
+    void testSnapshotAndRestore() throws IOException, Narsese.NarseseException {
+        NAR a = NARS.tmp();
+        a.input("a:b. b:c. c:d! a@", "((x &&+1 b) &&+1 c). :|: (c && --b)!", "(x-->y)?");
+        a.run(16);
+
+        ByteArrayOutputStream o = new ByteArrayOutputStream();
+        a.snapshot(o);
+
+        Set<Task> written = a.tasks().filter(t -> !t.isDeleted()).collect(Collectors.toSet());
+        assertTrue(written.size() > 4);
+
+        NAR b = NARS.tmp();
+        b.restore(new ByteArrayInputStream(o.toByteArray()));
+
+        Set<Task> read = b.tasks().collect(Collectors.toSet());
+        assertTrue(read.containsAll(written), () -> written + "\n" + read);
+
+        assertEquals(a.time(), b.time());
+
+        //new stamps follow the restored
+        long last = written.stream().flatMapToLong(t -> Arrays.stream(t.stamp())).max().getAsLong();
+        assertTrue(b.time.nextStamp() > last);
+
+        //tasklinks are buffered until the next cycle
+        assertTrue(a.concepts.active().count() > 0);
+        b.run(1);
+        assertTrue(b.concepts.active().count() > 0);
+    }
+
+    @Test
+    void testInvalid() {
+        NAR n = NARS.shell();
+        assertThrows(IOException.class, () -> n.restore(new ByteArrayInputStream(new byte[16])));
+    }
+
+}
@@ -0,0 +1,53 @@
+package nars.io;
+
+import nars.NAR;
+import nars.NARS;
+import nars.Narsese;
+import nars.Task;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskLogTest {
+
+    @ParameterizedTest
+    @ValueSource(strings = {"true", "false"})
+    void testWriteAndReplay(boolean dictionary) throws IOException, Narsese.NarseseException {
+        NAR a = NARS.tmp();
+        a.input("a:b. b:c. c:d! a@", "((x &&+1 b) &&+1 c). :|: (c && --b)!");
+        a.run(16);
+
+        File f = File.createTempFile("tasks", ".log");
+        f.deleteOnExit();
+
+        Set<Task> written = new HashSet<>();
+        //small frames to span several, each with its own dictionary entries
+        try (TaskLog.Writer w = new TaskLog.Writer(new FileOutputStream(f), 256, true, dictionary)) {
+            a.tasks().forEach(t -> {
+                if (written.add(t))
+                    w.accept(t);
+            });
+        }
+        assertTrue(written.size() > 4);
+
+        Set<Task> read = new HashSet<>();
+        long n = TaskLog.read(f, read::add);
+        assertEquals(written.size(), n);
+        assertEquals(written, read);
+
+        //a truncated last frame ends the replay without failing
+        try (RandomAccessFile r = new RandomAccessFile(f, "rw")) {
+            r.setLength(r.length() - 3);
+        }
+        assertTrue(TaskLog.read(f, t -> assertTrue(written.contains(t))) < n);
+    }
+
+}
@@ -0,0 +1,80 @@
+package nars.link;
+
+import jcog.pri.op.PriMerge;
+import jcog.random.XoRoShiRo128PlusRandom;
+import nars.term.Term;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static nars.$.$$;
+import static nars.Op.BELIEF;
+import static nars.time.Tense.ETERNAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedTaskLinkBagTest {
+
+    private static TaskLink link(String src, String tgt, float pri) {
+        return new TaskLink.GeneralTaskLink($$(src), $$(tgt), BELIEF, ETERNAL, pri);
+    }
+
+    @Test
+    void testPutGetRemoveAcrossShards() {
+        ShardedTaskLinkBag b = new ShardedTaskLinkBag(4, 64, PriMerge.plus);
+        assertEquals(4, b.shards());
+
+        for (int i = 0; i < 16; i++)
+            b.put(link("a", "(a-->x" + i + ')', 0.5f));
+        assertEquals(16, b.size());
+        assertNotNull(b.get(link("a", "(a-->x3)", 0)));
+
+        Set<Term> t = new HashSet<>();
+        b.forEachSource($$("a"), x -> t.add(x.target()));
+        assertEquals(16, t.size());
+
+        b.remove(link("a", "(a-->x3)", 0));
+        assertNull(b.get(link("a", "(a-->x3)", 0)));
+        assertEquals(15, b.size());
+
+        b.clear();
+        assertTrue(b.isEmpty());
+    }
+
+    @Test
+    void testSamplingIsPriorityProportional() {
+        ShardedTaskLinkBag b = new ShardedTaskLinkBag(4, 64, PriMerge.plus);
+        TaskLink strong = link("s", "(s-->x)", 0.9f);
+        b.put(strong);
+        for (int i = 0; i < 9; i++)
+            b.put(link("w", "(w-->x" + i + ')', 0.1f));
+        //the shards are sorted by commit, which sampling depends on
+        b.commit(null);
+
+        Random rng = new XoRoShiRo128PlusRandom(1);
+        int n = 10000, strongs = 0;
+        for (int i = 0; i < n; i++) {
+            if (b.sample(rng).equals(strong))
+                strongs++;
+        }
+        //0.9 of a total mass of 1.8, vs 0.1 if uniform
+        assertTrue(strongs > n * 0.4f);
+        assertTrue(strongs < n);
+    }
+
+    @Test
+    void testCommitForgetsEveryShard() {
+        ShardedTaskLinkBag b = new ShardedTaskLinkBag(4, 64, PriMerge.plus);
+        for (int i = 0; i < 32; i++)
+            b.put(link("a", "(a-->x" + i + ')', 0.8f));
+        float before = b.mass();
+
+        b.commit(x -> x.priMult(0.5f));
+
+        assertEquals(32, b.size());
+        assertEquals(before / 2, b.mass(), 0.01f);
+        b.forEach(x -> assertEquals(0.1f, x.pri(), 0.01f));
+    }
+
+}
@@ -0,0 +1,58 @@
+package nars.link;
+
+import jcog.pri.op.PriMerge;
+import nars.term.Term;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static nars.$.$$;
+import static nars.Op.BELIEF;
+import static nars.time.Tense.ETERNAL;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskLinkBagTest {
+
+    private static TaskLink link(String src, String tgt, float pri) {
+        return new TaskLink.GeneralTaskLink($$(src), $$(tgt), BELIEF, ETERNAL, pri);
+    }
+
+    private static Set<Term> targets(TaskLinkBag b, String src) {
+        Set<Term> s = new HashSet<>();
+        b.forEachSource($$(src), x -> s.add(x.target()));
+        return s;
+    }
+
+    @Test
+    void testIndexFollowsPutRemoveAndEviction() {
+        TaskLinkBag b = new TaskLinkBag(3, PriMerge.plus);
+
+        b.put(link("a", "(a-->b)", 0.5f));
+        b.put(link("a", "(a-->c)", 0.4f));
+        b.put(link("b", "(a-->b)", 0.3f));
+        assertEquals(Set.of($$("(a-->b)"), $$("(a-->c)")), targets(b, "a"));
+
+        Set<Term> sources = new HashSet<>();
+        b.forEachTarget($$("(a-->b)"), x -> sources.add(x.source()));
+        assertEquals(Set.of($$("a"), $$("b")), sources);
+
+        //merge does not duplicate
+        b.put(link("a", "(a-->c)", 0.1f));
+        assertEquals(2, targets(b, "a").size());
+
+        b.remove(link("a", "(a-->c)", 0));
+        assertEquals(Set.of($$("(a-->b)")), targets(b, "a"));
+
+        //evicts the weakest, (b, (a-->b))
+        b.put(link("c", "(c-->d)", 0.9f));
+        b.put(link("d", "(c-->d)", 0.9f));
+        assertEquals(3, b.size());
+        assertTrue(targets(b, "b").isEmpty());
+
+        b.clear();
+        assertTrue(targets(b, "a").isEmpty());
+        assertEquals(0, b.sources());
+    }
+
+}
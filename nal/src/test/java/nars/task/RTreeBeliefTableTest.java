@@ -10,6 +10,9 @@ import nars.control.op.Remember;
 import nars.table.BeliefTable;
 import nars.table.BeliefTables;
 import nars.table.eternal.EternalTable;
+import nars.table.temporal.BeliefTableCompaction;
+import nars.table.temporal.ColumnarBeliefTable;
+import nars.table.temporal.CopyOnWriteRTreeBeliefTable;
 import nars.table.temporal.RTreeBeliefTable;
 import nars.table.temporal.TemporalBeliefTable;
 import nars.task.util.Answer;
@@ -166,12 +169,54 @@ class RTreeBeliefTableTest {
         r.print(System.out);
     }
 
+    @Test
+    void testBackgroundCompaction() {
+        NAR n = NARS.shell();
+        BeliefTableCompaction compaction = new BeliefTableCompaction(n);
+        compaction.overflow.set(0.5f);
+
+        Term x = $.p("x");
+        TaskConcept c = (TaskConcept) n.conceptualize(x);
+        BeliefTables cb = (BeliefTables) c.beliefs();
+        RTreeBeliefTable r = cb.tableFirst(RTreeBeliefTable.class);
+        int cap = 8;
+        r.setTaskCapacity(cap);
+
+        for (int i = 0; i < 32; i++)
+            add(cb, x, i % 2, 0.9f, i, i, n);
+
+        //appended up to the overflow, and queued once
+        assertTrue(r.size() > cap);
+        assertTrue(r.size() <= cap + cap / 2);
+        assertEquals(1, compaction.size());
+
+        int version = cb.version();
+        n.run(1);
+
+        assertTrue(r.size() <= cap);
+        assertEquals(0, compaction.size());
+        assertTrue(cb.version() > version);
+    }
+
     @Test
     void testProjection() throws Narsese.NarseseException {
+        testProjection(new RTreeBeliefTable());
+    }
+
+    @Test
+    void testProjectionCopyOnWrite() throws Narsese.NarseseException {
+        testProjection(new CopyOnWriteRTreeBeliefTable());
+    }
+
+    @Test
+    void testProjectionColumnar() throws Narsese.NarseseException {
+        testProjection(new ColumnarBeliefTable());
+    }
+
+    private static void testProjection(TemporalBeliefTable r) throws Narsese.NarseseException {
         NAR nar = NARS.shell();
         Term ab = nars.$.$("a:b");
         TaskConcept AB = (TaskConcept) nar.conceptualize(ab);
-        RTreeBeliefTable r = new RTreeBeliefTable();
         r.setTaskCapacity(4);
 
         add(r, AB, 1f, 0.9f, 0, 1, nar);
@@ -43,6 +43,18 @@ class InterningTermBuilderTest {
 
     }
 
+    @Test
+    void testOffHeap() {
+        InterningTermBuilder t = new InterningTermBuilder("offHeapTest", true, 28, 1024, true);
+        Term pab = t.compound(PROD, a, b);
+        assertEquals("(a,b)", pab.toString());
+        assertSame(pab, t.compound(PROD, a, b));
+
+        Term paab = t.compound(PROD, a, t.compound(PROD, a, b));
+        assertSame(pab, paab.sub(1));
+        assertSame(paab, t.compound(PROD, a, t.compound(PROD, a, b)));
+    }
+
     @Test void testMappedNegBiSubterms() {
 
         InterningTermBuilder t = new InterningTermBuilder();
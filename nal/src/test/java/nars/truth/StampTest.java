@@ -1,6 +1,7 @@
 package nars.truth;
 
 import nars.$;
+import nars.Param;
 import nars.task.NALTask;
 import org.eclipse.collections.api.tuple.primitive.ObjectFloatPair;
 import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
@@ -47,6 +48,26 @@ class StampTest {
 
     }
 
+    @Test
+    void testOverlapBloom() {
+        java.util.Random rng = new java.util.Random(1);
+        for (int i = 0; i < 10000; i++) {
+            long[] x = randomStamp(rng), y = randomStamp(rng);
+            boolean overlaps = Stamp.overlapsAny(x, y);
+            if ((Stamp.bloom(x) & Stamp.bloom(y)) == 0)
+                assertFalse(overlaps);
+            assertEquals(overlaps, Stamp.overlapFraction(x, y) > 0);
+        }
+    }
+
+    private static long[] randomStamp(java.util.Random rng) {
+        LongArrayList l = new LongArrayList();
+        int n = 1 + rng.nextInt(Param.STAMP_CAPACITY);
+        for (int i = 0; i < n; i++)
+            l.add(rng.nextInt(64));
+        return Stamp.toSetArray(l.toArray());
+    }
+
     @Test
     void testStampZipForward() {
         assertEquals(
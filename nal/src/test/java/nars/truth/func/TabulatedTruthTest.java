@@ -0,0 +1,65 @@
+package nars.truth.func;
+
+import nars.$;
+import nars.NAR;
+import nars.NARS;
+import nars.truth.Truth;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TabulatedTruthTest {
+
+    @Test
+    void testTabulatedEqualsExact() {
+        NAR n = NARS.shell();
+        float minConf = n.confMin.floatValue();
+        Random rng = new Random(1);
+
+        for (NALTruth f : NALTruth.values()) {
+            TruthFunc t = TabulatedTruth.the(f);
+            if (f.single()) {
+                assertSame(f, t);
+                continue;
+            }
+            assertSame(t, TabulatedTruth.the(f));
+
+            for (int i = 0; i < 200; i++) {
+                //on the grid, and off it
+                boolean grid = i % 4 != 0;
+                Truth a = truth(rng, grid), b = truth(rng, grid);
+                Truth exact = f.apply(a, b, n, minConf);
+                for (int repeat = 0; repeat < 2; repeat++)
+                    assertEquals(exact, t.apply(a, b, n, minConf), () -> f + " " + a + " " + b);
+            }
+        }
+    }
+
+    @Test
+    void testClear() {
+        NAR n = NARS.shell();
+        float minConf = n.confMin.floatValue();
+        TabulatedTruth t = (TabulatedTruth) TabulatedTruth.the(NALTruth.Deduction);
+        Truth a = $.t(1, 0.9f), b = $.t(0.5f, 0.8f);
+        Truth y = t.apply(a, b, n, minConf);
+        assertTrue(t.size() > 0);
+
+        TabulatedTruth.clearAll();
+        assertEquals(0, t.size());
+        assertSame(t, TabulatedTruth.the(NALTruth.Deduction));
+        assertEquals(y, t.apply(a, b, n, minConf));
+        assertEquals(1, t.size());
+    }
+
+    private static Truth truth(Random rng, boolean grid) {
+        float f = rng.nextFloat(), c = 0.01f + rng.nextFloat() * 0.98f;
+        if (grid) {
+            f = Math.round(f * 100) / 100f;
+            c = Math.round(c * 100) / 100f;
+        }
+        return $.t(f, c);
+    }
+
+}
@@ -75,12 +75,9 @@ public class MapNodeGraph<N, E> extends NodeGraph<N, E> {
     }
 
     private MutableNode<N, E> addNode(N key, boolean returnNodeIfExisted) {
-        final boolean[] created = {false};
-        MutableNode<N, E> r = (MutableNode<N, E>) nodes.computeIfAbsent(key, (x) -> {
-            created[0] = true;
-            return newNode(x);
-        });
-        if (created[0]) {
+        MutableNode<N, E> r = (MutableNode<N, E>) nodes.get(key);
+        if (r == null) {
+            nodes.put(key, r = (MutableNode<N, E>) newNode(key));
             onAdd(r);
             return r;
         } else {
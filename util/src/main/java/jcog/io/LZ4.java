@@ -22,6 +22,7 @@ import org.apache.lucene.store.DataInput;
 import org.apache.lucene.util.packed.PackedInts;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 /**
@@ -32,7 +33,7 @@ import java.util.Arrays;
  * http://code.google.com/p/lz4/
  * http://fastcompression.blogspot.fr/p/lz4.html
  */
-final class LZ4 {
+public final class LZ4 {
 
     private LZ4() {
     }
@@ -138,6 +139,39 @@ final class LZ4 {
         return dOff;
     }
 
+    /**
+     * decompresses from the buffer's position into <code>dest[0:decompressedLen]</code>,
+     * advancing the buffer past the compressed bytes.  the buffer may be direct or mapped.
+     */
+    public static int decompress(ByteBuffer compressed, int decompressedLen, byte[] dest) throws IOException {
+        return decompress(new DataInput() {
+            @Override
+            public byte readByte() {
+                return compressed.get();
+            }
+
+            @Override
+            public void readBytes(byte[] b, int offset, int len) {
+                compressed.get(b, offset, len);
+            }
+        }, decompressedLen, dest, 0);
+    }
+
+    /** upper bound of the compressed size of len bytes */
+    public static int maxCompressedLength(int len) {
+        return len + (len / 255) + 16;
+    }
+
+    /**
+     * compresses <code>src[off:off+len]</code> into <code>dest[destOff:]</code>, which should have
+     * room for maxCompressedLength(len) bytes.  returns the compressed length
+     */
+    public static int compress(byte[] src, int off, int len, byte[] dest, int destOff, HashTable ht) {
+        ByteArrayDataOutput out = new ByteArrayDataOutput(dest, destOff, dest.length - destOff);
+        compress(src, off, len, out, ht);
+        return out.getPosition() - destOff;
+    }
+
     private static void encodeLen(int l, ByteArrayDataOutput out) {
         while (l >= 0xFF) {
             out.writeByte((byte) 0xFF);
@@ -182,7 +216,7 @@ final class LZ4 {
         }
     }
 
-    static final class HashTable {
+    public static final class HashTable {
         private int hashLog;
         private PackedInts.Mutable hashTable;
 
@@ -2,6 +2,7 @@ package jcog.memoize;
 
 import jcog.memoize.byt.ByteHijackMemoize;
 import jcog.memoize.byt.ByteKey;
+import jcog.memoize.byt.OffHeapByteMemoize;
 
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
@@ -38,7 +39,7 @@ public class Memoizers {
         Runtime.getRuntime().addShutdownHook(new Thread(this::print));
     }
 
-    protected void print() {
+    public void print() {
         for (MemoizationStatistics m : memoize)
             m.print();
     }
@@ -95,6 +96,13 @@ public class Memoizers {
 //        return (x)->c.apply(x).get();
     }
 
+    /** registers a memoizer whose keys are stored off-heap, in an arena of the given size */
+    public <X extends ByteKey.ByteKeyExternal, Y> Function<X, Y> memoizeByteOffHeap(String id, int capacity, int arenaBytes, Function<X, Y> computation) {
+        OffHeapByteMemoize<X, Y> c = new OffHeapByteMemoize<>(computation, capacity, arenaBytes, DEFAULT_HIJACK_REPROBES);
+        add(id, c);
+        return c;
+    }
+
     private static class MemoizationStatistics {
         public final String name;
         public final Memoize memoize;
@@ -0,0 +1,305 @@
+package jcog.memoize.byt;
+
+import jcog.Texts;
+import jcog.memoize.AbstractMemoize;
+import org.eclipse.collections.api.block.procedure.primitive.ObjectLongProcedure;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+
+/**
+ * byte-keyed memoizer whose keys are stored off-heap.
+ * <p>
+ * the serialized key bytes are appended to a direct memory arena, used as a circular log:
+ * when it fills, the oldest records are evicted to make room.  each record is
+ * [int slot][int length][key bytes], padded to 8 bytes.
+ * <p>
+ * the on-heap part is three primitive/reference arrays indexed by slot: the key's hash,
+ * the record's arena offset, and the value.  no object is allocated per entry, so
+ * many entries can be held without growing the old generation.
+ * <p>
+ * slots are probed as in HijackMemoize; when all probes are occupied the oldest
+ * of them (the one nearest the arena's head) is replaced.
+ */
+public class OffHeapByteMemoize<X extends ByteKey.ByteKeyExternal, Y> extends AbstractMemoize<X, Y> {
+
+    private static final int RECORD_HEADER = 8;
+
+    private final Function<X, Y> func;
+    private final int reprobes;
+
+    private final int mask;
+    private final int[] hashes;
+    /** arena offset of each slot's record, or -1 if empty */
+    private final int[] offsets;
+    private final Object[] values;
+
+    private final ByteBuffer arena;
+    private final int arenaCapacity;
+    /** oldest record */
+    private int head;
+    /** next record */
+    private int tail;
+    /** bytes of arena in use, including padding and records whose slot has been replaced */
+    private int used;
+    private int size;
+
+    private final StampedLock lock = new StampedLock();
+
+    /**
+     * @param capacity number of slots, rounded up to a power of 2
+     * @param arenaBytes off-heap bytes for the keys
+     */
+    public OffHeapByteMemoize(Function<X, Y> f, int capacity, int arenaBytes, int reprobes) {
+        this.func = f;
+        this.reprobes = reprobes;
+
+        int c = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = c - 1;
+        this.hashes = new int[c];
+        this.offsets = new int[c];
+        Arrays.fill(offsets, -1);
+        this.values = new Object[c];
+
+        this.arenaCapacity = align(Math.max(arenaBytes, RECORD_HEADER * 2));
+        this.arena = ByteBuffer.allocateDirect(arenaCapacity);
+    }
+
+    private static int align(int bytes) {
+        return (bytes + 7) & ~7;
+    }
+
+    @Override
+    public final @Nullable Y apply(X x) {
+        try {
+            Y y = get(x);
+            if (y != null) {
+                hit.getAndIncrement();
+                return y;
+            }
+
+            y = func.apply(x);
+            return y != null ? put(x, y) : null;
+        } finally {
+            x.close();
+        }
+    }
+
+    @Nullable
+    private Y get(X x) {
+        StampedLock l = this.lock;
+        long stamp = l.tryOptimisticRead();
+        Y y = null;
+        try {
+            y = find(x);
+        } catch (IndexOutOfBoundsException e) {
+            //concurrently overwritten; retry with the read lock
+        }
+        if (!l.validate(stamp)) {
+            stamp = l.readLock();
+            try {
+                y = find(x);
+            } finally {
+                l.unlockRead(stamp);
+            }
+        }
+        return y;
+    }
+
+    private Y find(X x) {
+        int s = slot(x);
+        return s >= 0 ? (Y) values[s] : null;
+    }
+
+    /** slot containing the key, or -1 */
+    private int slot(X x) {
+        int h = x.hashCode();
+        byte[] k = x.array();
+        int kLen = x.length();
+        for (int i = 0; i < reprobes; i++) {
+            int s = (h + i) & mask;
+            int o = offsets[s];
+            if (o >= 0 && hashes[s] == h && keyEquals(o, k, kLen))
+                return s;
+        }
+        return -1;
+    }
+
+    private boolean keyEquals(int o, byte[] k, int kLen) {
+        ByteBuffer a = this.arena;
+        if (a.getInt(o + 4) != kLen)
+            return false;
+        int p = o + RECORD_HEADER;
+        for (int i = 0; i < kLen; i++) {
+            if (a.get(p + i) != k[i])
+                return false;
+        }
+        return true;
+    }
+
+    /** returns the interned value, which may have been inserted concurrently by another thread */
+    private Y put(X x, Y y) {
+        int kLen = x.length();
+        int rec = align(RECORD_HEADER + kLen);
+        if (rec > arenaCapacity) {
+            reject.getAndIncrement();
+            return y;
+        }
+
+        long stamp = lock.writeLock();
+        try {
+            int existing = slot(x);
+            if (existing >= 0) {
+                //result obtained before inserting ours, use that it is more likely to be shared
+                miss.getAndIncrement();
+                return (Y) values[existing];
+            }
+
+            int o = allocate(rec);
+
+            int s = victim(x.hashCode());
+            if (offsets[s] >= 0)
+                size--;
+
+            ByteBuffer a = this.arena;
+            a.putInt(o, s);
+            a.putInt(o + 4, kLen);
+            byte[] k = x.array();
+            for (int i = 0; i < kLen; i++)
+                a.put(o + RECORD_HEADER + i, k[i]);
+
+            hashes[s] = x.hashCode();
+            offsets[s] = o;
+            values[s] = y;
+            size++;
+            miss.getAndIncrement();
+            return y;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** the first empty probe, otherwise the probe with the oldest record */
+    private int victim(int h) {
+        int oldest = -1, oldestFromHead = -1;
+        for (int i = 0; i < reprobes; i++) {
+            int s = (h + i) & mask;
+            int o = offsets[s];
+            if (o < 0)
+                return s;
+            int fromHead = o >= head ? o - head : o + arenaCapacity - head;
+            if (oldest == -1 || fromHead < oldestFromHead) {
+                oldest = s;
+                oldestFromHead = fromHead;
+            }
+        }
+        return oldest;
+    }
+
+    /** reserves a contiguous record at the tail, evicting from the head as necessary */
+    private int allocate(int rec) {
+        while (true) {
+            if (used == 0)
+                head = tail = 0;
+
+            boolean wrapped = tail < head || (tail == head && used > 0);
+            if (!wrapped) {
+                if (arenaCapacity - tail >= rec)
+                    break;
+
+                //pad the remainder and continue from the start
+                int pad = arenaCapacity - tail;
+                if (pad > 0) {
+                    arena.putInt(tail, -1);
+                    arena.putInt(tail + 4, pad - RECORD_HEADER);
+                    used += pad;
+                }
+                tail = 0;
+            } else {
+                if (head - tail >= rec)
+                    break;
+                evictHead();
+            }
+        }
+
+        int o = tail;
+        tail += rec;
+        used += rec;
+        return o;
+    }
+
+    private void evictHead() {
+        ByteBuffer a = this.arena;
+        int s = a.getInt(head);
+        int rec = align(RECORD_HEADER + a.getInt(head + 4));
+        if (s >= 0 && offsets[s] == head) {
+            offsets[s] = -1;
+            values[s] = null;
+            size--;
+            evict.getAndIncrement();
+        }
+        used -= rec;
+        head += rec;
+        if (head == arenaCapacity)
+            head = 0;
+    }
+
+    @Override
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            Arrays.fill(offsets, -1);
+            Arrays.fill(values, null);
+            head = tail = used = size = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /** number of memoized entries */
+    public int size() {
+        return size;
+    }
+
+    /** off-heap bytes in use, including records that have been replaced but not yet evicted */
+    public int arenaUsed() {
+        return used;
+    }
+
+    /** estimated total bytes per entry: its share of the arena and of the slot arrays */
+    public float bytesPerEntry() {
+        int n = size;
+        if (n == 0)
+            return 0;
+        long slotBytes = (long) values.length * (Integer.BYTES * 2 + 4 /* compressed reference */);
+        return (used + slotBytes) / (float) n;
+    }
+
+    public float statReset(ObjectLongProcedure<String> eachStat) {
+        long H, M, R, E;
+        eachStat.accept("H" /* hit */, H = hit.getAndSet(0));
+        eachStat.accept("M" /* miss */, M = miss.getAndSet(0));
+        eachStat.accept("R" /* reject */, R = reject.getAndSet(0));
+        eachStat.accept("E" /* evict */, E = evict.getAndSet(0));
+        return (H / ((float) (H + M + R)));
+    }
+
+    /**
+     * clears the statistics
+     */
+    @Override
+    public String summary() {
+        StringBuilder sb = new StringBuilder(64);
+        sb.append(" N=").append(size).append(' ');
+        float rate = statReset((k, v) -> {
+            sb.append(k).append('=').append(v).append(' ');
+        });
+        sb.append("B/entry=").append(Texts.n2(bytesPerEntry()));
+        sb.append(" arena=").append(Texts.n2percent(used / (float) arenaCapacity));
+        sb.insert(0, Texts.n2percent(rate));
+        return sb.toString();
+    }
+}
@@ -124,6 +124,11 @@ public class Services<C /* context */, K /* service key */> {
         return services.entrySet();
     }
 
+    @Nullable
+    public final Service<C> get(K key) {
+        return services.get(key);
+    }
+
     public final void add(K key, Service<C> s) {
         set(key, s, true);
     }
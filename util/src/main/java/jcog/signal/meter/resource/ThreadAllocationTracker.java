@@ -0,0 +1,46 @@
+package jcog.signal.meter.resource;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * bytes allocated by the current thread, read through the HotSpot ThreadMXBean extension.
+ * returns -1 where unsupported
+ */
+public final class ThreadAllocationTracker {
+
+    private static final com.sun.management.ThreadMXBean threadMXBean;
+
+    static {
+        ThreadMXBean t = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean s = null;
+        if (t instanceof com.sun.management.ThreadMXBean) {
+            s = (com.sun.management.ThreadMXBean) t;
+            try {
+                if (s.isThreadAllocatedMemorySupported()) {
+                    if (!s.isThreadAllocatedMemoryEnabled())
+                        s.setThreadAllocatedMemoryEnabled(true);
+                } else {
+                    s = null;
+                }
+            } catch (UnsupportedOperationException | SecurityException e) {
+                s = null;
+            }
+        }
+        threadMXBean = s;
+    }
+
+    private ThreadAllocationTracker() {
+
+    }
+
+    public static boolean supported() {
+        return threadMXBean != null;
+    }
+
+    /** total bytes allocated by the current thread so far, or -1 */
+    public static long allocated() {
+        return threadMXBean != null ?
+                threadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId()) : -1;
+    }
+}